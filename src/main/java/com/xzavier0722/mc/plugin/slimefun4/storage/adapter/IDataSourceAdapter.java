@@ -3,14 +3,17 @@ package com.xzavier0722.mc.plugin.slimefun4.storage.adapter;
 import com.xzavier0722.mc.plugin.slimefun4.storage.common.DataType;
 import com.xzavier0722.mc.plugin.slimefun4.storage.common.RecordKey;
 import com.xzavier0722.mc.plugin.slimefun4.storage.common.RecordSet;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface IDataSourceAdapter<T> {
     /**
      * 当前数据库架构版本号
      * 在数据库结构有变动时更新
      */
-    int DATABASE_VERSION = 3;
+    int DATABASE_VERSION = 4;
 
     void prepare(T config);
 
@@ -26,7 +29,41 @@ public interface IDataSourceAdapter<T> {
 
     List<RecordSet> getData(RecordKey key, boolean distinct);
 
+    /**
+     * 逐行读取数据, 结果不会一次性全部载入内存.
+     * 默认实现会调用 {@link #getData(RecordKey, boolean)}.
+     * <br/>
+     * 数据库连接在读取期间会被占用, {@code consumer} 中不应执行耗时操作或等待其它查询完成.
+     *
+     * @param key      查询条件
+     * @param distinct 是否去重
+     * @param consumer 每行数据的处理方法
+     */
+    default void forEachData(RecordKey key, boolean distinct, Consumer<RecordSet> consumer) {
+        getData(key, distinct).forEach(consumer);
+    }
+
     void deleteData(RecordKey key);
 
+    /**
+     * 批量写入数据，默认实现会逐条调用 {@link #setData(RecordKey, RecordSet)}。
+     * <br/>
+     * 支持事务的适配器应在同一事务中以批处理方式执行这些写入。
+     *
+     * @param items 需要写入的数据，按迭代顺序执行
+     */
+    default void setDataBatch(Map<RecordKey, RecordSet> items) {
+        items.forEach(this::setData);
+    }
+
+    /**
+     * 批量删除数据，默认实现会逐条调用 {@link #deleteData(RecordKey)}。
+     *
+     * @param keys 需要删除的数据，按迭代顺序执行
+     */
+    default void deleteDataBatch(Collection<RecordKey> keys) {
+        keys.forEach(this::deleteData);
+    }
+
     void patch();
 }
@@ -17,7 +17,9 @@ public class MysqlConfig extends SqlCommonConfig {
 
     @Override
     public String jdbcUrl() {
-        return "jdbc:mysql://" + host + ":" + port + "/" + database + "?characterEncoding=utf8&useSSL=" + useSsl;
+        return "jdbc:mysql://" + host + ":" + port + "/" + database + "?characterEncoding=utf8&useSSL=" + useSsl
+                // 使用服务端游标分批读取, 并在连接中缓存预编译语句
+                + "&useCursorFetch=true&cachePrepStmts=true&prepStmtCacheSize=256&prepStmtCacheSqlLimit=2048";
     }
 
     @Override
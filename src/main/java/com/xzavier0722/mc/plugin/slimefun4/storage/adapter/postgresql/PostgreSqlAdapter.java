@@ -5,6 +5,7 @@ import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlC
 import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlConstants.FIELD_BACKPACK_NUM;
 import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlConstants.FIELD_BACKPACK_SIZE;
 import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlConstants.FIELD_CHUNK;
+import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlConstants.FIELD_DATA_ENCODING;
 import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlConstants.FIELD_DATA_KEY;
 import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlConstants.FIELD_DATA_VALUE;
 import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlConstants.FIELD_INVENTORY_ITEM;
@@ -25,12 +26,13 @@ import com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlCommonAd
 import com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlUtils;
 import com.xzavier0722.mc.plugin.slimefun4.storage.common.DataScope;
 import com.xzavier0722.mc.plugin.slimefun4.storage.common.DataType;
+import com.xzavier0722.mc.plugin.slimefun4.storage.common.FieldKey;
 import com.xzavier0722.mc.plugin.slimefun4.storage.common.RecordKey;
 import com.xzavier0722.mc.plugin.slimefun4.storage.common.RecordSet;
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
 import java.text.MessageFormat;
 import java.util.Arrays;
-import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class PostgreSqlAdapter extends SqlCommonAdapter<PostgreSqlConfig> {
@@ -125,18 +127,37 @@ public class PostgreSqlAdapter extends SqlCommonAdapter<PostgreSqlConfig> {
     }
 
     @Override
-    public List<RecordSet> getData(RecordKey key, boolean distinct) {
-        return executeQuery((distinct ? "SELECT DISTINCT " : "SELECT ")
-                + SqlUtils.buildFieldStr(key.getFields()).orElse("*")
-                + " FROM "
-                + mapTable(key.getScope())
-                + SqlUtils.buildConditionStr(key.getConditions())
-                + ";");
+    public void deleteData(RecordKey key) {
+        executeSql("DELETE FROM " + mapTable(key.getScope()) + SqlUtils.buildConditionStr(key.getConditions()) + ";");
     }
 
     @Override
-    public void deleteData(RecordKey key) {
-        executeSql("DELETE FROM " + mapTable(key.getScope()) + SqlUtils.buildConditionStr(key.getConditions()) + ";");
+    protected String buildUpsertSql(DataScope scope, Set<FieldKey> fields, Set<FieldKey> updateFields) {
+        var contrastStr = Arrays.stream(scope.getPrimaryKeys())
+                .map(SqlUtils::mapField)
+                .collect(Collectors.joining(", "));
+
+        return "INSERT INTO "
+                + mapTable(scope)
+                + " ("
+                + SqlUtils.buildFieldStr(fields).orElseThrow()
+                + ") VALUES ("
+                + SqlUtils.buildPlaceholderStr(fields.size())
+                + ")"
+                + (contrastStr.isEmpty()
+                        ? ""
+                        : " ON CONFLICT ("
+                                + contrastStr
+                                + ") "
+                                + (updateFields.isEmpty()
+                                        ? "DO NOTHING"
+                                        : "DO UPDATE SET "
+                                                + String.join(
+                                                        ", ",
+                                                        updateFields.stream()
+                                                                .map(field -> SqlUtils.mapField(field) + "=?")
+                                                                .toList())))
+                + ";";
     }
 
     private void createProfileTables() {
@@ -285,6 +306,8 @@ public class PostgreSqlAdapter extends SqlCommonAdapter<PostgreSqlConfig> {
                 + " VARCHAR(64) NOT NULL, "
                 + FIELD_DATA_VALUE
                 + " TEXT NOT NULL, "
+                + FIELD_DATA_ENCODING
+                + " SMALLINT NOT NULL DEFAULT 0, "
                 + "FOREIGN KEY ("
                 + FIELD_LOCATION
                 + ") "
@@ -312,6 +335,8 @@ public class PostgreSqlAdapter extends SqlCommonAdapter<PostgreSqlConfig> {
                 + " VARCHAR(64) NOT NULL, "
                 + FIELD_DATA_VALUE
                 + " TEXT NOT NULL, "
+                + FIELD_DATA_ENCODING
+                + " SMALLINT NOT NULL DEFAULT 0, "
                 + "PRIMARY KEY ("
                 + FIELD_CHUNK
                 + ", "
@@ -391,6 +416,8 @@ public class PostgreSqlAdapter extends SqlCommonAdapter<PostgreSqlConfig> {
                 + " VARCHAR(64) NOT NULL, "
                 + FIELD_DATA_VALUE
                 + " TEXT NOT NULL, "
+                + FIELD_DATA_ENCODING
+                + " SMALLINT NOT NULL DEFAULT 0, "
                 + "FOREIGN KEY ("
                 + FIELD_UNIVERSAL_UUID
                 + ") "
@@ -0,0 +1,81 @@
+package com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon;
+
+import com.xzavier0722.mc.plugin.slimefun4.storage.common.FieldKey;
+import io.github.bakedlibs.dough.collections.Pair;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link PreparedBatch} 在单个连接上按 SQL 语句缓存 {@link PreparedStatement}，
+ * 相同结构的语句只会被预编译一次，并通过 JDBC 批处理统一提交。
+ * <br/>
+ * 该类非线程安全，生命周期应与所属事务一致。
+ */
+public class PreparedBatch implements AutoCloseable {
+    private final Connection conn;
+    private final Map<String, PreparedStatement> statements = new LinkedHashMap<>();
+    private int size = 0;
+
+    public PreparedBatch(Connection conn) {
+        this.conn = conn;
+    }
+
+    /**
+     * 添加一条语句至批处理中
+     *
+     * @param sql    带占位符的 SQL 语句
+     * @param params 按占位符顺序排列的参数
+     */
+    public void add(String sql, List<Pair<FieldKey, Object>> params) throws SQLException {
+        var stmt = statements.get(sql);
+        if (stmt == null) {
+            stmt = conn.prepareStatement(sql);
+            statements.put(sql, stmt);
+        }
+
+        var index = 1;
+        for (var param : params) {
+            SqlUtils.bindValue(stmt, index++, param.getFirstValue(), param.getSecondValue());
+        }
+        stmt.addBatch();
+        size++;
+    }
+
+    /**
+     * 按语句首次加入的顺序执行所有批处理
+     */
+    public void execute() throws SQLException {
+        for (var stmt : statements.values()) {
+            stmt.executeBatch();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        SQLException failure = null;
+        for (var stmt : statements.values()) {
+            try {
+                stmt.close();
+            } catch (SQLException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        statements.clear();
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -10,19 +10,31 @@ import city.norain.slimefun4.timings.entry.SQLEntry;
 import com.xzavier0722.mc.plugin.slimefun4.storage.adapter.IDataSourceAdapter;
 import com.xzavier0722.mc.plugin.slimefun4.storage.common.DataScope;
 import com.xzavier0722.mc.plugin.slimefun4.storage.common.FieldKey;
+import com.xzavier0722.mc.plugin.slimefun4.storage.common.RecordKey;
 import com.xzavier0722.mc.plugin.slimefun4.storage.common.RecordSet;
 import com.xzavier0722.mc.plugin.slimefun4.storage.patch.DatabasePatch;
 import com.xzavier0722.mc.plugin.slimefun4.storage.patch.DatabasePatchV1;
 import com.xzavier0722.mc.plugin.slimefun4.storage.patch.DatabasePatchV2;
 import com.xzavier0722.mc.plugin.slimefun4.storage.patch.DatabasePatchV3;
+import com.xzavier0722.mc.plugin.slimefun4.storage.patch.DatabasePatchV4;
 import com.zaxxer.hikari.HikariDataSource;
+import io.github.bakedlibs.dough.collections.Pair;
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 
 public abstract class SqlCommonAdapter<T extends ISqlCommonConfig> implements IDataSourceAdapter<T> {
+    public static final int DEFAULT_FETCH_SIZE = 500;
+
     protected HikariDataSource ds;
     protected String profileTable, researchTable, backpackTable, bpInvTable;
     protected String blockRecordTable,
@@ -35,6 +47,19 @@ public abstract class SqlCommonAdapter<T extends ISqlCommonConfig> implements ID
     protected String tableMetadataTable;
     protected T config;
 
+    /**
+     * 按语句结构缓存的预编译写入语句
+     */
+    private final Map<UpsertShape, String> upsertStatements = new ConcurrentHashMap<>();
+    /**
+     * 按语句结构缓存的预编译查询语句
+     */
+    private final Map<QueryShape, String> queryStatements = new ConcurrentHashMap<>();
+    /**
+     * 流式读取时每次从数据库获取的行数
+     */
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+
     @Override
     public void prepare(T config) {
         this.config = config;
@@ -66,6 +91,217 @@ public abstract class SqlCommonAdapter<T extends ISqlCommonConfig> implements ID
         }
     }
 
+    @Override
+    public void setDataBatch(Map<RecordKey, RecordSet> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        executeBatch("UPSERT BATCH (" + items.size() + ")", batch -> {
+            for (var entry : items.entrySet()) {
+                addSetData(batch, entry.getKey(), entry.getValue());
+            }
+        });
+    }
+
+    @Override
+    public void deleteDataBatch(Collection<RecordKey> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        executeBatch("DELETE BATCH (" + keys.size() + ")", batch -> {
+            for (var key : keys) {
+                var params = new ArrayList<Pair<FieldKey, Object>>(key.getConditions().size());
+                SqlUtils.addConditionParams(params, key.getConditions());
+                batch.add(
+                        "DELETE FROM "
+                                + mapTable(key.getScope())
+                                + SqlUtils.buildPreparedConditionStr(key.getConditions())
+                                + ";",
+                        params);
+            }
+        });
+    }
+
+    /**
+     * 构建带占位符的写入语句，参数顺序为 {@code fields} 对应的值，
+     * 随后为 {@code updateFields} 对应的值。
+     *
+     * @param scope        数据作用域
+     * @param fields       需要写入的字段
+     * @param updateFields 主键冲突时需要更新的字段
+     * @return 预编译使用的 SQL 语句
+     */
+    protected abstract String buildUpsertSql(DataScope scope, Set<FieldKey> fields, Set<FieldKey> updateFields);
+
+    protected void addSetData(PreparedBatch batch, RecordKey key, RecordSet item) throws SQLException {
+        var data = item.getAllValues();
+        if (data.isEmpty()) {
+            throw new IllegalArgumentException("No data provided in RecordSet.");
+        }
+
+        var updateFields = SqlUtils.orderedFields(key.getFields());
+        if (!updateFields.isEmpty() && key.getConditions().isEmpty()) {
+            throw new IllegalArgumentException("Condition is required for update statement!");
+        }
+
+        var fields = SqlUtils.orderedFields(data.keySet());
+        var sql = upsertStatements.computeIfAbsent(
+                new UpsertShape(key.getScope(), fields, updateFields),
+                shape -> buildUpsertSql(shape.scope(), shape.fields(), shape.updateFields()));
+
+        var params = new ArrayList<Pair<FieldKey, Object>>(fields.size() + updateFields.size());
+        for (var field : fields) {
+            params.add(new Pair<>(field, data.get(field)));
+        }
+        for (var field : updateFields) {
+            var val = item.getValue(field);
+            if (val == null) {
+                throw new IllegalArgumentException("Cannot find value in RecordSet for the specific key: " + field);
+            }
+            params.add(new Pair<>(field, val));
+        }
+
+        batch.add(sql, params);
+    }
+
+    protected void executeBatch(String desc, BatchFiller filler) {
+        var entry = new SQLEntry(desc);
+        Slimefun.getSQLProfiler().recordEntry(entry);
+
+        try (var conn = ds.getConnection()) {
+            var autoCommit = conn.getAutoCommit();
+            try (var batch = new PreparedBatch(conn)) {
+                conn.setAutoCommit(false);
+                filler.fill(batch);
+                batch.execute();
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                rollback(conn, e);
+                throw e;
+            } finally {
+                if (conn.getAutoCommit() != autoCommit) {
+                    conn.setAutoCommit(autoCommit);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("An exception thrown while executing batch: " + desc, e);
+        } finally {
+            Slimefun.getSQLProfiler().finishEntry(entry);
+        }
+    }
+
+    @Override
+    public List<RecordSet> getData(RecordKey key, boolean distinct) {
+        var re = new ArrayList<RecordSet>();
+        executePreparedQuery(key, distinct, false, re::add);
+        return re.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(re);
+    }
+
+    @Override
+    public void forEachData(RecordKey key, boolean distinct, Consumer<RecordSet> consumer) {
+        executePreparedQuery(key, distinct, true, consumer);
+    }
+
+    /**
+     * 设置流式读取时每次从数据库获取的行数
+     *
+     * @param fetchSize 每次获取的行数
+     */
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("fetch size must be greater than 0!");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    private void executePreparedQuery(
+            RecordKey key, boolean distinct, boolean streaming, Consumer<RecordSet> consumer) {
+        var conditions = key.getConditions();
+        var sql = queryStatements.computeIfAbsent(QueryShape.of(key, distinct), this::buildQuerySql);
+        var entry = new SQLEntry(sql);
+        Slimefun.getSQLProfiler().recordEntry(entry);
+
+        try (var conn = ds.getConnection()) {
+            var autoCommit = conn.getAutoCommit();
+            try (var stmt = conn.prepareStatement(sql)) {
+                if (streaming) {
+                    // PostgreSQL 仅在事务中才会按 fetch size 分批读取
+                    conn.setAutoCommit(false);
+                    stmt.setFetchSize(fetchSize);
+                }
+
+                for (var i = 0; i < conditions.size(); i++) {
+                    var condition = conditions.get(i);
+                    SqlUtils.bindValue(stmt, i + 1, condition.getFirstValue(), condition.getSecondValue());
+                }
+
+                try (var result = stmt.executeQuery()) {
+                    SqlUtils.readRows(result, consumer);
+                }
+
+                if (streaming) {
+                    conn.commit();
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (streaming) {
+                    rollback(conn, e);
+                }
+                throw e;
+            } finally {
+                if (conn.getAutoCommit() != autoCommit) {
+                    conn.setAutoCommit(autoCommit);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("An exception thrown while executing sql: " + sql, e);
+        } finally {
+            Slimefun.getSQLProfiler().finishEntry(entry);
+        }
+    }
+
+    /**
+     * 构建带占位符的查询语句, 参数顺序与 {@link RecordKey#getConditions()} 一致.
+     * 方块数据与方块物品栏表中没有区块字段, 这两张表的区块条件会被转换为对方块记录表的子查询,
+     * 以便一次查询即可读取整个区块内所有方块的数据.
+     */
+    private String buildQuerySql(QueryShape shape) {
+        var scope = shape.scope();
+        var conditionStr = "";
+        if (!shape.conditions().isEmpty()) {
+            conditionStr = " WHERE "
+                    + String.join(
+                            " AND ",
+                            shape.conditions().stream()
+                                    .map(condition -> {
+                                        var match = condition.wildcard() ? " LIKE ?" : "=?";
+                                        if (condition.field() == FieldKey.CHUNK
+                                                && (scope == DataScope.BLOCK_DATA
+                                                        || scope == DataScope.BLOCK_INVENTORY)) {
+                                            return SqlUtils.mapField(FieldKey.LOCATION)
+                                                    + " IN (SELECT "
+                                                    + SqlUtils.mapField(FieldKey.LOCATION)
+                                                    + " FROM "
+                                                    + mapTable(DataScope.BLOCK_RECORD)
+                                                    + " WHERE "
+                                                    + SqlUtils.mapField(FieldKey.CHUNK)
+                                                    + match
+                                                    + ")";
+                                        }
+                                        return SqlUtils.mapField(condition.field()) + match;
+                                    })
+                                    .toList());
+        }
+
+        return (shape.distinct() ? "SELECT DISTINCT " : "SELECT ")
+                + SqlUtils.buildFieldStr(shape.fields()).orElse("*")
+                + " FROM "
+                + mapTable(scope)
+                + conditionStr
+                + ";";
+    }
+
     protected String mapTable(DataScope scope) {
         return switch (scope) {
             case PLAYER_PROFILE -> profileTable;
@@ -100,6 +336,8 @@ public abstract class SqlCommonAdapter<T extends ISqlCommonConfig> implements ID
         universalDataTable = null;
         universalRecordTable = null;
         tableMetadataTable = null;
+        upsertStatements.clear();
+        queryStatements.clear();
     }
 
     public int getDatabaseVersion() {
@@ -141,6 +379,7 @@ public abstract class SqlCommonAdapter<T extends ISqlCommonConfig> implements ID
             case 0 -> patch = new DatabasePatchV1();
             case 1 -> patch = new DatabasePatchV2();
             case 2 -> patch = new DatabasePatchV3();
+            case 3 -> patch = new DatabasePatchV4();
         }
 
         if (patch == null) {
@@ -191,4 +430,24 @@ public abstract class SqlCommonAdapter<T extends ISqlCommonConfig> implements ID
             failure.addSuppressed(rollbackException);
         }
     }
+
+    @FunctionalInterface
+    protected interface BatchFiller {
+        void fill(PreparedBatch batch) throws SQLException;
+    }
+
+    private record UpsertShape(DataScope scope, Set<FieldKey> fields, Set<FieldKey> updateFields) {}
+
+    private record QueryShape(
+            DataScope scope, Set<FieldKey> fields, List<ConditionShape> conditions, boolean distinct) {
+        static QueryShape of(RecordKey key, boolean distinct) {
+            var conditions = key.getConditions().stream()
+                    .map(condition -> new ConditionShape(
+                            condition.getFirstValue(), SqlUtils.isWildcardsMatching(condition.getSecondValue())))
+                    .toList();
+            return new QueryShape(key.getScope(), SqlUtils.orderedFields(key.getFields()), conditions, distinct);
+        }
+    }
+
+    private record ConditionShape(FieldKey field, boolean wildcard) {}
 }
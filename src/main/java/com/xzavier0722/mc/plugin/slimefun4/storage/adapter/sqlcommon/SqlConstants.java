@@ -39,6 +39,7 @@ public interface SqlConstants {
 
     String FIELD_DATA_KEY = "data_key";
     String FIELD_DATA_VALUE = "data_val";
+    String FIELD_DATA_ENCODING = "data_enc";
 
     String FIELD_UNIVERSAL_UUID = "universal_uuid";
 
@@ -5,6 +5,7 @@ import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlC
 import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlConstants.FIELD_BACKPACK_NUM;
 import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlConstants.FIELD_BACKPACK_SIZE;
 import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlConstants.FIELD_CHUNK;
+import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlConstants.FIELD_DATA_ENCODING;
 import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlConstants.FIELD_DATA_KEY;
 import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlConstants.FIELD_DATA_VALUE;
 import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlConstants.FIELD_INVENTORY_ITEM;
@@ -36,15 +37,19 @@ import com.xzavier0722.mc.plugin.slimefun4.storage.common.FieldKey;
 import com.xzavier0722.mc.plugin.slimefun4.storage.common.FieldMapper;
 import com.xzavier0722.mc.plugin.slimefun4.storage.common.RecordSet;
 import io.github.bakedlibs.dough.collections.Pair;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
-import java.sql.ResultSetMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 
 public class SqlUtils {
 
@@ -66,6 +71,7 @@ public class SqlUtils {
         fieldMap.put(FieldKey.SLIMEFUN_ID, FIELD_SLIMEFUN_ID);
         fieldMap.put(FieldKey.DATA_KEY, FIELD_DATA_KEY);
         fieldMap.put(FieldKey.DATA_VALUE, FIELD_DATA_VALUE);
+        fieldMap.put(FieldKey.DATA_ENCODING, FIELD_DATA_ENCODING);
         fieldMap.put(FieldKey.UNIVERSAL_UUID, FIELD_UNIVERSAL_UUID);
         fieldMap.put(FieldKey.UNIVERSAL_TRAITS, FIELD_UNIVERSAL_TRAITS);
         fieldMap.put(FieldKey.METADATA_KEY, FIELD_TABLE_METADATA_KEY);
@@ -163,39 +169,100 @@ public class SqlUtils {
         return val instanceof byte[] bytes ? toBinarySqlValStr(bytes, true) : toSqlValStr(key, val);
     }
 
+    /**
+     * 以稳定的顺序返回字段集合，保证相同字段集合生成的预编译语句一致
+     */
+    public static Set<FieldKey> orderedFields(Set<FieldKey> fields) {
+        return fields.isEmpty() ? EnumSet.noneOf(FieldKey.class) : EnumSet.copyOf(fields);
+    }
+
+    public static String buildPlaceholderStr(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    public static String buildPreparedConditionStr(List<Pair<FieldKey, String>> conditions) {
+        if (conditions.isEmpty()) {
+            return "";
+        }
+
+        return " WHERE "
+                + String.join(
+                        " AND ",
+                        conditions.stream()
+                                .map(condition -> mapField(condition.getFirstValue())
+                                        + (isWildcardsMatching(condition.getSecondValue()) ? " LIKE ?" : "=?"))
+                                .toList());
+    }
+
+    public static void addConditionParams(
+            List<Pair<FieldKey, Object>> params, List<Pair<FieldKey, String>> conditions) {
+        for (var condition : conditions) {
+            params.add(new Pair<>(condition.getFirstValue(), condition.getSecondValue()));
+        }
+    }
+
+    public static void bindValue(PreparedStatement stmt, int index, FieldKey key, Object val) throws SQLException {
+        if (val instanceof byte[] bytes) {
+            stmt.setBytes(index, bytes);
+            return;
+        }
+
+        var stringVal = (String) val;
+        if (key.isNumType() || key == FieldKey.INVENTORY_SLOT) {
+            try {
+                stmt.setLong(index, Long.parseLong(stringVal));
+                return;
+            } catch (NumberFormatException ignored) {
+                // 交由数据库处理类型转换
+            }
+        }
+
+        stmt.setString(index, stringVal);
+    }
+
     public static List<RecordSet> execQuery(Connection conn, String sql) throws SQLException {
         try (var stmt = conn.createStatement()) {
             try (var result = stmt.executeQuery(sql)) {
-                List<RecordSet> re = null;
-                ResultSetMetaData metaData = null;
-                int columnCount = 0;
-                while (result.next()) {
-                    if (re == null) {
-                        re = new ArrayList<>();
-                        metaData = result.getMetaData();
-                        columnCount = metaData.getColumnCount();
-                    }
-                    var row = new RecordSet();
-                    for (var i = 1; i <= columnCount; i++) {
-                        var field = SqlUtils.mapField(metaData.getColumnName(i));
-                        if (field == FieldKey.INVENTORY_ITEM) {
-                            var storedItem = result.getObject(i);
-                            row.put(
-                                    field,
-                                    storedItem instanceof byte[] bytes
-                                            ? bytes
-                                            : storedItem
-                                                    .toString()
-                                                    .getBytes(java.nio.charset.StandardCharsets.US_ASCII));
-                        } else {
-                            row.put(field, result.getString(i));
-                        }
-                    }
-                    row.readonly();
-                    re.add(row);
+                var re = new ArrayList<RecordSet>();
+                readRows(result, re::add);
+                return re.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(re);
+            }
+        }
+    }
+
+    /**
+     * 逐行读取查询结果, 列名只在读取首行前解析一次
+     *
+     * @param result   查询结果
+     * @param consumer 每行数据的处理方法
+     */
+    public static void readRows(ResultSet result, Consumer<RecordSet> consumer) throws SQLException {
+        FieldKey[] fields = null;
+        while (result.next()) {
+            if (fields == null) {
+                var metaData = result.getMetaData();
+                fields = new FieldKey[metaData.getColumnCount()];
+                for (var i = 0; i < fields.length; i++) {
+                    fields[i] = mapField(metaData.getColumnName(i + 1));
+                }
+            }
+
+            var row = new RecordSet();
+            for (var i = 0; i < fields.length; i++) {
+                var field = fields[i];
+                if (field == FieldKey.INVENTORY_ITEM) {
+                    var storedItem = result.getObject(i + 1);
+                    row.put(
+                            field,
+                            storedItem instanceof byte[] bytes
+                                    ? bytes
+                                    : storedItem.toString().getBytes(StandardCharsets.US_ASCII));
+                } else {
+                    row.put(field, result.getString(i + 1));
                 }
-                return re == null ? Collections.emptyList() : Collections.unmodifiableList(re);
             }
+            row.readonly();
+            consumer.accept(row);
         }
     }
 
@@ -211,7 +278,7 @@ public class SqlUtils {
         }
     }
 
-    private static boolean isWildcardsMatching(String val) {
+    static boolean isWildcardsMatching(String val) {
         return val.endsWith("%") || val.contains("%");
     }
 
@@ -5,6 +5,7 @@ import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlC
 import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlConstants.FIELD_BACKPACK_NUM;
 import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlConstants.FIELD_BACKPACK_SIZE;
 import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlConstants.FIELD_CHUNK;
+import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlConstants.FIELD_DATA_ENCODING;
 import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlConstants.FIELD_DATA_KEY;
 import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlConstants.FIELD_DATA_VALUE;
 import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlConstants.FIELD_INVENTORY_ITEM;
@@ -26,12 +27,18 @@ import com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlCommonAd
 import com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlUtils;
 import com.xzavier0722.mc.plugin.slimefun4.storage.common.DataScope;
 import com.xzavier0722.mc.plugin.slimefun4.storage.common.DataType;
+import com.xzavier0722.mc.plugin.slimefun4.storage.common.FieldKey;
 import com.xzavier0722.mc.plugin.slimefun4.storage.common.RecordKey;
 import com.xzavier0722.mc.plugin.slimefun4.storage.common.RecordSet;
+import io.github.bakedlibs.dough.collections.Pair;
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
 import java.sql.SQLException;
 import java.text.MessageFormat;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class SqliteAdapter extends SqlCommonAdapter<SqliteConfig> {
     @Override
@@ -99,21 +106,80 @@ public class SqliteAdapter extends SqlCommonAdapter<SqliteConfig> {
     }
 
     @Override
-    public List<RecordSet> getData(RecordKey key, boolean distinct) {
-        return executeQuery((distinct ? "SELECT DISTINCT " : "SELECT ")
-                + SqlUtils.buildFieldStr(key.getFields()).orElse("*")
-                + " FROM "
+    public void deleteData(RecordKey key) {
+        executeSql("DELETE FROM "
                 + SqlUtils.mapTable(key.getScope())
                 + SqlUtils.buildConditionStr(key.getConditions())
                 + ";");
     }
 
     @Override
-    public void deleteData(RecordKey key) {
-        executeSql("DELETE FROM "
-                + SqlUtils.mapTable(key.getScope())
-                + SqlUtils.buildConditionStr(key.getConditions())
-                + ";");
+    public synchronized void setDataBatch(Map<RecordKey, RecordSet> items) {
+        // UPSERT 仅在更新条件恰好为主键时与 UPDATE + INSERT OR IGNORE 等价, 否则回退至逐条写入
+        if (!items.keySet().stream().allMatch(SqliteAdapter::isUpsertCompatible)) {
+            items.forEach(this::setData);
+            return;
+        }
+
+        super.setDataBatch(items);
+    }
+
+    @Override
+    public synchronized void deleteDataBatch(Collection<RecordKey> keys) {
+        super.deleteDataBatch(keys);
+    }
+
+    @Override
+    protected String buildUpsertSql(DataScope scope, Set<FieldKey> fields, Set<FieldKey> updateFields) {
+        var table = SqlUtils.mapTable(scope);
+        var fieldStr = SqlUtils.buildFieldStr(fields).orElseThrow();
+        var valStr = SqlUtils.buildPlaceholderStr(fields.size());
+
+        if (updateFields.isEmpty()) {
+            return "INSERT OR IGNORE INTO " + table + " (" + fieldStr + ") VALUES (" + valStr + ");";
+        }
+
+        var contrastStr = Arrays.stream(scope.getPrimaryKeys())
+                .map(SqlUtils::mapField)
+                .collect(Collectors.joining(", "));
+
+        return "INSERT INTO "
+                + table
+                + " ("
+                + fieldStr
+                + ") VALUES ("
+                + valStr
+                + ") ON CONFLICT ("
+                + contrastStr
+                + ") DO UPDATE SET "
+                + String.join(
+                        ", ",
+                        updateFields.stream()
+                                .map(field -> SqlUtils.mapField(field) + "=?")
+                                .toList())
+                + ";";
+    }
+
+    @Override
+    protected String mapTable(DataScope scope) {
+        return SqlUtils.mapTable(scope);
+    }
+
+    private static boolean isUpsertCompatible(RecordKey key) {
+        var updateFields = key.getFields();
+        if (updateFields.isEmpty()) {
+            return true;
+        }
+
+        var primaryKeys = Set.of(key.getScope().getPrimaryKeys());
+        if (primaryKeys.isEmpty() || updateFields.stream().anyMatch(primaryKeys::contains)) {
+            return false;
+        }
+
+        var conditionFields = key.getConditions().stream()
+                .map(Pair::getFirstValue)
+                .collect(Collectors.toSet());
+        return conditionFields.equals(primaryKeys);
     }
 
     private void createProfileTables() {
@@ -264,6 +330,8 @@ public class SqliteAdapter extends SqlCommonAdapter<SqliteConfig> {
                 + " TEXT NOT NULL, "
                 + FIELD_DATA_VALUE
                 + " TEXT NOT NULL, "
+                + FIELD_DATA_ENCODING
+                + " SMALLINT NOT NULL DEFAULT 0, "
                 + "FOREIGN KEY ("
                 + FIELD_LOCATION
                 + ") "
@@ -291,6 +359,8 @@ public class SqliteAdapter extends SqlCommonAdapter<SqliteConfig> {
                 + " TEXT NOT NULL, "
                 + FIELD_DATA_VALUE
                 + " TEXT NOT NULL, "
+                + FIELD_DATA_ENCODING
+                + " SMALLINT NOT NULL DEFAULT 0, "
                 + "PRIMARY KEY ("
                 + FIELD_CHUNK
                 + ", "
@@ -370,6 +440,8 @@ public class SqliteAdapter extends SqlCommonAdapter<SqliteConfig> {
                 + " CHAR(64) NOT NULL, "
                 + FIELD_DATA_VALUE
                 + " TEXT NOT NULL, "
+                + FIELD_DATA_ENCODING
+                + " SMALLINT NOT NULL DEFAULT 0, "
                 + "FOREIGN KEY ("
                 + FIELD_UNIVERSAL_UUID
                 + ") "
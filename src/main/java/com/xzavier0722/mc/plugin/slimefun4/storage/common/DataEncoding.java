@@ -0,0 +1,56 @@
+package com.xzavier0722.mc.plugin.slimefun4.storage.common;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Getter;
+
+/**
+ * {@link DataEncoding} 是方块, 区块及通用数据值 ({@link FieldKey#DATA_VALUE}) 在数据库中的编码方式,
+ * 存储于 {@link FieldKey#DATA_ENCODING} 中.
+ * <br/>
+ * 自数据库版本 4 起, 所有的值均以 {@link #RAW} 写入, 旧版本写入的 {@link #BASE64} 数据
+ * 会在读取时透明解码, 并在加载后重新以 {@link #RAW} 写入.
+ */
+public enum DataEncoding {
+    /**
+     * 原始 UTF-8 文本
+     */
+    RAW(0),
+    /**
+     * 数据库版本 4 之前使用的 Base64 编码
+     */
+    BASE64(1);
+
+    @Getter
+    private final int id;
+
+    DataEncoding(int id) {
+        this.id = id;
+    }
+
+    /**
+     * 根据数据库中存储的编码 ID 获取 {@link DataEncoding}
+     *
+     * @param id 编码 ID, 为空时视为 {@link #RAW}
+     * @return 对应的 {@link DataEncoding}
+     */
+    @Nonnull
+    public static DataEncoding fromId(@Nullable String id) {
+        if (id == null || id.isEmpty()) {
+            return RAW;
+        }
+
+        return switch (Integer.parseInt(id.trim())) {
+            case 0 -> RAW;
+            case 1 -> BASE64;
+            default -> throw new IllegalArgumentException("Unknown data encoding: " + id);
+        };
+    }
+
+    @Nonnull
+    public String decode(@Nonnull String value) {
+        return this == BASE64 ? new String(Base64.getDecoder().decode(value), StandardCharsets.UTF_8) : value;
+    }
+}
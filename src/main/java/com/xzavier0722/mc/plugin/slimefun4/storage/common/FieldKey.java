@@ -22,6 +22,11 @@ public enum FieldKey {
     DATA_KEY,
     DATA_VALUE,
 
+    /**
+     * Represents the {@link DataEncoding} of {@link #DATA_VALUE}
+     */
+    DATA_ENCODING(true),
+
     /**
      * Represents uuid of universal inventory
      */
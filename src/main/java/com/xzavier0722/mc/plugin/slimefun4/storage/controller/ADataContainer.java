@@ -14,6 +14,11 @@ import javax.annotation.ParametersAreNonnullByDefault;
 public abstract class ADataContainer {
     private final String key;
     private final Map<String, String> data;
+    /**
+     * Parsed primitive values of {@link #data}, invalidated whenever the string value changes.
+     */
+    private final Map<String, Object> parsedData;
+
     private volatile boolean isDataLoaded = false;
 
     /**
@@ -25,6 +30,7 @@ public abstract class ADataContainer {
     public ADataContainer(String key) {
         this.key = key;
         data = new ConcurrentHashMap<>();
+        parsedData = new ConcurrentHashMap<>();
     }
 
     /**
@@ -37,6 +43,7 @@ public abstract class ADataContainer {
     public ADataContainer(String key, ADataContainer other) {
         this.key = key;
         this.data = other.data;
+        this.parsedData = other.parsedData;
         this.isDataLoaded = other.isDataLoaded;
     }
 
@@ -78,6 +85,7 @@ public abstract class ADataContainer {
     protected void setCacheInternal(String key, String val, boolean override) {
         if (override) {
             data.put(key, val);
+            parsedData.remove(key);
         } else {
             data.putIfAbsent(key, val);
         }
@@ -90,7 +98,33 @@ public abstract class ADataContainer {
      * @return The removed value, or null if not found
      */
     protected String removeCacheInternal(String key) {
-        return data.remove(key);
+        var re = data.remove(key);
+        parsedData.remove(key);
+        return re;
+    }
+
+    /**
+     * Drops every cached value, used when the data of this container is evicted from memory.
+     * The container must be marked as unloaded before, so the values are read again on next access.
+     */
+    void clearCacheInternal() {
+        data.clear();
+        parsedData.clear();
+    }
+
+    /**
+     * Estimates the heap used by the cached values of this container.
+     *
+     * @param entryOverhead The estimated size of a single map entry without its strings, in bytes
+     * @return The estimated size in bytes
+     */
+    long estimateCacheSize(long entryOverhead) {
+        long size = 0;
+        for (var entry : data.entrySet()) {
+            // Strings are assumed to be stored with two bytes per character
+            size += entryOverhead + 2L * (entry.getKey().length() + entry.getValue().length());
+        }
+        return size + parsedData.size() * entryOverhead;
     }
 
     /**
@@ -135,6 +169,141 @@ public abstract class ADataContainer {
         return getCacheInternal(key);
     }
 
+    /**
+     * Gets the value for the given key as a long.
+     * The parsed value is cached until the key is changed or removed.
+     *
+     * @param key The key to look up
+     * @param def The value to return if the key is not present
+     * @return The parsed value, or def if not found
+     * @throws NumberFormatException if the value is not a valid long
+     */
+    public long getLong(String key, long def) {
+        checkData();
+        if (parsedData.get(key) instanceof Long cached) {
+            return cached;
+        }
+
+        var val = getCacheInternal(key);
+        if (val == null) {
+            return def;
+        }
+
+        Long re = Long.parseLong(val);
+        cacheParsed(key, val, re);
+        return re;
+    }
+
+    /**
+     * Gets the value for the given key as a long, or 0 if not found.
+     *
+     * @see #getLong(String, long)
+     */
+    public long getLong(String key) {
+        return getLong(key, 0);
+    }
+
+    /**
+     * Gets the value for the given key as an int.
+     * The parsed value is cached until the key is changed or removed.
+     *
+     * @param key The key to look up
+     * @param def The value to return if the key is not present
+     * @return The parsed value, or def if not found
+     * @throws NumberFormatException if the value is not a valid int
+     */
+    public int getInt(String key, int def) {
+        var re = getLong(key, def);
+        if (re < Integer.MIN_VALUE || re > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Value of " + key + " is out of int range: " + re);
+        }
+        return (int) re;
+    }
+
+    /**
+     * Gets the value for the given key as an int, or 0 if not found.
+     *
+     * @see #getInt(String, int)
+     */
+    public int getInt(String key) {
+        return getInt(key, 0);
+    }
+
+    /**
+     * Gets the value for the given key as a boolean.
+     * Only "true" (ignoring case) is treated as true, like {@link Boolean#parseBoolean(String)}.
+     *
+     * @param key The key to look up
+     * @param def The value to return if the key is not present
+     * @return The parsed value, or def if not found
+     */
+    public boolean getBoolean(String key, boolean def) {
+        checkData();
+        if (parsedData.get(key) instanceof Boolean cached) {
+            return cached;
+        }
+
+        var val = getCacheInternal(key);
+        if (val == null) {
+            return def;
+        }
+
+        Boolean re = Boolean.parseBoolean(val);
+        cacheParsed(key, val, re);
+        return re;
+    }
+
+    /**
+     * Gets the value for the given key as a boolean, or false if not found.
+     *
+     * @see #getBoolean(String, boolean)
+     */
+    public boolean getBoolean(String key) {
+        return getBoolean(key, false);
+    }
+
+    /**
+     * Sets a long value in the container.
+     *
+     * @param key The key to set
+     * @param val The value to set
+     */
+    public void setLong(String key, long val) {
+        var str = String.valueOf(val);
+        setData(key, str);
+        cacheParsed(key, str, val);
+    }
+
+    /**
+     * Sets an int value in the container.
+     *
+     * @param key The key to set
+     * @param val The value to set
+     */
+    public void setInt(String key, int val) {
+        setLong(key, val);
+    }
+
+    /**
+     * Sets a boolean value in the container.
+     *
+     * @param key The key to set
+     * @param val The value to set
+     */
+    public void setBoolean(String key, boolean val) {
+        var str = String.valueOf(val);
+        setData(key, str);
+        cacheParsed(key, str, val);
+    }
+
+    private void cacheParsed(String key, String source, Object parsed) {
+        parsedData.put(key, parsed);
+        // The string value may have been changed concurrently after it was read
+        if (data.get(key) != source) {
+            parsedData.remove(key, parsed);
+        }
+    }
+
     /**
      * Gets the key of this container.
      *
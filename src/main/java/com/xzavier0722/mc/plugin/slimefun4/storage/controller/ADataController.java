@@ -17,6 +17,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.OverridingMethodsMustInvokeSuper;
@@ -170,20 +172,23 @@ public abstract class ADataController {
     }
 
     protected void scheduleDeleteTask(ScopeKey scopeKey, RecordKey key, boolean forceScopeKey) {
-        scheduleWriteTask(
-                scopeKey,
-                key,
-                () -> {
-                    dataAdapter.deleteData(key);
-                },
-                forceScopeKey);
+        enqueueWriteTask(scopeKey, key, queuedTask -> queuedTask.queueDelete(key), forceScopeKey);
     }
 
     protected void scheduleWriteTask(ScopeKey scopeKey, RecordKey key, RecordSet data, boolean forceScopeKey) {
-        scheduleWriteTask(scopeKey, key, () -> dataAdapter.setData(key, data), forceScopeKey);
+        enqueueWriteTask(scopeKey, key, queuedTask -> queuedTask.queueWrite(key, data), forceScopeKey);
     }
 
     protected void scheduleWriteTask(ScopeKey scopeKey, RecordKey key, Runnable task, boolean forceScopeKey) {
+        enqueueWriteTask(scopeKey, key, queuedTask -> queuedTask.queue(key, task), forceScopeKey);
+    }
+
+    /**
+     * 将写入操作加入对应作用域的 {@link QueuedWriteTask} 中，
+     * 同一作用域内排队的写入会在执行时合并为批量提交。
+     */
+    private void enqueueWriteTask(
+            ScopeKey scopeKey, RecordKey key, Predicate<QueuedWriteTask> enqueue, boolean forceScopeKey) {
         lock.lock(scopeKey);
 
         // log.info("schedule write scope [{}], key [{}]", scopeKey, key);
@@ -195,14 +200,14 @@ public abstract class ADataController {
                 queuedTask = scheduledWriteTasks.get(scopeToUse);
             }
 
-            if (queuedTask != null && queuedTask.queue(key, task)) {
+            if (queuedTask != null && enqueue.test(queuedTask)) {
                 return;
             }
 
             queuedTask = new QueuedWriteTask() {
                 @Override
                 protected void onSuccess() {
-                    scheduledWriteTasks.remove(scopeToUse);
+                    scheduledWriteTasks.remove(scopeToUse, this);
                 }
 
                 @Override
@@ -214,8 +219,18 @@ public abstract class ADataController {
                                             + "] Exception thrown while executing write task: ",
                                     e);
                 }
+
+                @Override
+                protected void executeWriteBatch(Map<RecordKey, RecordSet> items) {
+                    dataAdapter.setDataBatch(items);
+                }
+
+                @Override
+                protected void executeDeleteBatch(List<RecordKey> keys) {
+                    dataAdapter.deleteDataBatch(keys);
+                }
             };
-            queuedTask.queue(key, task);
+            enqueue.test(queuedTask);
             scheduledWriteTasks.put(scopeToUse, queuedTask);
 
             if (serialWriteExecutor != null && key.getScope().isSerial()) {
@@ -271,6 +286,15 @@ public abstract class ADataController {
         return dataAdapter.getData(key, distinct);
     }
 
+    /**
+     * 逐行读取数据, 适用于结果较多的查询
+     *
+     * @see IDataSourceAdapter#forEachData(RecordKey, boolean, Consumer)
+     */
+    protected void forEachData(RecordKey key, boolean distinct, Consumer<RecordSet> consumer) {
+        dataAdapter.forEachData(key, distinct, consumer);
+    }
+
     protected void setData(RecordKey key, RecordSet data) {
         dataAdapter.setData(key, data);
     }
@@ -279,6 +303,29 @@ public abstract class ADataController {
         dataAdapter.deleteData(key);
     }
 
+    /**
+     * 检查指定作用域中是否仍有未完成的写入任务
+     *
+     * @param key 作用域
+     * @return 是否存在未完成的写入任务
+     */
+    protected boolean hasPendingWriteTask(ScopeKey key) {
+        return scheduledWriteTasks.containsKey(key);
+    }
+
+    /**
+     * 取消指定作用域中尚未执行的符合条件的写入, 并等待该作用域中正在执行的写入完成
+     *
+     * @param scopeKey 作用域
+     * @param filter   写入操作键过滤条件
+     */
+    protected void cancelQueuedWrites(ScopeKey scopeKey, Predicate<RecordKey> filter) {
+        var task = scheduledWriteTasks.get(scopeKey);
+        if (task != null) {
+            task.cancelAndAwait(filter);
+        }
+    }
+
     protected void abortScopeTask(ScopeKey key) {
         var task = scheduledWriteTasks.remove(key);
         if (task != null) {
@@ -1,8 +1,11 @@
 package com.xzavier0722.mc.plugin.slimefun4.storage.controller;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import lombok.Getter;
@@ -23,6 +26,16 @@ public abstract class ASlimefunDataContainer extends ADataContainer {
     @Getter
     private volatile boolean pendingRemove = false;
 
+    /**
+     * 等待 {@link DataWriteJournal} 刷写的脏键
+     */
+    private final Set<String> dirtyKeys = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 标记当前容器是否已在 {@link DataWriteJournal} 的刷写队列中
+     */
+    private final AtomicBoolean journaled = new AtomicBoolean(false);
+
     // use weak hash map to capture the pending remove datas, if it is removed finally, it will not cause memory leak
     private static final WeakHashMap<ASlimefunDataContainer, Map<String, String>> capturedPendingRemoveData =
             new WeakHashMap<>();
@@ -89,6 +102,37 @@ public abstract class ASlimefunDataContainer extends ADataContainer {
     @ParametersAreNonnullByDefault
     public abstract void scheduleUpdateData(String key);
 
+    /**
+     * 标记脏键
+     *
+     * @return 当前容器是否需要加入刷写队列
+     */
+    boolean markDirtyKey(String key) {
+        dirtyKeys.add(key);
+        return journaled.compareAndSet(false, true);
+    }
+
+    /**
+     * @return 是否存在尚未加入写入队列的脏键
+     */
+    boolean hasDirtyKeys() {
+        return !dirtyKeys.isEmpty();
+    }
+
+    /**
+     * 取出并清空所有脏键
+     */
+    void drainDirtyKeys(Consumer<String> action) {
+        journaled.set(false);
+
+        var it = dirtyKeys.iterator();
+        while (it.hasNext()) {
+            var key = it.next();
+            it.remove();
+            action.accept(key);
+        }
+    }
+
     public ASlimefunDataContainer(String key, String sfId) {
         super(key);
         this.sfId = sfId;
@@ -6,6 +6,7 @@ import city.norain.slimefun4.utils.InventoryUtil;
 import city.norain.slimefun4.utils.StringUtil;
 import com.xzavier0722.mc.plugin.slimefun4.storage.adapter.IDataSourceAdapter;
 import com.xzavier0722.mc.plugin.slimefun4.storage.callback.IAsyncReadCallback;
+import com.xzavier0722.mc.plugin.slimefun4.storage.common.DataEncoding;
 import com.xzavier0722.mc.plugin.slimefun4.storage.common.DataScope;
 import com.xzavier0722.mc.plugin.slimefun4.storage.common.DataType;
 import com.xzavier0722.mc.plugin.slimefun4.storage.common.FieldKey;
@@ -17,12 +18,13 @@ import com.xzavier0722.mc.plugin.slimefun4.storage.controller.attributes.Univers
 import com.xzavier0722.mc.plugin.slimefun4.storage.event.SlimefunChunkDataLoadEvent;
 import com.xzavier0722.mc.plugin.slimefun4.storage.task.DelayedSavingLooperTask;
 import com.xzavier0722.mc.plugin.slimefun4.storage.task.DelayedTask;
+import com.xzavier0722.mc.plugin.slimefun4.storage.util.ConcurrentLongObjectMap;
 import com.xzavier0722.mc.plugin.slimefun4.storage.util.DataUtils;
-import com.xzavier0722.mc.plugin.slimefun4.storage.util.InvSnapshot;
-import com.xzavier0722.mc.plugin.slimefun4.storage.util.InvStorageUtils;
 import com.xzavier0722.mc.plugin.slimefun4.storage.util.LocationUtils;
 import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItem;
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -33,12 +35,14 @@ import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import me.mrCookieSlime.Slimefun.api.inventory.BlockMenu;
 import me.mrCookieSlime.Slimefun.api.inventory.BlockMenuPreset;
+import me.mrCookieSlime.Slimefun.api.inventory.DirtyChestMenu;
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
 import org.bukkit.Location;
@@ -68,13 +72,14 @@ public class BlockDataController extends ADataController {
      */
     private final Map<String, SlimefunChunkData> loadedChunk;
     /**
-     * 通用数据缓存
+     * 区块数据索引, 以 {@link LocationUtils#packChunkKey(World, int, int)} 打包后的区块坐标为键,
+     * 与 {@link #loadedChunk} 同步维护, 用于无对象分配的缓存查询
      */
-    private final Map<UUID, SlimefunUniversalData> loadedUniversalData;
+    private final ConcurrentLongObjectMap<SlimefunChunkData> chunkIndex;
     /**
-     * 方块物品栏快照
+     * 通用数据缓存
      */
-    private final Map<String, InvSnapshot> invSnapshots;
+    private final Map<UUID, SlimefunUniversalData> loadedUniversalData;
     /**
      * 全局控制器加载数据锁
      *
@@ -88,11 +93,32 @@ public class BlockDataController extends ADataController {
 
     private int delayedSecond = 0;
     private BukkitTask looperTask;
+    /**
+     * 方块数据写入合并日志, 未启用时为 null
+     * {@link DataWriteJournal}
+     */
+    private volatile DataWriteJournal writeJournal;
+
+    private BukkitTask journalTask;
+    /**
+     * 方块数据缓存卸载任务, 未设置内存预算时为 null
+     */
+    private BukkitTask evictionTask;
     /**
      * 区块数据加载模式
      * {@link ChunkDataLoadMode}
      */
     private ChunkDataLoadMode chunkDataLoadMode;
+    /**
+     * 区块数据加载耗时统计
+     */
+    private final ChunkLoadStats chunkLoadStats = new ChunkLoadStats();
+    /**
+     * 正在后台加载数据的世界
+     */
+    private final Set<String> streamingWorlds = ConcurrentHashMap.newKeySet();
+
+    private int readThreads = 1;
 
     /**
      * 初始化加载中标志
@@ -101,8 +127,8 @@ public class BlockDataController extends ADataController {
         super(DataType.BLOCK_STORAGE);
         delayedWriteTasks = new ConcurrentHashMap<>();
         loadedChunk = new ConcurrentHashMap<>();
+        chunkIndex = new ConcurrentLongObjectMap<>(256);
         loadedUniversalData = new ConcurrentHashMap<>();
-        invSnapshots = new ConcurrentHashMap<>();
         lock = new ScopedLock();
     }
 
@@ -116,7 +142,9 @@ public class BlockDataController extends ADataController {
     @Override
     public void init(IDataSourceAdapter<?> dataAdapter, int maxReadThread, int maxWriteThread) {
         super.init(dataAdapter, maxReadThread, maxWriteThread);
+        this.readThreads = maxReadThread;
         this.chunkDataLoadMode = Slimefun.getDatabaseManager().getChunkDataLoadMode();
+        Slimefun.getProfiler().registerStatusReporter("chunk-data-loading", chunkLoadStats::getStatus);
         initLoadData();
     }
 
@@ -133,15 +161,27 @@ public class BlockDataController extends ADataController {
     }
 
     /**
-     * 加载所有服务器已加载的世界中的数据
+     * 加载所有服务器已加载的世界中的数据.
+     * 优先加载的世界会在开服时加载完成, 其余世界则在后台加载
      */
     private void loadLoadedWorlds() {
+        var priorityWorlds = Slimefun.getDatabaseManager().getPriorityPreloadWorlds();
         Bukkit.getScheduler()
                 .runTaskLater(
                         Slimefun.instance(),
                         () -> {
-                            for (var world : Bukkit.getWorlds()) {
-                                loadWorld(world);
+                            var worlds = Bukkit.getWorlds();
+                            for (var i = 0; i < worlds.size(); i++) {
+                                var world = worlds.get(i);
+                                var priority = priorityWorlds.isEmpty()
+                                        ? i == 0
+                                        : priorityWorlds.contains(world.getName());
+
+                                if (priority) {
+                                    loadWorld(world);
+                                } else {
+                                    loadWorldInBackground(world);
+                                }
                             }
                         },
                         1);
@@ -187,6 +227,48 @@ public class BlockDataController extends ADataController {
                         20);
     }
 
+    /**
+     * 初始化写入合并日志
+     *
+     * @param p             插件实例
+     * @param flushInterval 刷写周期 (单位: tick)
+     */
+    public void initWriteJournal(Plugin p, int flushInterval) {
+        checkDestroy();
+        if (flushInterval < 1) {
+            throw new IllegalArgumentException("flush interval must be greater than 0!");
+        }
+
+        var journal = new DataWriteJournal(this::writeJournaledData);
+        writeJournal = journal;
+        journalTask = Bukkit.getScheduler().runTaskTimerAsynchronously(p, journal, flushInterval, flushInterval);
+        Slimefun.getProfiler().registerStatusReporter("block-data-journal", journal::getStatus);
+    }
+
+    /**
+     * 初始化方块数据缓存卸载任务.
+     * 已缓存的方块数据估算内存超出预算时, 将卸载未加载区块中的方块数据
+     *
+     * @param p        插件实例
+     * @param budgetMb 内存预算 (单位: MB)
+     * @see BlockDataEvictor
+     */
+    public void initCacheEviction(Plugin p, int budgetMb) {
+        checkDestroy();
+        if (budgetMb < 1) {
+            throw new IllegalArgumentException("cache memory budget must be greater than 0!");
+        }
+
+        var evictor = new BlockDataEvictor(this, budgetMb * 1024L * 1024L);
+        evictionTask = Bukkit.getScheduler()
+                .runTaskTimerAsynchronously(p, evictor, BlockDataEvictor.INTERVAL, BlockDataEvictor.INTERVAL);
+        Slimefun.getProfiler().registerStatusReporter("block-data-cache", evictor::getStatus);
+    }
+
+    public boolean isWriteJournalEnabled() {
+        return writeJournal != null;
+    }
+
     public boolean isDelayedSavingEnabled() {
         return enableDelayedSaving;
     }
@@ -352,9 +434,6 @@ public class BlockDataController extends ADataController {
 
             return;
         }
-        // fix issue # 992 # 1099
-        invSnapshots.remove(removed.getKey());
-
         if (!removed.isDataLoaded()) {
             return;
         }
@@ -453,9 +532,10 @@ public class BlockDataController extends ADataController {
         var scopeKey = new LocationKey(DataScope.NONE, l);
         removeDelayedDataUpdates(scopeKey);
 
+        var lKey = LocationUtils.getLocKey(l);
         var key = new RecordKey(DataScope.BLOCK_RECORD);
-        key.addCondition(FieldKey.LOCATION, LocationUtils.getLocKey(l));
-        scheduleDeleteTask(scopeKey, key, true);
+        key.addCondition(FieldKey.LOCATION, lKey);
+        scheduleRecordDelete(scopeKey, key, FieldKey.LOCATION, lKey);
     }
 
     void removeUniversalBlockDirectly(UUID uuid) {
@@ -465,7 +545,39 @@ public class BlockDataController extends ADataController {
 
         var key = new RecordKey(DataScope.UNIVERSAL_RECORD);
         key.addCondition(FieldKey.UNIVERSAL_UUID, uuid.toString());
-        scheduleDeleteTask(scopeKey, key, true);
+        scheduleRecordDelete(scopeKey, key, FieldKey.UNIVERSAL_UUID, uuid.toString());
+    }
+
+    /**
+     * 在记录自身的作用域中删除方块或通用数据记录.
+     * <br/>
+     * 启用写入合并日志时, 该记录的数据可能已被加入日志作用域中等待写入,
+     * 删除记录前需取消或等待这些写入, 以免其在删除后写入, 留下残留数据或导致外键约束失败.
+     *
+     * @param scopeKey 记录自身的作用域
+     * @param key      需要删除的记录
+     * @param field    数据中指向该记录的字段
+     * @param value    该记录的键
+     */
+    private void scheduleRecordDelete(ScopeKey scopeKey, RecordKey key, FieldKey field, String value) {
+        var journal = writeJournal;
+        if (journal == null) {
+            scheduleDeleteTask(scopeKey, key, true);
+            return;
+        }
+
+        Predicate<RecordKey> ofRecord = reqKey -> reqKey.getConditions().stream()
+                .anyMatch(c -> c.getFirstValue() == field && value.equals(c.getSecondValue()));
+
+        scheduleWriteTask(
+                scopeKey,
+                key,
+                () -> {
+                    journal.awaitFlush();
+                    cancelQueuedWrites(DataWriteJournal.JOURNAL_SCOPE, ofRecord);
+                    deleteData(key);
+                },
+                true);
     }
 
     /**
@@ -477,15 +589,15 @@ public class BlockDataController extends ADataController {
     @Nullable @ParametersAreNonnullByDefault
     public SlimefunBlockData getBlockData(Location l) {
         checkDestroy();
-        if (chunkDataLoadMode.readCacheOnly()) {
+        if (readCacheOnly(l.getWorld())) {
             return getBlockDataFromCache(l);
         }
         var chunkData = getChunkDataCache(l, false);
         // fix issue #935
         if (chunkData != null) {
-            var lKey = LocationUtils.getLocKey(l);
-            var re = chunkData.getBlockCacheInternal(lKey);
-            if (re != null || chunkData.hasBlockCache(lKey) || chunkData.isDataLoaded()) {
+            var pos = LocationUtils.packBlockKey(l);
+            var re = chunkData.getBlockCacheInternal(pos);
+            if (re != null || chunkData.hasBlockCache(pos) || chunkData.isDataLoaded()) {
                 return re;
             }
         }
@@ -513,16 +625,16 @@ public class BlockDataController extends ADataController {
 
     public CompletableFuture<SlimefunBlockData> getBlockDataAsync(Location l) {
         checkDestroy();
-        if (chunkDataLoadMode.readCacheOnly()) {
+        if (readCacheOnly(l.getWorld())) {
             return CompletableFuture.completedFuture(getBlockDataFromCache(l));
         }
 
         var chunkData = getChunkDataCache(l, false);
         // fix issue #935
         if (chunkData != null) {
-            var lKey = LocationUtils.getLocKey(l);
-            var re = chunkData.getBlockCacheInternal(lKey);
-            if (re != null || chunkData.hasBlockCache(lKey) || chunkData.isDataLoaded()) {
+            var pos = LocationUtils.packBlockKey(l);
+            var re = chunkData.getBlockCacheInternal(pos);
+            if (re != null || chunkData.hasBlockCache(pos) || chunkData.isDataLoaded()) {
                 return CompletableFuture.completedFuture(re);
             }
         }
@@ -546,7 +658,23 @@ public class BlockDataController extends ADataController {
      * @return {@link SlimefunBlockData}
      */
     public SlimefunBlockData getBlockDataFromCache(Location l) {
-        return getBlockDataFromCache(LocationUtils.getChunkKey(l), LocationUtils.getLocKey(l));
+        return getBlockDataFromCache(l.getWorld(), l.getBlockX(), l.getBlockY(), l.getBlockZ());
+    }
+
+    /**
+     * Get slimefun block data at specific block coordinates from cache.
+     * This lookup does not allocate any object.
+     *
+     * @param world the {@link World} of the block
+     * @param x     block x
+     * @param y     block y
+     * @param z     block z
+     * @return {@link SlimefunBlockData}
+     */
+    @Nullable public SlimefunBlockData getBlockDataFromCache(@Nonnull World world, int x, int y, int z) {
+        checkDestroy();
+        var chunkData = chunkIndex.get(LocationUtils.packChunkKey(world, x >> 4, z >> 4));
+        return chunkData == null ? null : chunkData.getBlockCacheInternal(x, y, z);
     }
 
     /**
@@ -727,16 +855,7 @@ public class BlockDataController extends ADataController {
             data.put(FieldKey.CHUNK, chunkData.getKey());
             data.put(FieldKey.SLIMEFUN_ID, blockData.getSfId());
             var scopeKey = new LocationKey(DataScope.NONE, blockData.getLocation());
-            synchronized (delayedWriteTasks) {
-                var it = delayedWriteTasks.entrySet().iterator();
-                while (it.hasNext()) {
-                    var next = it.next();
-                    if (scopeKey.equals(next.getKey().getParent())) {
-                        next.getValue().runUnsafely();
-                        it.remove();
-                    }
-                }
-            }
+            flushPendingUpdates(blockData, scopeKey);
 
             scheduleWriteTask(scopeKey, key, data, true);
 
@@ -803,13 +922,27 @@ public class BlockDataController extends ADataController {
     }
 
     public void loadChunk(Chunk chunk, boolean isNewChunk, boolean forceReadData) {
+        var chunkData = loadChunkInternal(chunk, isNewChunk, forceReadData, false);
+        if (chunkData != null) {
+            Bukkit.getPluginManager().callEvent(new SlimefunChunkDataLoadEvent(chunkData));
+        }
+    }
+
+    /**
+     * 加载区块数据
+     *
+     * @param hydrateNow 是否在当前线程中直接加载区块内的方块数据
+     * @return 需要触发 {@link SlimefunChunkDataLoadEvent} 的区块数据, 未加载时返回 null
+     */
+    private SlimefunChunkData loadChunkInternal(
+            Chunk chunk, boolean isNewChunk, boolean forceReadData, boolean hydrateNow) {
         checkDestroy();
         var chunkData = getChunkDataCache(chunk, true);
         // what if the database already contains data here but the WORLD CHUNK is newly generated
 
         // escape all return if forceRead Flag is true
         if (forceReadData) {
-            if (chunkDataLoadMode.readCacheOnly()) {
+            if (readCacheOnly(chunk.getWorld())) {
                 // if readCache only , then all the chunkData get from cache is DataLoaded
                 // since we removed initLoading, so we set DataLoad false here, so it will trigger the loadChunkData
                 chunkData.setIsDataLoaded(false);
@@ -819,25 +952,28 @@ public class BlockDataController extends ADataController {
             // not force loading
             if (isNewChunk) {
                 chunkData.setIsDataLoaded(true);
-                Bukkit.getPluginManager().callEvent(new SlimefunChunkDataLoadEvent(chunkData));
-                return;
+                return chunkData;
             }
 
             if (chunkData.isDataLoaded()) {
-                return;
+                reloadEvictedBlocks(chunkData);
+                return null;
             }
         }
 
+        var start = System.nanoTime();
         loadChunkData(chunkData);
 
         // 按区块加载方块数据
 
+        var toLoad = new ArrayList<SlimefunBlockData>();
         var key = new RecordKey(DataScope.BLOCK_RECORD);
         key.addField(FieldKey.LOCATION);
         key.addField(FieldKey.SLIMEFUN_ID);
         key.addCondition(FieldKey.CHUNK, chunkData.getKey());
 
-        getData(key).forEach(block -> {
+        var records = getData(key);
+        records.forEach(block -> {
             var lKey = block.get(FieldKey.LOCATION);
             var sfId = block.get(FieldKey.SLIMEFUN_ID);
             var sfItem = SlimefunItem.getById(sfId);
@@ -849,32 +985,110 @@ public class BlockDataController extends ADataController {
             var blockData = cache == null ? new SlimefunBlockData(LocationUtils.toLocation(lKey), sfId) : cache;
             chunkData.addBlockCacheInternal(blockData, false);
 
-            if (sfItem.loadDataByDefault()) {
-                scheduleReadTask(() -> loadBlockData(blockData));
+            if (sfItem.loadDataByDefault() && !blockData.isDataLoaded()) {
+                toLoad.add(blockData);
             }
         });
 
-        Bukkit.getPluginManager().callEvent(new SlimefunChunkDataLoadEvent(chunkData));
+        if (toLoad.isEmpty()) {
+            chunkLoadStats.record(System.nanoTime() - start, 0, records.size());
+        } else if (hydrateNow) {
+            var rows = loadChunkBlockData(chunkData, toLoad);
+            chunkLoadStats.record(System.nanoTime() - start, toLoad.size(), records.size() + rows);
+        } else {
+            scheduleReadTask(() -> {
+                var rows = loadChunkBlockData(chunkData, toLoad);
+                chunkLoadStats.record(System.nanoTime() - start, toLoad.size(), records.size() + rows);
+            });
+        }
+
+        return chunkData;
     }
 
-    public void loadWorld(World world) {
-        var start = System.currentTimeMillis();
-        var worldName = world.getName();
-        logger.log(Level.INFO, "正在加载世界 {0} 的 Slimefun 方块数据...", worldName);
+    /**
+     * 在当前线程中加载区块及其中所有方块的数据, 供 {@link WorldPreloader} 使用
+     *
+     * @return 需要触发 {@link SlimefunChunkDataLoadEvent} 的区块数据, 未加载时返回 null
+     */
+    @Nullable SlimefunChunkData preloadChunk(Chunk chunk) {
+        if (streamingWorlds.contains(chunk.getWorld().getName())) {
+            // 后台加载期间已被按需加载的区块已经触发过加载事件, 无需再次读取
+            var chunkData = chunkIndex.get(LocationUtils.packChunkKey(chunk));
+            if (chunkData != null && chunkData.isDataLoaded()) {
+                return null;
+            }
+        }
+
+        return loadChunkInternal(chunk, false, true, true);
+    }
+
+    /**
+     * 获取世界中所有存在数据的区块, 按区块键排序
+     *
+     * @param world 世界
+     * @return 区块键列表
+     */
+    List<String> getChunkKeys(World world) {
         var chunkKeys = new HashSet<String>();
         var key = new RecordKey(DataScope.CHUNK_DATA);
         key.addField(FieldKey.CHUNK);
-        key.addCondition(FieldKey.CHUNK, worldName + ";%");
-        getData(key, true).forEach(data -> chunkKeys.add(data.get(FieldKey.CHUNK)));
+        key.addCondition(FieldKey.CHUNK, world.getName() + ";%");
+        forEachData(key, true, data -> chunkKeys.add(data.get(FieldKey.CHUNK)));
 
         key = new RecordKey(DataScope.BLOCK_RECORD);
         key.addField(FieldKey.CHUNK);
         key.addCondition(FieldKey.CHUNK, world.getName() + ";%");
-        getData(key, true).forEach(data -> chunkKeys.add(data.get(FieldKey.CHUNK)));
+        forEachData(key, true, data -> chunkKeys.add(data.get(FieldKey.CHUNK)));
+
+        var re = new ArrayList<>(chunkKeys);
+        Collections.sort(re);
+        return re;
+    }
 
-        chunkKeys.forEach(cKey -> loadChunk(LocationUtils.toChunk(world, cKey), false, true));
-        logger.log(
-                Level.INFO, "世界 {0} 数据加载完成, 耗时 {1}ms", new Object[] {worldName, (System.currentTimeMillis() - start)});
+    long getLoadedRows() {
+        return chunkLoadStats.getLoadedRows();
+    }
+
+    /**
+     * 在当前线程中加载整个世界的数据, 区块将分批在读取线程池中并行加载
+     *
+     * @param world 世界
+     */
+    public void loadWorld(World world) {
+        checkDestroy();
+        new WorldPreloader(this, world, logger).run(readThreads);
+    }
+
+    /**
+     * 在后台加载整个世界的数据.
+     * 加载完成前, 该世界的区块将按 {@link ChunkDataLoadMode#LOAD_WITH_CHUNK} 模式按需加载
+     *
+     * @param world 世界
+     */
+    public void loadWorldInBackground(World world) {
+        checkDestroy();
+        var worldName = world.getName();
+        if (!streamingWorlds.add(worldName)) {
+            return;
+        }
+
+        Bukkit.getScheduler().runTaskAsynchronously(Slimefun.instance(), () -> {
+            try {
+                new WorldPreloader(this, world, logger).run(readThreads);
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "后台加载世界 " + worldName + " 的数据时出现异常", e);
+            } finally {
+                streamingWorlds.remove(worldName);
+            }
+        });
+    }
+
+    /**
+     * 判断该世界的数据是否仅从缓存读取.
+     * 在 {@link ChunkDataLoadMode#LOAD_ON_STARTUP} 模式下, 仍在后台加载中的世界会按需从数据库读取
+     */
+    private boolean readCacheOnly(World world) {
+        return chunkDataLoadMode.readCacheOnly() && !streamingWorlds.contains(world.getName());
     }
 
     public void loadUniversalRecord() {
@@ -883,9 +1097,7 @@ public class BlockDataController extends ADataController {
         uniKey.addField(FieldKey.SLIMEFUN_ID);
         uniKey.addField(FieldKey.UNIVERSAL_TRAITS);
 
-        var uniRecord = getData(uniKey);
-
-        uniRecord.forEach(data -> {
+        forEachData(uniKey, false, data -> {
             var sfId = data.get(FieldKey.SLIMEFUN_ID);
             var sfItem = SlimefunItem.getById(sfId);
 
@@ -927,6 +1139,7 @@ public class BlockDataController extends ADataController {
         var key = new RecordKey(DataScope.CHUNK_DATA);
         key.addField(FieldKey.DATA_KEY);
         key.addField(FieldKey.DATA_VALUE);
+        key.addField(FieldKey.DATA_ENCODING);
         key.addCondition(FieldKey.CHUNK, chunkData.getKey());
 
         lock.lock(key);
@@ -934,12 +1147,16 @@ public class BlockDataController extends ADataController {
             if (chunkData.isDataLoaded()) {
                 return;
             }
-            getData(key)
-                    .forEach(data -> chunkData.setCacheInternal(
-                            data.get(FieldKey.DATA_KEY),
-                            DataUtils.blockDataDebase64(data.get(FieldKey.DATA_VALUE)),
-                            false));
+            var legacyKeys = new ArrayList<String>();
+            getData(key).forEach(data -> {
+                var dataKey = data.get(FieldKey.DATA_KEY);
+                chunkData.setCacheInternal(dataKey, DataUtils.getBlockDataValue(data), false);
+                if (DataUtils.getBlockDataEncoding(data) != DataEncoding.RAW) {
+                    legacyKeys.add(dataKey);
+                }
+            });
             chunkData.setIsDataLoaded(true);
+            legacyKeys.forEach(dataKey -> scheduleDelayedChunkDataUpdate(chunkData, dataKey));
         } finally {
             lock.unlock(key);
         }
@@ -949,10 +1166,7 @@ public class BlockDataController extends ADataController {
         if (blockData.isDataLoaded()) {
             return;
         }
-        var key = new RecordKey(DataScope.BLOCK_DATA);
-        key.addCondition(FieldKey.LOCATION, blockData.getKey());
-        key.addField(FieldKey.DATA_KEY);
-        key.addField(FieldKey.DATA_VALUE);
+        var key = getBlockDataKey(blockData);
 
         lock.lock(key);
         try {
@@ -960,9 +1174,6 @@ public class BlockDataController extends ADataController {
                 return;
             }
 
-            var sfItem = SlimefunItem.getById(blockData.getSfId());
-            var universal = sfItem instanceof UniversalBlock;
-
             var kvData = getData(key);
 
             var menuKey = new RecordKey(DataScope.BLOCK_INVENTORY);
@@ -972,54 +1183,138 @@ public class BlockDataController extends ADataController {
 
             var invData = getData(menuKey);
 
-            if (universal) {
-                migrateUniversalData(blockData.getLocation(), blockData.getSfId(), kvData, invData);
-            } else {
-                kvData.forEach(recordSet -> blockData.setCacheInternal(
-                        recordSet.get(FieldKey.DATA_KEY),
-                        DataUtils.blockDataDebase64(recordSet.get(FieldKey.DATA_VALUE)),
-                        false));
+            applyBlockData(blockData, kvData, invData);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to load block data: " + blockData.getKey(), e);
+        } finally {
+            lock.unlock(key);
+        }
+    }
 
-                blockData.setIsDataLoaded(true);
+    /**
+     * 批量加载同一区块内的方块数据.
+     * 每张表仅查询一次, 按位置分组后再填充至各个 {@link SlimefunBlockData}
+     *
+     * @param chunkData     方块所在的 {@link SlimefunChunkData}
+     * @param blockDataList 需要加载数据的方块
+     * @return 读取的数据行数
+     */
+    private int loadChunkBlockData(SlimefunChunkData chunkData, List<SlimefunBlockData> blockDataList) {
+        var key = new RecordKey(DataScope.BLOCK_DATA);
+        key.addCondition(FieldKey.CHUNK, chunkData.getKey());
+        key.addField(FieldKey.LOCATION);
+        key.addField(FieldKey.DATA_KEY);
+        key.addField(FieldKey.DATA_VALUE);
+        key.addField(FieldKey.DATA_ENCODING);
+
+        var menuKey = new RecordKey(DataScope.BLOCK_INVENTORY);
+        menuKey.addCondition(FieldKey.CHUNK, chunkData.getKey());
+        menuKey.addField(FieldKey.LOCATION);
+        menuKey.addField(FieldKey.INVENTORY_SLOT);
+        menuKey.addField(FieldKey.INVENTORY_ITEM);
+
+        var kvRecords = getData(key);
+        var invRecords = getData(menuKey);
+        var kvData = groupByLocation(kvRecords);
+        var invData = groupByLocation(invRecords);
+
+        for (var blockData : blockDataList) {
+            if (blockData.isDataLoaded() || blockData.isPendingRemove()) {
+                continue;
+            }
 
-                var menuPreset = BlockMenuPreset.getPreset(blockData.getSfId());
+            var blockKey = getBlockDataKey(blockData);
+            lock.lock(blockKey);
+            try {
+                if (blockData.isDataLoaded()) {
+                    continue;
+                }
 
-                if (menuPreset != null) {
-                    var inv = new ItemStack[54];
+                applyBlockData(
+                        blockData,
+                        kvData.getOrDefault(blockData.getKey(), Collections.emptyList()),
+                        invData.getOrDefault(blockData.getKey(), Collections.emptyList()));
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "Failed to load block data: " + blockData.getKey(), e);
+            } finally {
+                lock.unlock(blockKey);
+            }
+        }
 
-                    for (RecordSet record : invData) {
-                        var slot = record.getInt(FieldKey.INVENTORY_SLOT);
+        return kvRecords.size() + invRecords.size();
+    }
 
-                        try {
-                            inv[slot] = record.getItemStack(FieldKey.INVENTORY_ITEM);
-                        } catch (Exception ex) {
-                            inv[slot] = null;
-                            Slimefun.logger()
-                                    .log(
-                                            Level.SEVERE,
-                                            "加载目标物品失败, 请检查实际数据 ["
-                                                    + LocationUtils.locationToString(blockData.getLocation()) + ":"
-                                                    + slot + "]",
-                                            ex);
-                        }
-                    }
+    private static Map<String, List<RecordSet>> groupByLocation(List<RecordSet> data) {
+        var re = new HashMap<String, List<RecordSet>>();
+        for (var recordSet : data) {
+            re.computeIfAbsent(recordSet.get(FieldKey.LOCATION), k -> new ArrayList<>())
+                    .add(recordSet);
+        }
+        return re;
+    }
 
-                    blockData.setBlockMenu(new BlockMenu(menuPreset, blockData.getLocation(), inv));
+    private static RecordKey getBlockDataKey(SlimefunBlockData blockData) {
+        var key = new RecordKey(DataScope.BLOCK_DATA);
+        key.addCondition(FieldKey.LOCATION, blockData.getKey());
+        key.addField(FieldKey.DATA_KEY);
+        key.addField(FieldKey.DATA_VALUE);
+        key.addField(FieldKey.DATA_ENCODING);
+        return key;
+    }
 
-                    var content = blockData.getMenuContents();
-                    if (content != null) {
-                        invSnapshots.put(blockData.getKey(), new InvSnapshot(content));
+    /**
+     * 将读取到的数据填充至 {@link SlimefunBlockData}, 调用方需持有该方块的数据锁
+     */
+    private void applyBlockData(SlimefunBlockData blockData, List<RecordSet> kvData, List<RecordSet> invData) {
+        var sfItem = SlimefunItem.getById(blockData.getSfId());
+        var universal = sfItem instanceof UniversalBlock;
+
+        if (universal) {
+            migrateUniversalData(blockData.getLocation(), blockData.getSfId(), kvData, invData);
+        } else {
+            var legacyKeys = new ArrayList<String>();
+            kvData.forEach(recordSet -> {
+                var dataKey = recordSet.get(FieldKey.DATA_KEY);
+                blockData.setCacheInternal(dataKey, DataUtils.getBlockDataValue(recordSet), false);
+                if (DataUtils.getBlockDataEncoding(recordSet) != DataEncoding.RAW) {
+                    legacyKeys.add(dataKey);
+                }
+            });
+
+            blockData.setIsDataLoaded(true);
+            // 以原始文本重新写入旧版本的数据
+            legacyKeys.forEach(dataKey -> scheduleDelayedBlockDataUpdate(blockData, dataKey));
+
+            var menuPreset = BlockMenuPreset.getPreset(blockData.getSfId());
+
+            if (menuPreset != null) {
+                var inv = new ItemStack[54];
+
+                for (RecordSet record : invData) {
+                    var slot = record.getInt(FieldKey.INVENTORY_SLOT);
+
+                    try {
+                        inv[slot] = record.getItemStack(FieldKey.INVENTORY_ITEM);
+                    } catch (Exception ex) {
+                        inv[slot] = null;
+                        Slimefun.logger()
+                                .log(
+                                        Level.SEVERE,
+                                        "加载目标物品失败, 请检查实际数据 ["
+                                                + LocationUtils.locationToString(blockData.getLocation()) + ":"
+                                                + slot + "]",
+                                        ex);
                     }
                 }
-            }
 
-            if (sfItem != null && sfItem.isTicking()) {
-                Slimefun.getTickerTask().enableTicker(blockData.getLocation());
+                var menu = new BlockMenu(menuPreset, blockData.getLocation(), inv);
+                menu.markSlotsSaved();
+                blockData.setBlockMenu(menu);
             }
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to load block data: " + blockData.getKey(), e);
-        } finally {
-            lock.unlock(key);
+        }
+
+        if (sfItem != null && sfItem.isTicking()) {
+            Slimefun.getTickerTask().enableTicker(blockData.getLocation());
         }
     }
 
@@ -1059,6 +1354,7 @@ public class BlockDataController extends ADataController {
         key.addCondition(FieldKey.UNIVERSAL_UUID, uniData.getKey());
         key.addField(FieldKey.DATA_KEY);
         key.addField(FieldKey.DATA_VALUE);
+        key.addField(FieldKey.DATA_ENCODING);
 
         lock.lock(key);
 
@@ -1067,13 +1363,17 @@ public class BlockDataController extends ADataController {
                 return;
             }
 
-            getData(key)
-                    .forEach(recordSet -> uniData.setCacheInternal(
-                            recordSet.get(FieldKey.DATA_KEY),
-                            DataUtils.blockDataDebase64(recordSet.get(FieldKey.DATA_VALUE)),
-                            false));
+            var legacyKeys = new ArrayList<String>();
+            getData(key).forEach(recordSet -> {
+                var dataKey = recordSet.get(FieldKey.DATA_KEY);
+                uniData.setCacheInternal(dataKey, DataUtils.getBlockDataValue(recordSet), false);
+                if (DataUtils.getBlockDataEncoding(recordSet) != DataEncoding.RAW) {
+                    legacyKeys.add(dataKey);
+                }
+            });
 
             uniData.setIsDataLoaded(true);
+            legacyKeys.forEach(dataKey -> scheduleDelayedUniversalDataUpdate(uniData, dataKey));
 
             loadedUniversalData.putIfAbsent(uniData.getUUID(), uniData);
 
@@ -1118,13 +1418,9 @@ public class BlockDataController extends ADataController {
                         }
                     }
 
-                    uniData.setMenu(new UniversalMenu(menuPreset, uniData.getUUID(), location, inv));
-
-                    var content = uniData.getMenuContents();
-
-                    if (content != null) {
-                        invSnapshots.put(uniData.getKey(), new InvSnapshot(content));
-                    }
+                    var menu = new UniversalMenu(menuPreset, uniData.getUUID(), location, inv);
+                    menu.markSlotsSaved();
+                    uniData.setMenu(menu);
                 }
             }
         } catch (Exception e) {
@@ -1163,6 +1459,88 @@ public class BlockDataController extends ADataController {
         scheduleReadTask(() -> invokeCallback(callback, getChunkData(chunk)));
     }
 
+    /**
+     * 在不加载区块的情况下批量读取区块数据
+     * <p>
+     * 已缓存的区块数据直接从缓存中读取, 其余区块在读取线程中查询数据库
+     *
+     * @param world  世界
+     * @param chunks 区块坐标数组, 每项为 {x, z}
+     * @return 与 chunks 顺序一致的区块数据列表
+     */
+    @ParametersAreNonnullByDefault
+    public CompletableFuture<List<Map<String, String>>> getChunkDataAsync(World world, int[][] chunks) {
+        checkDestroy();
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    var re = new ArrayList<Map<String, String>>(chunks.length);
+                    for (var chunk : chunks) {
+                        re.add(readChunkData(world, chunk[0], chunk[1]));
+                    }
+                    return re;
+                },
+                readExecutor);
+    }
+
+    /**
+     * 在不加载区块的情况下读取区块数据, 未缓存时在当前线程中查询数据库
+     *
+     * @param world  世界
+     * @param chunkX 区块 X 坐标
+     * @param chunkZ 区块 Z 坐标
+     * @return 区块数据的副本
+     */
+    @Nonnull
+    public Map<String, String> readChunkData(@Nonnull World world, int chunkX, int chunkZ) {
+        checkDestroy();
+        var cached = chunkIndex.get(LocationUtils.packChunkKey(world, chunkX, chunkZ));
+        if (cached != null && cached.isDataLoaded()) {
+            return new HashMap<>(cached.getAllData());
+        }
+
+        var key = new RecordKey(DataScope.CHUNK_DATA);
+        key.addField(FieldKey.DATA_KEY);
+        key.addField(FieldKey.DATA_VALUE);
+        key.addField(FieldKey.DATA_ENCODING);
+        key.addCondition(FieldKey.CHUNK, LocationUtils.getChunkKey(world, chunkX, chunkZ));
+
+        var re = new HashMap<String, String>();
+        getData(key).forEach(data -> re.put(data.get(FieldKey.DATA_KEY), DataUtils.getBlockDataValue(data)));
+        return re;
+    }
+
+    /**
+     * 在不加载区块的情况下设置区块数据
+     * <p>
+     * 若区块数据已被缓存则通过缓存写入, 否则直接写入数据库
+     *
+     * @param world  世界
+     * @param chunkX 区块 X 坐标
+     * @param chunkZ 区块 Z 坐标
+     * @param key    数据键
+     * @param val    数据值, 为 null 时删除该数据
+     */
+    public void setChunkData(
+            @Nonnull World world, int chunkX, int chunkZ, @Nonnull String key, @Nullable String val) {
+        checkDestroy();
+        var cached = chunkIndex.get(LocationUtils.packChunkKey(world, chunkX, chunkZ));
+        if (cached != null && cached.isDataLoaded()) {
+            if (val == null) {
+                cached.removeData(key);
+            } else {
+                cached.setData(key, val);
+            }
+            return;
+        }
+
+        var cKey = LocationUtils.getChunkKey(world, chunkX, chunkZ);
+        var scopeKey = new ChunkKey(DataScope.NONE, cKey);
+        var reqKey = new RecordKey(DataScope.CHUNK_DATA);
+        reqKey.addCondition(FieldKey.CHUNK, cKey);
+        reqKey.addCondition(FieldKey.DATA_KEY, key);
+        scheduleChunkDataUpdate(scopeKey, reqKey, cKey, key, val);
+    }
+
     public void saveAllBlockInventories() {
         var chunks = new HashSet<>(loadedChunk.values());
         chunks.forEach(chunk -> chunk.getAllCacheInternal().forEach(block -> {
@@ -1193,24 +1571,18 @@ public class BlockDataController extends ADataController {
         });
     }
 
+    /**
+     * 保存方块菜单中自上次保存以来发生变化的槽位
+     *
+     * @see DirtyChestMenu#collectChangedSlots()
+     */
     public void saveBlockInventory(SlimefunBlockData blockData) {
-        var newInv = blockData.getMenuContents();
-        InvSnapshot lastSave;
-        if (newInv == null) {
-            lastSave = invSnapshots.remove(blockData.getKey());
-            if (lastSave == null) {
-                return;
-            }
-        } else {
-            lastSave = invSnapshots.put(blockData.getKey(), new InvSnapshot(newInv));
-        }
-
-        var changed = InvStorageUtils.getChangedSlots(lastSave, newInv);
-        if (changed.isEmpty()) {
+        var menu = blockData.getBlockMenu();
+        if (menu == null) {
             return;
         }
 
-        changed.forEach(slot -> saveBlockInventorySlot(blockData, slot));
+        menu.collectChangedSlots().stream().forEach(slot -> saveBlockInventorySlot(blockData, slot));
     }
 
     public void saveBlockInventorySlot(SlimefunBlockData blockData, int slot) {
@@ -1224,11 +1596,15 @@ public class BlockDataController extends ADataController {
     public void removeAllDataInChunk(Chunk chunk) {
         var cKey = LocationUtils.getChunkKey(chunk);
         var cache = loadedChunk.remove(cKey);
+        if (cache != null) {
+            chunkIndex.remove(LocationUtils.packChunkKey(chunk), cache);
+        }
 
         if (cache != null && cache.isDataLoaded()) {
             cache.getAllBlockData().forEach(this::clearBlockCacheAndTasks);
         }
         deleteChunkAndBlockDataDirectly(cKey);
+        Slimefun.getGPSNetwork().getResourceManager().invalidateSupplies(chunk.getWorld(), chunk.getX(), chunk.getZ());
     }
 
     public void removeAllDataInChunkAsync(Chunk chunk, Runnable onFinishedCallback) {
@@ -1255,6 +1631,10 @@ public class BlockDataController extends ADataController {
 
         // 4. remove chunk cache
         loadedChunk.entrySet().removeIf(entry -> entry.getKey().startsWith(prefix));
+        chunkIndex.removeIf(chunkData -> chunkData.getKey().startsWith(prefix));
+
+        // 5. remove cached GEO supplies
+        Slimefun.getGPSNetwork().getResourceManager().invalidateSupplies(world);
     }
 
     public void removeAllDataInWorldAsync(World world, Runnable onFinishedCallback) {
@@ -1265,26 +1645,12 @@ public class BlockDataController extends ADataController {
     }
 
     public void saveUniversalInventory(@Nonnull SlimefunUniversalData universalData) {
-        var universalID = universalData.getUUID();
-
-        var currentInv = universalData.getMenuContents();
-        InvSnapshot lastSave;
-
-        if (currentInv == null) {
-            lastSave = invSnapshots.remove(universalID.toString());
-            if (lastSave == null) {
-                return;
-            }
-        } else {
-            lastSave = invSnapshots.put(universalID.toString(), new InvSnapshot(currentInv));
-        }
-
-        var changed = InvStorageUtils.getChangedSlots(lastSave, currentInv);
-        if (changed.isEmpty()) {
+        var menu = universalData.getMenu();
+        if (menu == null) {
             return;
         }
 
-        changed.forEach(slot -> scheduleDelayedUniversalInvUpdate(universalData, slot));
+        menu.collectChangedSlots().stream().forEach(slot -> scheduleDelayedUniversalInvUpdate(universalData, slot));
     }
 
     public Set<SlimefunChunkData> getAllLoadedChunkData(World world) {
@@ -1393,14 +1759,27 @@ public class BlockDataController extends ADataController {
     public void shutdown() {
         saveAllBlockInventories();
         saveAllUniversalInventories();
+        if (writeJournal != null) {
+            journalTask.cancel();
+            writeJournal.flush();
+        }
         if (enableDelayedSaving) {
             looperTask.cancel();
             executeAllDelayedTasks();
         }
+        if (evictionTask != null) {
+            evictionTask.cancel();
+        }
         super.shutdown();
     }
 
     void scheduleDelayedBlockDataUpdate(SlimefunBlockData blockData, String key) {
+        var journal = writeJournal;
+        if (journal != null) {
+            journal.markDirty(blockData, key);
+            return;
+        }
+
         var scopeKey = new LocationKey(DataScope.NONE, blockData.getLocation());
         var reqKey = new RecordKey(DataScope.BLOCK_DATA);
         reqKey.addCondition(FieldKey.LOCATION, blockData.getKey());
@@ -1415,6 +1794,12 @@ public class BlockDataController extends ADataController {
     }
 
     void scheduleDelayedUniversalDataUpdate(SlimefunUniversalData universalData, String key) {
+        var journal = writeJournal;
+        if (journal != null) {
+            journal.markDirty(universalData, key);
+            return;
+        }
+
         var scopeKey = new UUIDKey(DataScope.NONE, universalData.getKey());
         var reqKey = new RecordKey(DataScope.UNIVERSAL_DATA);
         reqKey.addCondition(FieldKey.UNIVERSAL_UUID, universalData.getKey());
@@ -1436,6 +1821,169 @@ public class BlockDataController extends ADataController {
                     .entrySet()
                     .removeIf(each -> scopeKey.equals(each.getKey().getParent()));
         }
+
+        var journal = writeJournal;
+        if (journal != null) {
+            journal.discard(container -> scopeKey.equals(getScopeKey(container)));
+        }
+    }
+
+    /**
+     * 从内存中卸载方块的数据与菜单, 方块本身仍保留在区块缓存中, 下次访问时重新读取.
+     * 卸载前会将未保存的修改加入写入队列, 仍有未完成的写入时不会卸载.
+     * 被卸载的菜单会被锁定, 仍持有该菜单的调用方无法再向其中存取物品.
+     * <p>
+     * 该方法由异步线程调用, 区块可能在检查后被加载, 因此会在持有方块锁时再次检查区块状态,
+     * 并在卸载完成后区块已被加载时立即重新加载被卸载的方块.
+     *
+     * @param chunkData 方块所在的 {@link SlimefunChunkData}
+     * @param blockData 需要卸载的方块数据
+     * @return 是否已卸载
+     */
+    boolean evictBlockData(SlimefunChunkData chunkData, SlimefunBlockData blockData) {
+        var lockKey = getBlockDataKey(blockData);
+        lock.lock(lockKey);
+        try {
+            if (!blockData.isDataLoaded() || blockData.isPendingRemove()) {
+                return false;
+            }
+
+            // 区块可能在本轮卸载开始后被加载或访问
+            if (chunkData.isChunkLoaded() || chunkData.isReferenced()) {
+                return false;
+            }
+
+            var menu = blockData.getBlockMenu();
+            if (menu != null && (menu.hasViewer() || menu.locked())) {
+                return false;
+            }
+
+            var scopeKey = new LocationKey(DataScope.NONE, blockData.getLocation());
+            saveBlockInventory(blockData);
+            flushPendingUpdates(blockData, scopeKey);
+
+            // 等待写入完成后再卸载, 避免重新读取时读到旧数据
+            if (hasPendingWriteTask(scopeKey) || hasPendingWriteTask(DataWriteJournal.JOURNAL_SCOPE)) {
+                return false;
+            }
+
+            blockData.setIsDataLoaded(false);
+            // 标记为未加载后不会再产生新的修改, 再次检查以避免丢失并发写入的脏键
+            if (blockData.hasDirtyKeys()) {
+                blockData.setIsDataLoaded(true);
+                return false;
+            }
+
+            blockData.clearCacheInternal();
+            blockData.setBlockMenu(null);
+            if (menu != null) {
+                menu.lock();
+            }
+            chunkData.markBlocksEvicted();
+        } finally {
+            lock.unlock(lockKey);
+        }
+
+        // 区块在卸载期间被加载时, 加载流程可能已错过此方块, 需要在此重新加载
+        if (chunkData.isChunkLoaded()) {
+            reloadEvictedBlocks(chunkData);
+        }
+
+        return true;
+    }
+
+    /**
+     * 重新加载区块中已被 {@link BlockDataEvictor} 卸载的方块数据
+     */
+    private void reloadEvictedBlocks(SlimefunChunkData chunkData) {
+        if (!chunkData.clearBlocksEvicted()) {
+            return;
+        }
+
+        var toLoad = new ArrayList<SlimefunBlockData>();
+        for (var blockData : chunkData.getAllCacheInternal()) {
+            if (blockData.isDataLoaded() || blockData.isPendingRemove()) {
+                continue;
+            }
+
+            var sfItem = SlimefunItem.getById(blockData.getSfId());
+            if (sfItem != null && sfItem.loadDataByDefault()) {
+                toLoad.add(blockData);
+            }
+        }
+
+        if (!toLoad.isEmpty()) {
+            scheduleReadTask(() -> loadChunkBlockData(chunkData, toLoad));
+        }
+    }
+
+    /**
+     * 立即将容器中尚未写入的修改加入其自身作用域的写入队列
+     */
+    private void flushPendingUpdates(ASlimefunDataContainer container, ScopeKey scopeKey) {
+        var journal = writeJournal;
+        if (journal != null) {
+            journal.flush(container, true);
+        }
+
+        synchronized (delayedWriteTasks) {
+            var it = delayedWriteTasks.entrySet().iterator();
+            while (it.hasNext()) {
+                var next = it.next();
+                if (scopeKey.equals(next.getKey().getParent())) {
+                    next.getValue().runUnsafely();
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    private ScopeKey getScopeKey(ASlimefunDataContainer container) {
+        return container instanceof SlimefunBlockData blockData
+                ? new LocationKey(DataScope.NONE, blockData.getLocation())
+                : new UUIDKey(DataScope.NONE, container.getKey());
+    }
+
+    /**
+     * 将 {@link DataWriteJournal} 中的脏键写入数据库.
+     * <br/>
+     * 若容器自身作用域中仍有未完成的写入 (如新建方块记录), 则写入该作用域以保证写入顺序,
+     * 否则合并至日志作用域中批量提交.
+     */
+    private void writeJournaledData(ASlimefunDataContainer container, String key, boolean ownScope) {
+        var scopeKey = getScopeKey(container);
+        if (!ownScope && !hasPendingWriteTask(scopeKey)) {
+            scopeKey = DataWriteJournal.JOURNAL_SCOPE;
+        }
+
+        var val = container.getCacheInternal(key);
+        RecordKey reqKey;
+        if (container instanceof SlimefunBlockData) {
+            reqKey = new RecordKey(DataScope.BLOCK_DATA);
+            reqKey.addCondition(FieldKey.LOCATION, container.getKey());
+        } else {
+            reqKey = new RecordKey(DataScope.UNIVERSAL_DATA);
+            reqKey.addCondition(FieldKey.UNIVERSAL_UUID, container.getKey());
+        }
+        reqKey.addCondition(FieldKey.DATA_KEY, key);
+        // 写入与删除使用相同的 RecordKey, 使队列中同一键只保留最后一次操作
+        reqKey.addField(FieldKey.DATA_VALUE);
+        reqKey.addField(FieldKey.DATA_ENCODING);
+
+        if (val == null) {
+            scheduleDeleteTask(scopeKey, reqKey, true);
+            return;
+        }
+
+        var data = new RecordSet();
+        if (container instanceof SlimefunBlockData) {
+            data.put(FieldKey.LOCATION, container.getKey());
+        } else {
+            data.put(FieldKey.UNIVERSAL_UUID, container.getKey());
+        }
+        data.put(FieldKey.DATA_KEY, key);
+        DataUtils.putBlockDataValue(data, val);
+        scheduleWriteTask(scopeKey, reqKey, data, true);
     }
 
     private void scheduleBlockDataUpdate(ScopeKey scopeKey, RecordKey reqKey, String lKey, String key, String val) {
@@ -1444,9 +1992,10 @@ public class BlockDataController extends ADataController {
         } else {
             var data = new RecordSet();
             reqKey.addField(FieldKey.DATA_VALUE);
+            reqKey.addField(FieldKey.DATA_ENCODING);
             data.put(FieldKey.LOCATION, lKey);
             data.put(FieldKey.DATA_KEY, key);
-            data.put(FieldKey.DATA_VALUE, DataUtils.blockDataBase64(val));
+            DataUtils.putBlockDataValue(data, val);
             scheduleWriteTask(scopeKey, reqKey, data, true);
         }
     }
@@ -1457,9 +2006,10 @@ public class BlockDataController extends ADataController {
         } else {
             var data = new RecordSet();
             reqKey.addField(FieldKey.DATA_VALUE);
+            reqKey.addField(FieldKey.DATA_ENCODING);
             data.put(FieldKey.UNIVERSAL_UUID, uuid);
             data.put(FieldKey.DATA_KEY, key);
-            data.put(FieldKey.DATA_VALUE, DataUtils.blockDataBase64(val));
+            DataUtils.putBlockDataValue(data, val);
             scheduleWriteTask(scopeKey, reqKey, data, true);
         }
     }
@@ -1499,9 +2049,10 @@ public class BlockDataController extends ADataController {
         } else {
             var data = new RecordSet();
             reqKey.addField(FieldKey.DATA_VALUE);
+            reqKey.addField(FieldKey.DATA_ENCODING);
             data.put(FieldKey.CHUNK, cKey);
             data.put(FieldKey.DATA_KEY, key);
-            data.put(FieldKey.DATA_VALUE, DataUtils.blockDataBase64(val));
+            DataUtils.putBlockDataValue(data, val);
             scheduleWriteTask(scopeKey, reqKey, data, false);
         }
     }
@@ -1520,22 +2071,45 @@ public class BlockDataController extends ADataController {
         return getChunkDataCache(chunk, false);
     }
 
+    /**
+     * 在不加载区块的情况下从缓存中获取区块数据
+     *
+     * @param world  世界
+     * @param chunkX 区块 X 坐标
+     * @param chunkZ 区块 Z 坐标
+     * @return 已缓存的区块数据, 未缓存时返回 null
+     */
+    @Nullable public SlimefunChunkData getChunkDataFromCache(@Nonnull World world, int chunkX, int chunkZ) {
+        return chunkIndex.get(LocationUtils.packChunkKey(world, chunkX, chunkZ));
+    }
+
     private SlimefunChunkData getChunkDataCache(Chunk chunk, boolean createOnNotExists) {
-        return createOnNotExists
-                ? loadedChunk.computeIfAbsent(LocationUtils.getChunkKey(chunk), k -> {
-                    var re = new SlimefunChunkData(chunk);
-                    if (chunkDataLoadMode.readCacheOnly()) {
-                        re.setIsDataLoaded(true);
-                    }
-                    return re;
-                })
-                : loadedChunk.get(LocationUtils.getChunkKey(chunk));
+        var re = chunkIndex.get(LocationUtils.packChunkKey(chunk));
+        if (re != null) {
+            re.markReferenced();
+            return re;
+        }
+
+        if (!createOnNotExists) {
+            return null;
+        }
+
+        return loadedChunk.computeIfAbsent(LocationUtils.getChunkKey(chunk), k -> {
+            var data = new SlimefunChunkData(chunk);
+            if (readCacheOnly(chunk.getWorld())) {
+                data.setIsDataLoaded(true);
+            }
+            chunkIndex.put(LocationUtils.packChunkKey(chunk), data);
+            return data;
+        });
     }
 
     // Fixed #935: use cache chunk data to generate chunkKey by location first.
     private SlimefunChunkData getChunkDataCache(Location loc, boolean createOnNotExists) {
-        var re = loadedChunk.get(LocationUtils.getChunkKey(loc));
+        var re = chunkIndex.get(
+                LocationUtils.packChunkKey(loc.getWorld(), loc.getBlockX() >> 4, loc.getBlockZ() >> 4));
         if (re != null) {
+            re.markReferenced();
             return re;
         } else {
             // If cache not exists, use `getChunkDataCache` and trigger chunk loading
@@ -1590,8 +2164,8 @@ public class BlockDataController extends ADataController {
                     },
                     10L);
 
-            kvData.forEach(recordSet -> universalData.setData(
-                    recordSet.get(FieldKey.DATA_KEY), DataUtils.blockDataDebase64(recordSet.get(FieldKey.DATA_VALUE))));
+            kvData.forEach(recordSet ->
+                    universalData.setData(recordSet.get(FieldKey.DATA_KEY), DataUtils.getBlockDataValue(recordSet)));
 
             var preset = UniversalMenuPreset.getPreset(sfId);
             if (preset != null) {
@@ -1611,12 +2185,9 @@ public class BlockDataController extends ADataController {
                     }
                 }
 
-                universalData.setMenu(new UniversalMenu(preset, universalData.getUUID(), l, inv));
-
-                var content = universalData.getMenuContents();
-                if (content != null) {
-                    invSnapshots.put(universalData.getKey(), new InvSnapshot(content));
-                }
+                var menu = new UniversalMenu(preset, universalData.getUUID(), l, inv);
+                menu.markSlotsSaved();
+                universalData.setMenu(menu);
             }
 
             removeBlockData(l);
@@ -0,0 +1,161 @@
+package com.xzavier0722.mc.plugin.slimefun4.storage.controller;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * {@link BlockDataEvictor} 用于将已缓存方块数据的估算内存占用限制在预算之内.
+ * <p>
+ * 超出预算时按时钟置换算法遍历已缓存的区块: 近期被访问过的区块会获得一次豁免,
+ * 其余未被服务器加载的区块中的方块数据与菜单将被卸载, 直至估算内存低于预算的 {@link #LOW_WATERMARK}.
+ * 被卸载的方块仍保留在区块缓存中, 其数据会在区块加载或下次访问时重新读取.
+ * <p>
+ * 内存占用仅为粗略估算, 用于决定何时卸载, 不代表实际的堆内存占用.
+ *
+ * @see BlockDataController#evictBlockData(SlimefunChunkData, SlimefunBlockData)
+ */
+class BlockDataEvictor implements Runnable {
+    /**
+     * 执行周期 (单位: tick)
+     */
+    static final long INTERVAL = 30 * 20L;
+    /**
+     * 卸载至预算的比例, 避免每次执行都只卸载少量数据
+     */
+    private static final double LOW_WATERMARK = 0.9;
+    /**
+     * 方块数据对象本身 (位置, 键, 空的数据表等) 的估算大小
+     */
+    private static final long BLOCK_OVERHEAD = 256;
+    /**
+     * 数据表中每个条目 (不含字符串内容) 的估算大小
+     */
+    private static final long ENTRY_OVERHEAD = 64;
+    /**
+     * 菜单及其物品栏的估算大小
+     */
+    private static final long MENU_OVERHEAD = 1024;
+    /**
+     * 菜单中每个非空物品的估算大小
+     */
+    private static final long ITEM_OVERHEAD = 512;
+
+    private final BlockDataController controller;
+    private final long budget;
+    private final AtomicLong evictedTotal = new AtomicLong();
+    /**
+     * 时钟指针, 指向下次开始遍历的区块键
+     */
+    private String hand;
+
+    BlockDataEvictor(BlockDataController controller, long budget) {
+        this.controller = controller;
+        this.budget = budget;
+    }
+
+    @Override
+    public void run() {
+        var chunks = new ArrayList<>(controller.getAllLoadedChunkData());
+        var usage = measure(chunks);
+        if (usage.bytes() <= budget) {
+            return;
+        }
+
+        chunks.sort(Comparator.comparing(SlimefunChunkData::getKey));
+        var size = chunks.size();
+        var start = 0;
+        if (hand != null) {
+            while (start < size && chunks.get(start).getKey().compareTo(hand) < 0) {
+                start++;
+            }
+        }
+
+        var target = (long) (budget * LOW_WATERMARK);
+        var bytes = usage.bytes();
+        for (var i = 0; i < size && bytes > target; i++) {
+            var chunkData = chunks.get((start + i) % size);
+            hand = chunkData.getKey();
+
+            // 近期被访问过的区块获得一次豁免, 已加载区块中的方块可能正在运行, 不会被卸载
+            if (chunkData.clearReferenced() || chunkData.isChunkLoaded()) {
+                continue;
+            }
+
+            for (var blockData : chunkData.getAllCacheInternal()) {
+                var blockSize = estimate(blockData);
+                if (controller.evictBlockData(chunkData, blockData)) {
+                    evictedTotal.incrementAndGet();
+                    bytes -= blockSize;
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取缓存状态, 供 /sf timings 使用
+     */
+    @Nonnull
+    String getStatus() {
+        var usage = measure(controller.getAllLoadedChunkData());
+        return String.format(
+                "区块 %d 个, 常驻方块 %d 个 (菜单 %d 个), 已卸载方块 %d 个, 估算内存 %.1f/%d MB, 累计卸载 %d 次",
+                usage.chunks(),
+                usage.residentBlocks(),
+                usage.menus(),
+                usage.evictedBlocks(),
+                usage.bytes() / 1024.0 / 1024.0,
+                budget / 1024 / 1024,
+                evictedTotal.get());
+    }
+
+    private Usage measure(Iterable<SlimefunChunkData> chunks) {
+        var chunkCount = 0;
+        var resident = 0;
+        var evicted = 0;
+        var menus = 0;
+        long bytes = 0;
+
+        for (var chunkData : chunks) {
+            chunkCount++;
+            bytes += BLOCK_OVERHEAD + chunkData.estimateCacheSize(ENTRY_OVERHEAD);
+
+            for (var blockData : chunkData.getAllCacheInternal()) {
+                if (!blockData.isDataLoaded()) {
+                    evicted++;
+                } else {
+                    resident++;
+                    if (blockData.getBlockMenu() != null) {
+                        menus++;
+                    }
+                }
+                bytes += estimate(blockData);
+            }
+        }
+
+        return new Usage(chunkCount, resident, evicted, menus, bytes);
+    }
+
+    private long estimate(SlimefunBlockData blockData) {
+        if (!blockData.isDataLoaded()) {
+            return BLOCK_OVERHEAD;
+        }
+
+        var size = BLOCK_OVERHEAD + blockData.estimateCacheSize(ENTRY_OVERHEAD);
+        var menu = blockData.getBlockMenu();
+        if (menu != null) {
+            size += MENU_OVERHEAD;
+            for (ItemStack item : menu.getContents()) {
+                if (item != null) {
+                    size += ITEM_OVERHEAD;
+                }
+            }
+        }
+
+        return size;
+    }
+
+    private record Usage(int chunks, int residentBlocks, int evictedBlocks, int menus, long bytes) {}
+}
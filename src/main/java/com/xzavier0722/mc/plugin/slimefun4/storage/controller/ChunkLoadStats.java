@@ -0,0 +1,56 @@
+package com.xzavier0722.mc.plugin.slimefun4.storage.controller;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link ChunkLoadStats} 记录区块数据的加载耗时, 包括区块内方块数据的批量加载.
+ *
+ * @see BlockDataController
+ */
+class ChunkLoadStats {
+    private final LongAdder loadedChunks = new LongAdder();
+    private final LongAdder loadedBlocks = new LongAdder();
+    private final LongAdder loadedRows = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+    private final LongAccumulator maxLoadNanos = new LongAccumulator(Math::max, 0);
+    private volatile long lastLoadNanos = 0;
+
+    /**
+     * 记录一次区块加载
+     *
+     * @param nanos  加载耗时 (单位: 纳秒)
+     * @param blocks 批量加载数据的方块数量
+     * @param rows   读取的数据行数
+     */
+    void record(long nanos, int blocks, int rows) {
+        loadedChunks.increment();
+        loadedBlocks.add(blocks);
+        loadedRows.add(rows);
+        totalLoadNanos.add(nanos);
+        maxLoadNanos.accumulate(nanos);
+        lastLoadNanos = nanos;
+    }
+
+    long getLoadedRows() {
+        return loadedRows.sum();
+    }
+
+    String getStatus() {
+        var chunks = loadedChunks.sum();
+        var avgLoadNanos = chunks == 0 ? 0 : totalLoadNanos.sum() / chunks;
+        return String.format(
+                "区块数据加载: 已加载区块 %d | 批量加载方块 %d | 读取数据 %d 行 | 加载耗时 最近 %.2fms 平均 %.2fms 最大 %.2fms",
+                chunks,
+                loadedBlocks.sum(),
+                loadedRows.sum(),
+                toMillis(lastLoadNanos),
+                toMillis(avgLoadNanos),
+                toMillis(maxLoadNanos.get()));
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
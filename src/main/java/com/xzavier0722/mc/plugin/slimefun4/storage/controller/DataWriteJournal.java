@@ -0,0 +1,166 @@
+package com.xzavier0722.mc.plugin.slimefun4.storage.controller;
+
+import com.xzavier0722.mc.plugin.slimefun4.storage.common.DataScope;
+import com.xzavier0722.mc.plugin.slimefun4.storage.common.ScopeKey;
+import java.util.ArrayList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * {@link DataWriteJournal} 是方块数据与通用数据的写入合并日志.
+ * <p>
+ * 数据容器修改键值时只会在容器内标记脏键, 由定时运行的刷写任务统一读取每个脏键的最新值,
+ * 并合并为同一个写入任务批量提交, 从而避免每次修改都创建独立的写入任务.
+ *
+ * @see ASlimefunDataContainer
+ * @see BlockDataController
+ */
+class DataWriteJournal implements Runnable {
+    /**
+     * 合并写入所使用的作用域
+     */
+    static final ScopeKey JOURNAL_SCOPE = new JournalKey();
+
+    private final Queue<ASlimefunDataContainer> dirtyContainers = new ConcurrentLinkedQueue<>();
+    private final Writer writer;
+
+    private final LongAdder markedKeys = new LongAdder();
+    private final LongAdder writtenKeys = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder totalFlushNanos = new LongAdder();
+    private volatile long lastFlushNanos = 0;
+    private volatile long maxFlushNanos = 0;
+
+    DataWriteJournal(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * 标记容器中的键为脏键, 等待下次刷写
+     *
+     * @param container 数据容器
+     * @param key       被修改的键
+     */
+    void markDirty(ASlimefunDataContainer container, String key) {
+        markedKeys.increment();
+        if (container.markDirtyKey(key)) {
+            dirtyContainers.offer(container);
+        }
+    }
+
+    @Override
+    public void run() {
+        flush();
+    }
+
+    /**
+     * 刷写所有脏容器中的数据
+     */
+    synchronized void flush() {
+        if (dirtyContainers.isEmpty()) {
+            return;
+        }
+
+        var start = System.nanoTime();
+        ASlimefunDataContainer container;
+        while ((container = dirtyContainers.poll()) != null) {
+            flush(container, false);
+        }
+
+        var elapsed = System.nanoTime() - start;
+        lastFlushNanos = elapsed;
+        maxFlushNanos = Math.max(maxFlushNanos, elapsed);
+        totalFlushNanos.add(elapsed);
+        flushCount.increment();
+    }
+
+    /**
+     * 等待正在进行的刷写完成, 返回后此前被取出的脏键均已加入写入队列
+     */
+    synchronized void awaitFlush() {}
+
+    /**
+     * 立即刷写指定容器中的数据
+     *
+     * @param container 数据容器
+     * @param ownScope  是否写入到容器自身的作用域中, 以保证与该作用域中后续写入的顺序
+     */
+    void flush(ASlimefunDataContainer container, boolean ownScope) {
+        container.drainDirtyKeys(key -> {
+            writtenKeys.increment();
+            writer.write(container, key, ownScope);
+        });
+    }
+
+    /**
+     * 丢弃符合条件的容器中尚未刷写的数据
+     *
+     * @param filter 容器过滤条件
+     */
+    void discard(Predicate<ASlimefunDataContainer> filter) {
+        var toDiscard = new ArrayList<ASlimefunDataContainer>();
+        for (var container : dirtyContainers) {
+            if (filter.test(container)) {
+                toDiscard.add(container);
+            }
+        }
+
+        toDiscard.forEach(container -> container.drainDirtyKeys(key -> {}));
+    }
+
+    int getPendingContainers() {
+        return dirtyContainers.size();
+    }
+
+    /**
+     * 获取合并比例, 即标记次数与实际写入次数之比
+     *
+     * @return 合并比例
+     */
+    double getCoalescingRatio() {
+        var written = writtenKeys.sum();
+        return written == 0 ? 0 : (double) markedKeys.sum() / written;
+    }
+
+    String getStatus() {
+        var flushes = flushCount.sum();
+        var avgFlushNanos = flushes == 0 ? 0 : totalFlushNanos.sum() / flushes;
+        return String.format(
+                "写入合并日志: 待刷写容器 %d | 标记 %d 次 | 写入 %d 次 | 合并比例 %.2f | 刷写耗时 最近 %.2fms 平均 %.2fms 最大 %.2fms",
+                getPendingContainers(),
+                markedKeys.sum(),
+                writtenKeys.sum(),
+                getCoalescingRatio(),
+                toMillis(lastFlushNanos),
+                toMillis(avgFlushNanos),
+                toMillis(maxFlushNanos));
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @FunctionalInterface
+    interface Writer {
+        void write(ASlimefunDataContainer container, String key, boolean ownScope);
+    }
+
+    private static final class JournalKey extends ScopeKey {
+        private JournalKey() {
+            super(DataScope.NONE);
+        }
+
+        @Override
+        protected String getKeyStr() {
+            return "JOURNAL";
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj == this;
+        }
+    }
+}
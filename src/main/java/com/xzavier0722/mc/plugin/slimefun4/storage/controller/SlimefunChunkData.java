@@ -1,12 +1,12 @@
 package com.xzavier0722.mc.plugin.slimefun4.storage.controller;
 
+import com.xzavier0722.mc.plugin.slimefun4.storage.util.ConcurrentLongObjectMap;
 import com.xzavier0722.mc.plugin.slimefun4.storage.util.LocationUtils;
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
@@ -27,7 +27,19 @@ public class SlimefunChunkData extends ADataContainer {
     private final UUID worldId;
     private final int chunkX;
     private final int chunkZ;
-    private final Map<String, SlimefunBlockData> sfBlocks;
+    /**
+     * 以 {@link LocationUtils#packBlockKey(int, int, int)} 打包后的坐标为键的方块缓存
+     */
+    private final ConcurrentLongObjectMap<SlimefunBlockData> sfBlocks;
+
+    /**
+     * 时钟置换的访问位, 区块数据被访问时置位, 由 {@link BlockDataEvictor} 清除
+     */
+    private volatile boolean referenced = true;
+    /**
+     * 区块中是否存在已被 {@link BlockDataEvictor} 卸载的方块数据
+     */
+    private final AtomicBoolean hasEvictedBlocks = new AtomicBoolean();
 
     @ParametersAreNonnullByDefault
     SlimefunChunkData(Chunk chunk) {
@@ -35,7 +47,7 @@ public class SlimefunChunkData extends ADataContainer {
         worldId = chunk.getWorld().getUID();
         chunkX = chunk.getX();
         chunkZ = chunk.getZ();
-        sfBlocks = new ConcurrentHashMap<>();
+        sfBlocks = new ConcurrentLongObjectMap<>();
     }
 
     /**
@@ -68,16 +80,61 @@ public class SlimefunChunkData extends ADataContainer {
         return getWorld().getChunkAt(chunkX, chunkZ);
     }
 
+    /**
+     * 检查该区块当前是否已被服务器加载, 不会触发区块加载
+     *
+     * @return 区块是否已加载
+     */
+    public boolean isChunkLoaded() {
+        var world = Bukkit.getWorld(worldId);
+        return world != null && world.isChunkLoaded(chunkX, chunkZ);
+    }
+
+    void markReferenced() {
+        // 仅在需要时写入, 避免频繁访问时写入共享的缓存行
+        if (!referenced) {
+            referenced = true;
+        }
+    }
+
+    /**
+     * 清除访问位
+     *
+     * @return 清除前是否曾被访问
+     */
+    boolean clearReferenced() {
+        var re = referenced;
+        referenced = false;
+        return re;
+    }
+
+    boolean isReferenced() {
+        return referenced;
+    }
+
+    void markBlocksEvicted() {
+        hasEvictedBlocks.set(true);
+    }
+
+    /**
+     * 清除已卸载标记
+     *
+     * @return 清除前是否存在已卸载的方块数据
+     */
+    boolean clearBlocksEvicted() {
+        return hasEvictedBlocks.getAndSet(false);
+    }
+
     @Nonnull
     @ParametersAreNonnullByDefault
     public SlimefunBlockData createBlockData(Location l, String sfId) {
-        var lKey = LocationUtils.getLocKey(l);
-        if (getBlockCacheInternal(lKey) != null) {
-            throw new IllegalStateException("There already a block in this location: " + lKey);
+        var pos = LocationUtils.packBlockKey(l);
+        if (getBlockCacheInternal(pos) != null) {
+            throw new IllegalStateException("There already a block in this location: " + LocationUtils.getLocKey(l));
         }
         var re = new SlimefunBlockData(l, sfId);
         re.setIsDataLoaded(true);
-        sfBlocks.put(lKey, re);
+        sfBlocks.put(pos, re);
 
         var preset = BlockMenuPreset.getPreset(sfId);
         if (preset != null) {
@@ -92,39 +149,48 @@ public class SlimefunChunkData extends ADataContainer {
     @Nullable @ParametersAreNonnullByDefault
     public SlimefunBlockData getBlockData(Location l) {
         checkData();
-        return getBlockCacheInternal(LocationUtils.getLocKey(l));
+        return getBlockCacheInternal(LocationUtils.packBlockKey(l));
     }
 
     @Nullable @ParametersAreNonnullByDefault
     public SlimefunBlockData removeBlockData(Location l) {
-        var lKey = LocationUtils.getLocKey(l);
-        var re = removeBlockDataCacheInternal(lKey);
+        var pos = LocationUtils.packBlockKey(l);
+        var re = removeBlockDataCacheInternal(pos);
         if (re == null) {
             if (isDataLoaded()) {
                 return null;
             }
-            sfBlocks.put(lKey, INVALID_BLOCK_DATA);
+            sfBlocks.put(pos, INVALID_BLOCK_DATA);
         }
         Slimefun.getDatabaseManager().getBlockDataController().removeBlockDirectly(l);
         return re;
     }
 
     void addBlockCacheInternal(SlimefunBlockData data, boolean override) {
+        var pos = LocationUtils.packBlockKey(data.getLocation());
         if (override) {
-            sfBlocks.put(data.getKey(), data);
+            sfBlocks.put(pos, data);
         } else {
-            sfBlocks.putIfAbsent(data.getKey(), data);
+            sfBlocks.putIfAbsent(pos, data);
         }
     }
 
     SlimefunBlockData getBlockCacheInternal(String lKey) {
-        var re = sfBlocks.get(lKey);
+        return getBlockCacheInternal(LocationUtils.packBlockKey(lKey));
+    }
+
+    SlimefunBlockData getBlockCacheInternal(int x, int y, int z) {
+        return getBlockCacheInternal(LocationUtils.packBlockKey(x, y, z));
+    }
+
+    SlimefunBlockData getBlockCacheInternal(long pos) {
+        var re = sfBlocks.get(pos);
         return re == INVALID_BLOCK_DATA ? null : re;
     }
 
     Set<SlimefunBlockData> getAllCacheInternal() {
         var re = new HashSet<>(sfBlocks.values());
-        re.removeIf(v -> v == INVALID_BLOCK_DATA);
+        re.remove(INVALID_BLOCK_DATA);
         return re;
     }
 
@@ -133,11 +199,19 @@ public class SlimefunChunkData extends ADataContainer {
     }
 
     boolean hasBlockCache(String lKey) {
-        return sfBlocks.containsKey(lKey);
+        return hasBlockCache(LocationUtils.packBlockKey(lKey));
+    }
+
+    boolean hasBlockCache(long pos) {
+        return sfBlocks.containsKey(pos);
     }
 
     SlimefunBlockData removeBlockDataCacheInternal(String lKey) {
-        var re = isDataLoaded() ? sfBlocks.remove(lKey) : sfBlocks.put(lKey, INVALID_BLOCK_DATA);
+        return removeBlockDataCacheInternal(LocationUtils.packBlockKey(lKey));
+    }
+
+    SlimefunBlockData removeBlockDataCacheInternal(long pos) {
+        var re = isDataLoaded() ? sfBlocks.remove(pos) : sfBlocks.put(pos, INVALID_BLOCK_DATA);
         return re == INVALID_BLOCK_DATA ? null : re;
     }
 
@@ -163,7 +237,7 @@ public class SlimefunChunkData extends ADataContainer {
     protected void setIsDataLoaded(boolean isDataLoaded) {
         super.setIsDataLoaded(isDataLoaded);
         if (isDataLoaded) {
-            sfBlocks.entrySet().removeIf(entry -> entry.getValue() == INVALID_BLOCK_DATA);
+            sfBlocks.removeIf(data -> data == INVALID_BLOCK_DATA);
         }
     }
 }
@@ -0,0 +1,178 @@
+package com.xzavier0722.mc.plugin.slimefun4.storage.controller;
+
+import city.norain.slimefun4.SlimefunExtended;
+import com.xzavier0722.mc.plugin.slimefun4.storage.event.SlimefunChunkDataLoadEvent;
+import com.xzavier0722.mc.plugin.slimefun4.storage.util.LocationUtils;
+import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+
+/**
+ * {@link WorldPreloader} 用于在 {@link ChunkDataLoadMode#LOAD_ON_STARTUP} 模式下加载整个世界的数据.
+ * <p>
+ * 世界中的区块按区块键排序后分批提交至读取线程池并行加载,
+ * 同时处于加载中的批次数量不超过读取线程数, 以限制内存占用.
+ * 区块加载事件统一在主线程中触发.
+ *
+ * @see BlockDataController
+ */
+class WorldPreloader {
+    /**
+     * 每批加载的区块数量
+     */
+    private static final int BATCH_SIZE = 16;
+    /**
+     * 加载进度的输出间隔
+     */
+    private static final long PROGRESS_INTERVAL = TimeUnit.SECONDS.toNanos(5);
+
+    private final BlockDataController controller;
+    private final World world;
+    private final Logger logger;
+    private final AtomicInteger loadedChunks = new AtomicInteger();
+    private final Queue<SlimefunChunkData> pendingEvents = new ConcurrentLinkedQueue<>();
+
+    WorldPreloader(BlockDataController controller, World world, Logger logger) {
+        this.controller = controller;
+        this.world = world;
+        this.logger = logger;
+    }
+
+    /**
+     * 在当前线程中调度并等待整个世界的数据加载完成
+     *
+     * @param parallelism 同时处于加载中的最大批次数量
+     */
+    void run(int parallelism) {
+        var worldName = world.getName();
+        var start = System.nanoTime();
+        var startRows = controller.getLoadedRows();
+        logger.log(Level.INFO, "正在加载世界 {0} 的 Slimefun 方块数据...", worldName);
+
+        var chunkKeys = controller.getChunkKeys(world);
+        var total = chunkKeys.size();
+        var permits = new Semaphore(Math.max(1, parallelism));
+        var lastProgress = start;
+
+        for (var i = 0; i < total; i += BATCH_SIZE) {
+            var chunks = resolveChunks(chunkKeys.subList(i, Math.min(i + BATCH_SIZE, total)));
+
+            permits.acquireUninterruptibly();
+            try {
+                controller.scheduleReadTask(() -> {
+                    try {
+                        loadBatch(chunks);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+
+            dispatchEvents();
+
+            var now = System.nanoTime();
+            if (now - lastProgress >= PROGRESS_INTERVAL) {
+                lastProgress = now;
+                logProgress(start, now, total);
+            }
+        }
+
+        // 等待所有批次加载完成
+        permits.acquireUninterruptibly(Math.max(1, parallelism));
+        dispatchEvents();
+
+        var elapsed = System.nanoTime() - start;
+        var rows = controller.getLoadedRows() - startRows;
+        var seconds = Math.max(elapsed, 1) / (double) TimeUnit.SECONDS.toNanos(1);
+        logger.log(Level.INFO, "世界 {0} 数据加载完成, 共 {1} 个区块, {2} 行数据, 耗时 {3}ms, 平均 {4} 行/秒", new Object[] {
+            worldName, total, rows, TimeUnit.NANOSECONDS.toMillis(elapsed), String.format("%.0f", rows / seconds)
+        });
+    }
+
+    private void loadBatch(List<Chunk> chunks) {
+        for (var chunk : chunks) {
+            try {
+                var chunkData = controller.preloadChunk(chunk);
+                if (chunkData != null) {
+                    pendingEvents.offer(chunkData);
+                }
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "加载区块数据时出现异常: " + LocationUtils.getChunkKey(chunk), e);
+            } finally {
+                loadedChunks.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 获取区块对象. 1.19.4 以下的版本获取区块时会加载区块, 因此需要在主线程中进行
+     */
+    private List<Chunk> resolveChunks(List<String> chunkKeys) {
+        if (SlimefunExtended.isAtLeast(1, 19, 4) || Bukkit.isPrimaryThread()) {
+            return chunkKeys.stream().map(key -> LocationUtils.toChunk(world, key)).toList();
+        }
+
+        try {
+            return Bukkit.getScheduler()
+                    .callSyncMethod(
+                            Slimefun.instance(),
+                            () -> chunkKeys.stream()
+                                    .map(key -> LocationUtils.toChunk(world, key))
+                                    .toList())
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while resolving chunks", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to resolve chunks", e);
+        }
+    }
+
+    /**
+     * 在主线程中触发已加载区块的 {@link SlimefunChunkDataLoadEvent}
+     */
+    private void dispatchEvents() {
+        if (pendingEvents.isEmpty()) {
+            return;
+        }
+
+        var loaded = new ArrayList<SlimefunChunkData>();
+        SlimefunChunkData chunkData;
+        while ((chunkData = pendingEvents.poll()) != null) {
+            loaded.add(chunkData);
+        }
+
+        Runnable dispatch = () -> loaded.forEach(
+                data -> Bukkit.getPluginManager().callEvent(new SlimefunChunkDataLoadEvent(data)));
+
+        if (Bukkit.isPrimaryThread()) {
+            dispatch.run();
+        } else {
+            Slimefun.runSync(dispatch);
+        }
+    }
+
+    private void logProgress(long start, long now, int total) {
+        var loaded = loadedChunks.get();
+        var percentage = total == 0 ? 100 : loaded * 100 / total;
+        var eta = loaded == 0 ? -1 : (now - start) / loaded * (total - loaded);
+
+        logger.log(Level.INFO, "世界 {0} 数据加载中: {1}/{2} 个区块 ({3}%), 预计剩余 {4}", new Object[] {
+            world.getName(), loaded, total, percentage, eta < 0 ? "未知" : TimeUnit.NANOSECONDS.toSeconds(eta) + "s"
+        });
+    }
+}
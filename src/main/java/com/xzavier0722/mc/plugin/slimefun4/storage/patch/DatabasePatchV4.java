@@ -0,0 +1,79 @@
+package com.xzavier0722.mc.plugin.slimefun4.storage.patch;
+
+import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlConstants.FIELD_DATA_ENCODING;
+import static com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlConstants.FIELD_DATA_VALUE;
+
+import com.xzavier0722.mc.plugin.slimefun4.storage.adapter.mysql.MysqlConfig;
+import com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.ISqlCommonConfig;
+import com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlCommonConfig;
+import com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlUtils;
+import com.xzavier0722.mc.plugin.slimefun4.storage.common.DataEncoding;
+import com.xzavier0722.mc.plugin.slimefun4.storage.common.DataScope;
+import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 为方块, 区块及通用数据表添加 {@link DataEncoding} 字段.
+ * <br/>
+ * 已有数据不会在此处转换, 而是标记为旧版本写入时使用的编码,
+ * 在读取时透明解码并于加载后以 {@link DataEncoding#RAW} 重新写入.
+ * 添加带有常量默认值的字段在 SQLite, MySQL 8 及 PostgreSQL 11 以上版本中无需重写整张表.
+ */
+public class DatabasePatchV4 extends DatabasePatch {
+    private final DataEncoding legacyEncoding;
+
+    public DatabasePatchV4() {
+        this(Slimefun.getDatabaseManager().isBlockDataBase64Enabled() ? DataEncoding.BASE64 : DataEncoding.RAW);
+    }
+
+    DatabasePatchV4(DataEncoding legacyEncoding) {
+        super(4);
+        this.legacyEncoding = legacyEncoding;
+    }
+
+    @Override
+    public void patch(Statement stmt, ISqlCommonConfig config) throws SQLException {
+        var prefix = config instanceof SqlCommonConfig sqlConfig ? sqlConfig.tablePrefix() : "";
+        migrateTable(stmt, config, SqlUtils.mapTable(DataScope.BLOCK_DATA, prefix));
+        migrateTable(stmt, config, SqlUtils.mapTable(DataScope.CHUNK_DATA, prefix));
+        migrateTable(stmt, config, SqlUtils.mapTable(DataScope.UNIVERSAL_DATA, prefix));
+    }
+
+    private void migrateTable(Statement stmt, ISqlCommonConfig config, String table) throws SQLException {
+        if (!tableExists(stmt, table)) {
+            return;
+        }
+
+        if (!columnExists(stmt, table, FIELD_DATA_ENCODING)) {
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + FIELD_DATA_ENCODING + " SMALLINT NOT NULL DEFAULT "
+                    + legacyEncoding.getId());
+        }
+
+        // 原始文本可能包含任意字符, 需确保 MySQL 中的字段使用 utf8mb4 存储
+        if (config instanceof MysqlConfig && !isUtf8mb4Column(stmt, table)) {
+            stmt.execute("ALTER TABLE " + table + " MODIFY COLUMN " + FIELD_DATA_VALUE
+                    + " TEXT CHARACTER SET utf8mb4 NOT NULL");
+        }
+    }
+
+    private boolean isUtf8mb4Column(Statement stmt, String table) throws SQLException {
+        try (var result = stmt.executeQuery("SELECT CHARACTER_SET_NAME FROM information_schema.COLUMNS"
+                + " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = '" + table + "' AND COLUMN_NAME = '"
+                + FIELD_DATA_VALUE + "'")) {
+            return !result.next() || "utf8mb4".equalsIgnoreCase(result.getString(1));
+        }
+    }
+
+    private boolean columnExists(Statement stmt, String table, String column) throws SQLException {
+        try (var columns = stmt.getConnection().getMetaData().getColumns(null, null, table, column)) {
+            return columns.next();
+        }
+    }
+
+    private boolean tableExists(Statement stmt, String table) throws SQLException {
+        try (var tables = stmt.getConnection().getMetaData().getTables(null, null, table, new String[] {"TABLE"})) {
+            return tables.next();
+        }
+    }
+}
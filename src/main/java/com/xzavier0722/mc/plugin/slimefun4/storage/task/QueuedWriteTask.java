@@ -1,14 +1,33 @@
 package com.xzavier0722.mc.plugin.slimefun4.storage.task;
 
 import com.xzavier0722.mc.plugin.slimefun4.storage.common.RecordKey;
+import com.xzavier0722.mc.plugin.slimefun4.storage.common.RecordSet;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
 
+/**
+ * {@link QueuedWriteTask} 按入队顺序执行同一作用域内的写入任务, 并将连续的写入/删除操作合并为批量提交.
+ * 批量提交由持有数据源的子类实现, 仅使用 {@link #queue(RecordKey, Runnable)} 的子类无需实现.
+ */
 public class QueuedWriteTask implements Runnable {
+    /**
+     * 单次批量提交的最大记录数
+     */
+    private static final int MAX_BATCH_SIZE = 500;
+
     private final Queue<RecordKey> queue = new LinkedList<>();
-    private final Map<RecordKey, Runnable> tasks = new HashMap<>();
+    private final Map<RecordKey, Operation> tasks = new HashMap<>();
+    /**
+     * 执行批次时持有的锁, 用于等待已从队列中取出的操作执行完毕
+     */
+    private final Object batchLock = new Object();
     private volatile boolean done = false;
     private volatile boolean aborted = false;
 
@@ -18,14 +37,15 @@ public class QueuedWriteTask implements Runnable {
             return;
         }
 
-        var task = next();
-        while (!aborted && task != null) {
-            try {
-                task.run();
-            } catch (Throwable e) {
-                onError(e);
+        var hasNext = true;
+        while (!aborted && hasNext) {
+            synchronized (batchLock) {
+                var batch = nextBatch();
+                hasNext = !batch.isEmpty();
+                if (hasNext) {
+                    executeBatch(batch);
+                }
             }
-            task = next();
         }
 
         try {
@@ -39,32 +59,180 @@ public class QueuedWriteTask implements Runnable {
 
     protected void onError(Throwable e) {}
 
+    /**
+     * 批量写入数据，由持有数据源的控制器实现.
+     * 使用 {@link #queueWrite(RecordKey, RecordSet)} 的子类必须重写此方法
+     *
+     * @param items 需要写入的数据
+     */
+    protected void executeWriteBatch(Map<RecordKey, RecordSet> items) {
+        throw new UnsupportedOperationException("Batch write is not supported by this task.");
+    }
+
+    /**
+     * 批量删除数据，由持有数据源的控制器实现.
+     * 使用 {@link #queueDelete(RecordKey)} 的子类必须重写此方法
+     *
+     * @param keys 需要删除的数据
+     */
+    protected void executeDeleteBatch(List<RecordKey> keys) {
+        throw new UnsupportedOperationException("Batch delete is not supported by this task.");
+    }
+
     public synchronized boolean queue(RecordKey key, Runnable next) {
+        return queue(key, new Operation(null, next));
+    }
+
+    public synchronized boolean queueWrite(RecordKey key, RecordSet data) {
+        return queue(key, new Operation(data, null));
+    }
+
+    public synchronized boolean queueDelete(RecordKey key) {
+        return queue(key, new Operation(null, null));
+    }
+
+    public void abort() {
+        aborted = true;
+    }
+
+    /**
+     * 取消队列中尚未执行的符合条件的操作, 并等待已被取出的批次执行完毕.
+     * 返回后该任务不会再执行任何符合条件的操作.
+     *
+     * @param filter 操作键过滤条件
+     */
+    public void cancelAndAwait(Predicate<RecordKey> filter) {
+        synchronized (this) {
+            queue.removeIf(key -> {
+                if (filter.test(key)) {
+                    tasks.remove(key);
+                    return true;
+                }
+                return false;
+            });
+        }
+
+        synchronized (batchLock) {
+            // 正在执行的批次可能包含符合条件的操作, 等待其执行完毕
+        }
+    }
+
+    private boolean queue(RecordKey key, Operation operation) {
         if (done || aborted) {
             return false;
         }
 
-        if (tasks.put(key, next) == null) {
+        if (tasks.put(key, operation) == null) {
             return queue.offer(key);
         }
         return true;
     }
 
-    public void abort() {
-        aborted = true;
-    }
+    private synchronized List<Map.Entry<RecordKey, Operation>> nextBatch() {
+        var batch = new ArrayList<Map.Entry<RecordKey, Operation>>(Math.min(queue.size(), MAX_BATCH_SIZE));
+        while (batch.size() < MAX_BATCH_SIZE) {
+            var key = queue.poll();
+            if (key == null) {
+                break;
+            }
+            batch.add(Map.entry(key, tasks.remove(key)));
+        }
 
-    private synchronized Runnable next() {
-        var key = queue.poll();
-        if (key == null) {
+        if (batch.isEmpty()) {
             done = true;
-            return null;
         }
-        return tasks.remove(key);
+        return batch;
+    }
+
+    /**
+     * 按入队顺序执行，连续的同类写入/删除操作会合并为一次批量提交
+     */
+    private void executeBatch(List<Map.Entry<RecordKey, Operation>> batch) {
+        var writes = new LinkedHashMap<RecordKey, RecordSet>();
+        var deletes = new ArrayList<RecordKey>();
+
+        for (var entry : batch) {
+            var op = entry.getValue();
+            if (op.isWrite()) {
+                flushDeletes(deletes);
+                writes.put(entry.getKey(), op.data());
+            } else if (op.isDelete()) {
+                flushWrites(writes);
+                deletes.add(entry.getKey());
+            } else {
+                flushWrites(writes);
+                flushDeletes(deletes);
+                try {
+                    op.task().run();
+                } catch (Throwable e) {
+                    onError(e);
+                }
+            }
+        }
+
+        flushWrites(writes);
+        flushDeletes(deletes);
+    }
+
+    private void flushWrites(Map<RecordKey, RecordSet> writes) {
+        if (writes.isEmpty()) {
+            return;
+        }
+
+        try {
+            executeWriteBatch(writes);
+        } catch (Throwable e) {
+            if (writes.size() == 1) {
+                onError(e);
+            } else {
+                // 批量提交失败时逐条重试, 避免单条异常数据导致整批数据丢失
+                writes.forEach((key, data) -> {
+                    try {
+                        executeWriteBatch(Map.of(key, data));
+                    } catch (Throwable ex) {
+                        onError(ex);
+                    }
+                });
+            }
+        }
+        writes.clear();
+    }
+
+    private void flushDeletes(List<RecordKey> deletes) {
+        if (deletes.isEmpty()) {
+            return;
+        }
+
+        try {
+            executeDeleteBatch(deletes);
+        } catch (Throwable e) {
+            if (deletes.size() == 1) {
+                onError(e);
+            } else {
+                for (var key : deletes) {
+                    try {
+                        executeDeleteBatch(List.of(key));
+                    } catch (Throwable ex) {
+                        onError(ex);
+                    }
+                }
+            }
+        }
+        deletes.clear();
     }
 
     @Override
     public String toString() {
         return "QueuedWriteTask{" + "queue=" + queue + '}';
     }
+
+    private record Operation(@Nullable RecordSet data, @Nullable Runnable task) {
+        boolean isWrite() {
+            return data != null;
+        }
+
+        boolean isDelete() {
+            return data == null && task == null;
+        }
+    }
 }
@@ -0,0 +1,290 @@
+package com.xzavier0722.mc.plugin.slimefun4.storage.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * {@link ConcurrentLongObjectMap} 是以 long 为键的开放寻址哈希表.
+ * <p>
+ * 读取操作使用 {@link StampedLock} 的乐观读, 在无写入竞争时不会加锁, 也不会产生任何对象分配;
+ * 写入操作串行执行, 删除时使用后移删除以避免墓碑.
+ * <p>
+ * 该表不接受 null 值.
+ *
+ * @param <V> 值类型
+ */
+public class ConcurrentLongObjectMap<V> {
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private final StampedLock lock = new StampedLock();
+    private volatile Table table;
+    private int size = 0;
+
+    public ConcurrentLongObjectMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ConcurrentLongObjectMap(int expectedSize) {
+        table = new Table(tableSizeFor(expectedSize));
+    }
+
+    @Nullable public V get(long key) {
+        var stamp = lock.tryOptimisticRead();
+        var re = find(table, key);
+        if (lock.validate(stamp)) {
+            return re;
+        }
+
+        stamp = lock.readLock();
+        try {
+            return find(table, key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    @Nullable public V put(long key, @Nonnull V value) {
+        var stamp = lock.writeLock();
+        try {
+            return putInternal(key, value, false);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Nullable public V putIfAbsent(long key, @Nonnull V value) {
+        var stamp = lock.writeLock();
+        try {
+            return putInternal(key, value, true);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Nullable public V remove(long key) {
+        var stamp = lock.writeLock();
+        try {
+            return removeInternal(key, null);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 仅当键当前映射到指定值 (引用相等) 时移除
+     *
+     * @return 是否移除成功
+     */
+    public boolean remove(long key, @Nonnull V value) {
+        var stamp = lock.writeLock();
+        try {
+            return removeInternal(key, value) != null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void removeIf(@Nonnull Predicate<V> filter) {
+        var stamp = lock.writeLock();
+        try {
+            var t = table;
+            var toRemove = new ArrayList<Long>();
+            for (var i = 0; i < t.values.length; i++) {
+                if (t.values[i] != null && filter.test(t.valueAt(i))) {
+                    toRemove.add(t.keys[i]);
+                }
+            }
+            toRemove.forEach(key -> removeInternal(key, null));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void clear() {
+        var stamp = lock.writeLock();
+        try {
+            table = new Table(DEFAULT_CAPACITY);
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void forEach(@Nonnull Consumer<V> action) {
+        values().forEach(action);
+    }
+
+    /**
+     * @return 当前所有值的快照
+     */
+    @Nonnull
+    public List<V> values() {
+        var stamp = lock.readLock();
+        try {
+            var t = table;
+            var re = new ArrayList<V>(size);
+            for (var i = 0; i < t.values.length; i++) {
+                if (t.values[i] != null) {
+                    re.add(t.valueAt(i));
+                }
+            }
+            return re;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int size() {
+        var stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    private V find(Table t, long key) {
+        var mask = t.mask;
+        var i = mix(key) & mask;
+        // 乐观读时表可能处于中间状态, 限制探测次数以防止死循环, 结果由调用方校验
+        for (var n = 0; n <= mask; n++) {
+            var v = t.values[i];
+            if (v == null) {
+                return null;
+            }
+            if (t.keys[i] == key) {
+                return t.valueAt(i);
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    private V putInternal(long key, V value, boolean onlyIfAbsent) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+
+        var t = table;
+        var mask = t.mask;
+        var i = mix(key) & mask;
+        while (t.values[i] != null) {
+            if (t.keys[i] == key) {
+                V old = t.valueAt(i);
+                if (!onlyIfAbsent) {
+                    t.values[i] = value;
+                }
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+
+        t.keys[i] = key;
+        t.values[i] = value;
+        if (++size > (t.values.length >> 1)) {
+            resize();
+        }
+        return null;
+    }
+
+    private V removeInternal(long key, V expected) {
+        var t = table;
+        var mask = t.mask;
+        var i = mix(key) & mask;
+        while (t.values[i] != null) {
+            if (t.keys[i] == key) {
+                V old = t.valueAt(i);
+                if (expected != null && old != expected) {
+                    return null;
+                }
+                shiftKeys(t, i);
+                size--;
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * 后移删除: 将探测链上后续的元素移动到空位, 保证线性探测不被中断
+     */
+    private void shiftKeys(Table t, int pos) {
+        var mask = t.mask;
+        while (true) {
+            var last = pos;
+            pos = (pos + 1) & mask;
+            while (true) {
+                if (t.values[pos] == null) {
+                    t.values[last] = null;
+                    return;
+                }
+                var slot = mix(t.keys[pos]) & mask;
+                if (last <= pos ? (last >= slot || slot > pos) : (last >= slot && slot > pos)) {
+                    break;
+                }
+                pos = (pos + 1) & mask;
+            }
+            t.keys[last] = t.keys[pos];
+            t.values[last] = t.values[pos];
+        }
+    }
+
+    private void resize() {
+        var old = table;
+        var t = new Table(old.values.length << 1);
+        var mask = t.mask;
+        for (var i = 0; i < old.values.length; i++) {
+            if (old.values[i] == null) {
+                continue;
+            }
+            var pos = mix(old.keys[i]) & mask;
+            while (t.values[pos] != null) {
+                pos = (pos + 1) & mask;
+            }
+            t.keys[pos] = old.keys[i];
+            t.values[pos] = old.values[i];
+        }
+        table = t;
+    }
+
+    private static int mix(long key) {
+        var h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        var cap = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, expectedSize) * 2 - 1) << 1;
+        return Math.max(DEFAULT_CAPACITY, cap);
+    }
+
+    private static final class Table {
+        private final long[] keys;
+        private final Object[] values;
+        private final int mask;
+
+        private Table(int capacity) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+            mask = capacity - 1;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <V> V valueAt(int i) {
+            return (V) values[i];
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.xzavier0722.mc.plugin.slimefun4.storage.util;
 
 import city.norain.slimefun4.utils.StringUtil;
+import com.xzavier0722.mc.plugin.slimefun4.storage.common.DataEncoding;
+import com.xzavier0722.mc.plugin.slimefun4.storage.common.FieldKey;
+import com.xzavier0722.mc.plugin.slimefun4.storage.common.RecordSet;
 import com.xzavier0722.mc.plugin.slimefun4.storage.controller.StorageType;
 import io.github.thebusybiscuit.slimefun4.core.debug.Debug;
 import io.github.thebusybiscuit.slimefun4.core.debug.TestCase;
@@ -102,14 +105,47 @@ public class DataUtils {
                 && ItemStackDataCodec.isLegacy(serializedItemStack);
     }
 
+    /**
+     * @deprecated 自数据库版本 4 起方块数据以原始文本写入, 请使用 {@link #putBlockDataValue(RecordSet, String)}
+     */
+    @Deprecated
     public static String blockDataBase64(String text) {
         return Slimefun.getDatabaseManager().isBlockDataBase64Enabled() ? base64Encode(text) : text;
     }
 
+    /**
+     * @deprecated 自数据库版本 4 起方块数据以原始文本写入, 请使用 {@link #getBlockDataValue(RecordSet)}
+     */
+    @Deprecated
     public static String blockDataDebase64(String base64Str) {
         return Slimefun.getDatabaseManager().isBlockDataBase64Enabled() ? base64Decode(base64Str) : base64Str;
     }
 
+    /**
+     * 将方块, 区块或通用数据的值以 {@link DataEncoding#RAW} 写入数据记录
+     *
+     * @param recordSet 要写入的数据记录
+     * @param value     数据值
+     */
+    public static void putBlockDataValue(RecordSet recordSet, String value) {
+        recordSet.put(FieldKey.DATA_VALUE, value);
+        recordSet.put(FieldKey.DATA_ENCODING, String.valueOf(DataEncoding.RAW.getId()));
+    }
+
+    /**
+     * 读取数据记录中方块, 区块或通用数据的值, 旧版本以 Base64 写入的值会被透明解码
+     *
+     * @param recordSet 包含 {@link FieldKey#DATA_VALUE} 与 {@link FieldKey#DATA_ENCODING} 的数据记录
+     * @return 解码后的数据值
+     */
+    public static String getBlockDataValue(RecordSet recordSet) {
+        return getBlockDataEncoding(recordSet).decode(recordSet.get(FieldKey.DATA_VALUE));
+    }
+
+    public static DataEncoding getBlockDataEncoding(RecordSet recordSet) {
+        return DataEncoding.fromId(recordSet.get(FieldKey.DATA_ENCODING));
+    }
+
     public static String profileDataBase64(String text) {
         return Slimefun.getDatabaseManager().isProfileDataBase64Enabled() ? base64Encode(text) : text;
     }
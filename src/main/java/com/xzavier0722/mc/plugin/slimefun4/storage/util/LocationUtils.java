@@ -1,12 +1,19 @@
 package com.xzavier0722.mc.plugin.slimefun4.storage.util;
 
 import city.norain.slimefun4.SlimefunExtended;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.World;
 
 public class LocationUtils {
+    private static final Map<UUID, Integer> worldIndexes = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextWorldIndex = new AtomicInteger();
+
     /**
      * 将 {@link Location} 转换为数据库中使用的
      * 标准格式位置信息
@@ -33,6 +40,78 @@ public class LocationUtils {
         return loc.getWorld().getName() + ";" + (loc.getBlockX() >> 4) + ":" + (loc.getBlockZ() >> 4);
     }
 
+    public static String getChunkKey(World world, int chunkX, int chunkZ) {
+        return world.getName() + ";" + chunkX + ":" + chunkZ;
+    }
+
+    /**
+     * 获取世界在本次运行中的数字索引, 用于打包区块键
+     *
+     * @param world {@link World}
+     * @return 世界索引
+     */
+    public static int getWorldIndex(World world) {
+        var uid = world.getUID();
+        var re = worldIndexes.get(uid);
+        return re != null ? re : worldIndexes.computeIfAbsent(uid, k -> nextWorldIndex.getAndIncrement() & 0xFFFF);
+    }
+
+    /**
+     * 将区块坐标打包为 long 类型的区块键
+     * <p>
+     * 高 16 位为世界索引, 随后各 24 位为区块 X/Z 坐标
+     *
+     * @param world  {@link World}
+     * @param chunkX 区块 X 坐标
+     * @param chunkZ 区块 Z 坐标
+     * @return 打包后的区块键
+     */
+    public static long packChunkKey(World world, int chunkX, int chunkZ) {
+        return ((long) getWorldIndex(world) << 48) | ((long) (chunkX & 0xFFFFFF) << 24) | (chunkZ & 0xFFFFFF);
+    }
+
+    public static long packChunkKey(Chunk chunk) {
+        return packChunkKey(chunk.getWorld(), chunk.getX(), chunk.getZ());
+    }
+
+    /**
+     * 将方块坐标打包为 long 类型的方块键, 不包含世界信息
+     * <p>
+     * 高 26 位为 X 坐标, 随后 26 位为 Z 坐标, 低 12 位为 Y 坐标
+     *
+     * @param x 方块 X 坐标
+     * @param y 方块 Y 坐标
+     * @param z 方块 Z 坐标
+     * @return 打包后的方块键
+     */
+    public static long packBlockKey(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    public static long packBlockKey(Location l) {
+        return packBlockKey(l.getBlockX(), l.getBlockY(), l.getBlockZ());
+    }
+
+    /**
+     * 将标准格式的位置信息字符串打包为方块键, 解析过程不产生对象分配
+     *
+     * @param lKey 位置信息字符串, 见 {@link #getLocKey(Location)}
+     * @return 打包后的方块键
+     */
+    public static long packBlockKey(String lKey) {
+        var start = lKey.lastIndexOf(';') + 1;
+        var first = lKey.indexOf(':', start);
+        var second = lKey.indexOf(':', first + 1);
+        if (start == 0 || first < 0 || second < 0) {
+            throw new IllegalArgumentException("Unable to parse location [" + lKey + "]");
+        }
+
+        return packBlockKey(
+                Integer.parseInt(lKey, start, first, 10),
+                Integer.parseInt(lKey, first + 1, second, 10),
+                Integer.parseInt(lKey, second + 1, lKey.length(), 10));
+    }
+
     public static Location toLocation(String lKey) {
         if (lKey == null || lKey.isEmpty()) {
             return null;
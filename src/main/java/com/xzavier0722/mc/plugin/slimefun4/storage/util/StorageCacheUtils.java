@@ -19,6 +19,7 @@ import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import me.mrCookieSlime.Slimefun.api.inventory.BlockMenu;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 
 /**
@@ -63,6 +64,14 @@ public class StorageCacheUtils {
         return Slimefun.getDatabaseManager().getBlockDataController().getBlockDataFromCache(l);
     }
 
+    /**
+     * Get the cached block data by block coordinates without creating a {@link Location}.
+     */
+    @ParametersAreNonnullByDefault
+    @Nullable public static SlimefunBlockData getBlock(World world, int x, int y, int z) {
+        return Slimefun.getDatabaseManager().getBlockDataController().getBlockDataFromCache(world, x, y, z);
+    }
+
     @ParametersAreNonnullByDefault
     @Nullable public static ASlimefunDataContainer getDataContainer(Location l) {
         var blockData = getBlock(l);
@@ -0,0 +1,327 @@
+package io.github.thebusybiscuit.slimefun4.api.geo;
+
+import com.xzavier0722.mc.plugin.slimefun4.storage.controller.BlockDataController;
+import com.xzavier0722.mc.plugin.slimefun4.storage.controller.SlimefunChunkData;
+import com.xzavier0722.mc.plugin.slimefun4.storage.util.ConcurrentLongObjectMap;
+import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+
+/**
+ * The {@link GEOSupplyStore} caches the supplies of every {@link GEOResource} per chunk.
+ * <p>
+ * Supplies are stored as a compact {@code (chunkX, chunkZ, resource) -> int} table per {@link World}.
+ * Chunks are looked up by their coordinates, so looking up supplies never loads a chunk.
+ * Missing chunks are read from the database in the background, together with their neighbours.
+ * <p>
+ * The {@link SlimefunChunkData} of a chunk is the source of truth: whenever it is cached by the
+ * {@link BlockDataController}, supplies are read from it directly, since it may also be modified
+ * without going through the {@link ResourceManager}. This table only holds the supplies of chunks
+ * which are not cached there and must be invalidated whenever their data is removed.
+ *
+ * @see ResourceManager
+ *
+ */
+final class GEOSupplyStore {
+
+    /**
+     * The radius of chunks around a requested chunk that is read from the database in the same batch.
+     */
+    private static final int PREFETCH_RADIUS = 1;
+
+    /**
+     * The amount of chunks per {@link World} after which the cache of that {@link World} is cleared.
+     */
+    private static final int MAX_CACHED_CHUNKS = 1 << 16;
+
+    private final Map<NamespacedKey, Integer> resourceIndex = new ConcurrentHashMap<>();
+    private final List<String> dataKeys = new ArrayList<>();
+
+    private final Map<UUID, ConcurrentLongObjectMap<ChunkSupplies>> worlds = new ConcurrentHashMap<>();
+    private final Map<ChunkPosition, CompletableFuture<ChunkSupplies>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * This is incremented whenever cached supplies are invalidated, so that reads which
+     * were started before do not put outdated supplies back into the cache.
+     */
+    private final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * This assigns the given {@link GEOResource} a column in the supply table.
+     *
+     * @param resource
+     *            The {@link GEOResource}
+     */
+    synchronized void register(@Nonnull GEOResource resource) {
+        resourceIndex.computeIfAbsent(resource.getKey(), key -> {
+            dataKeys.add(getDataKey(resource));
+            return dataKeys.size() - 1;
+        });
+
+        // Chunks that were read before only know the previously registered resources
+        generation.incrementAndGet();
+        worlds.clear();
+    }
+
+    /**
+     * This returns the cached supplies of a chunk without reading the database.
+     *
+     * @return The {@link ChunkSupplies} or null if this chunk was not read yet
+     */
+    @Nullable ChunkSupplies getCached(@Nonnull World world, int x, int z) {
+        var table = worlds.get(world.getUID());
+        var chunkData = Slimefun.getDatabaseManager().getBlockDataController().getChunkDataFromCache(world, x, z);
+
+        if (chunkData != null && chunkData.isDataLoaded()) {
+            // The cached chunk data is up to date, our own copy of it may not be
+            if (table != null && table.containsKey(pack(x, z))) {
+                table.remove(pack(x, z));
+            }
+
+            return parse(chunkData::getData);
+        }
+
+        return table == null ? null : table.get(pack(x, z));
+    }
+
+    /**
+     * This returns the supplies of a chunk, reading them from the database on the current thread
+     * if they are not cached yet.
+     *
+     * @return The {@link ChunkSupplies}
+     */
+    @Nonnull
+    ChunkSupplies read(@Nonnull World world, int x, int z) {
+        var cached = getCached(world, x, z);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        int version = generation.get();
+        var data = Slimefun.getDatabaseManager().getBlockDataController().readChunkData(world, x, z);
+        return put(world, x, z, parse(data::get), version);
+    }
+
+    /**
+     * This removes the cached supplies of a chunk, they will be read from the database again.
+     */
+    void invalidate(@Nonnull World world, int x, int z) {
+        generation.incrementAndGet();
+        var table = worlds.get(world.getUID());
+
+        if (table != null) {
+            table.remove(pack(x, z));
+        }
+    }
+
+    /**
+     * This removes the cached supplies of every chunk in the given {@link World}.
+     */
+    void invalidateWorld(@Nonnull World world) {
+        generation.incrementAndGet();
+        worlds.remove(world.getUID());
+    }
+
+    /**
+     * This returns the supplies of a chunk, reading them from the database if necessary.
+     * The neighbouring chunks are read in the same batch.
+     *
+     * @return A {@link CompletableFuture} of the {@link ChunkSupplies}
+     */
+    @Nonnull
+    CompletableFuture<ChunkSupplies> load(@Nonnull World world, int x, int z) {
+        var cached = getCached(world, x, z);
+
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        var pending = loading.get(new ChunkPosition(world.getUID(), x, z));
+
+        if (pending != null) {
+            return pending;
+        }
+
+        return loadRegion(world, x - PREFETCH_RADIUS, z - PREFETCH_RADIUS, x + PREFETCH_RADIUS, z + PREFETCH_RADIUS)
+                .thenCompose(v -> {
+                    var supplies = getCached(world, x, z);
+                    // The cache may have been cleared in the meantime
+                    return supplies != null ? CompletableFuture.completedFuture(supplies) : load(world, x, z);
+                });
+    }
+
+    /**
+     * This reads the supplies of every chunk in the given region that is not cached yet in a single batch.
+     *
+     * @return A {@link CompletableFuture} that completes once all chunks were read
+     */
+    @Nonnull
+    CompletableFuture<Void> loadRegion(@Nonnull World world, int minX, int minZ, int maxX, int maxZ) {
+        var futures = new ArrayList<CompletableFuture<ChunkSupplies>>();
+        var chunks = new ArrayList<int[]>();
+        var batch = new ArrayList<CompletableFuture<ChunkSupplies>>();
+
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                if (getCached(world, x, z) != null) {
+                    continue;
+                }
+
+                var future = new CompletableFuture<ChunkSupplies>();
+                var pending = loading.putIfAbsent(new ChunkPosition(world.getUID(), x, z), future);
+
+                if (pending != null) {
+                    futures.add(pending);
+                } else {
+                    chunks.add(new int[] {x, z});
+                    batch.add(future);
+                    futures.add(future);
+                }
+            }
+        }
+
+        if (!chunks.isEmpty()) {
+            var coordinates = chunks.toArray(new int[0][]);
+            int version = generation.get();
+
+            Slimefun.getDatabaseManager()
+                    .getBlockDataController()
+                    .getChunkDataAsync(world, coordinates)
+                    .whenComplete((result, x) -> {
+                        for (int i = 0; i < coordinates.length; i++) {
+                            var position = new ChunkPosition(world.getUID(), coordinates[i][0], coordinates[i][1]);
+                            var future = batch.get(i);
+
+                            if (x != null) {
+                                loading.remove(position, future);
+                                future.completeExceptionally(x);
+                            } else {
+                                var supplies = put(
+                                        world, position.x(), position.z(), parse(result.get(i)::get), version);
+                                loading.remove(position, future);
+                                future.complete(supplies);
+                            }
+                        }
+                    });
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * This updates the cached supplies of a chunk.
+     * If that chunk is not cached yet, the value is applied once it was read.
+     */
+    @ParametersAreNonnullByDefault
+    void set(World world, int x, int z, GEOResource resource, int value) {
+        int index = indexOf(resource);
+
+        if (index >= 0) {
+            load(world, x, z).thenAccept(supplies -> supplies.set(index, value));
+        }
+    }
+
+    /**
+     * @return The column of the given {@link GEOResource} or -1 if it was never registered
+     */
+    int indexOf(@Nonnull GEOResource resource) {
+        return resourceIndex.getOrDefault(resource.getKey(), -1);
+    }
+
+    @Nonnull
+    static String getDataKey(@Nonnull GEOResource resource) {
+        return resource.getKey().toString().replace(':', '-');
+    }
+
+    @Nonnull
+    private ChunkSupplies put(@Nonnull World world, int x, int z, @Nonnull ChunkSupplies supplies, int version) {
+        if (generation.get() != version) {
+            // The data may have been removed while it was read, it must not be cached
+            return supplies;
+        }
+
+        var table = worlds.computeIfAbsent(world.getUID(), uuid -> new ConcurrentLongObjectMap<>());
+
+        if (table.size() >= MAX_CACHED_CHUNKS) {
+            table.clear();
+        }
+
+        var previous = table.putIfAbsent(pack(x, z), supplies);
+        return previous != null ? previous : supplies;
+    }
+
+    @Nonnull
+    private synchronized ChunkSupplies parse(@Nonnull UnaryOperator<String> data) {
+        var values = new int[dataKeys.size()];
+        Arrays.fill(values, ChunkSupplies.NOT_GENERATED);
+
+        for (int i = 0; i < values.length; i++) {
+            var value = data.apply(dataKeys.get(i));
+
+            if (value != null) {
+                try {
+                    values[i] = Integer.parseInt(value);
+                } catch (NumberFormatException x) {
+                    // Treat broken values as not generated, they will simply be generated again
+                }
+            }
+        }
+
+        return new ChunkSupplies(values);
+    }
+
+    private static long pack(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    private record ChunkPosition(UUID world, int x, int z) {}
+
+    /**
+     * The supplies of every {@link GEOResource} in a single chunk.
+     */
+    static final class ChunkSupplies {
+
+        private static final int NOT_GENERATED = Integer.MIN_VALUE;
+
+        private int[] values;
+
+        private ChunkSupplies(@Nonnull int[] values) {
+            this.values = values;
+        }
+
+        /**
+         * @return The supplies at the given column, empty if they were not generated yet
+         */
+        synchronized OptionalInt get(int index) {
+            if (index < 0 || index >= values.length || values[index] == NOT_GENERATED) {
+                return OptionalInt.empty();
+            }
+
+            return OptionalInt.of(values[index]);
+        }
+
+        synchronized void set(int index, int value) {
+            if (index >= values.length) {
+                int length = values.length;
+                values = Arrays.copyOf(values, index + 1);
+                Arrays.fill(values, length, values.length, NOT_GENERATED);
+            }
+
+            values[index] = value;
+        }
+    }
+}
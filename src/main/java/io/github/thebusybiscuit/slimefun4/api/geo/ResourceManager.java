@@ -1,7 +1,6 @@
 package io.github.thebusybiscuit.slimefun4.api.geo;
 
 import com.xzavier0722.mc.plugin.slimefun4.storage.callback.IAsyncReadCallback;
-import com.xzavier0722.mc.plugin.slimefun4.storage.controller.SlimefunChunkData;
 import io.github.bakedlibs.dough.blocks.BlockPosition;
 import io.github.bakedlibs.dough.config.Config;
 import io.github.bakedlibs.dough.items.CustomItemStack;
@@ -20,8 +19,10 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ThreadLocalRandom;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import me.mrCookieSlime.CSCoreLibPlugin.general.Inventory.ChestMenu;
 import org.apache.commons.lang.Validate;
 import org.bukkit.Bukkit;
@@ -32,6 +33,7 @@ import org.bukkit.World;
 import org.bukkit.block.Biome;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
+import org.bukkit.generator.BiomeProvider;
 import org.bukkit.inventory.ItemStack;
 
 /**
@@ -51,6 +53,7 @@ public class ResourceManager {
         0, 1, 2, 3, 5, 6, 7, 8, 9, 17, 18, 26, 27, 35, 36, 44, 45, 46, 48, 49, 50, 52, 53
     };
     private final Config config;
+    private final GEOSupplyStore supplyStore = new GEOSupplyStore();
 
     /**
      * This will create a new {@link ResourceManager}.
@@ -79,6 +82,8 @@ public class ResourceManager {
                     "GEO-Resource \"" + resource.getKey() + "\" has already been registered!");
         }
 
+        supplyStore.register(resource);
+
         String key = resource.getKey().getNamespace() + '.' + resource.getKey().getKey();
         boolean enabled = config.getOrSetDefault(key + ".enabled", true);
 
@@ -95,6 +100,10 @@ public class ResourceManager {
      * This method returns the amount of a certain {@link GEOResource} found in a given {@link Chunk}.
      * The result is an {@link OptionalInt} which will be empty if this {@link GEOResource}
      * has not been generated at that {@link Location} yet.
+     * <p>
+     * This never loads the {@link Chunk}. If the supplies are not cached yet, they are read from the database
+     * on the current thread, use {@link #areSuppliesLoaded(World, int, int)} to check whether this is the case.
+     * Prefer {@link #getSuppliesAsync(GEOResource, World, int, int)}.
      *
      * @param resource
      *            The {@link GEOResource} to query
@@ -111,42 +120,112 @@ public class ResourceManager {
         Validate.notNull(resource, "Cannot get supplies for null");
         Validate.notNull(world, "World must not be null");
 
-        String key = resource.getKey().toString().replace(':', '-');
-        var chunkData = Slimefun.getDatabaseManager().getBlockDataController().getChunkData(world.getChunkAt(x, z));
-        if (chunkData == null) {
-            return OptionalInt.empty();
-        }
-        String value = chunkData.getData(key);
+        return supplyStore.read(world, x, z).get(supplyStore.indexOf(resource));
+    }
 
-        if (value != null) {
-            return OptionalInt.of(Integer.parseInt(value));
-        } else {
-            return OptionalInt.empty();
-        }
+    /**
+     * This method returns the amount of a certain {@link GEOResource} found in a given {@link Chunk}
+     * without blocking or loading that {@link Chunk}.
+     * The supplies of the neighbouring chunks are read in the same batch.
+     *
+     * @param resource
+     *            The {@link GEOResource} to query
+     * @param world
+     *            The {@link World} of this {@link Location}
+     * @param x
+     *            The {@link Chunk} x coordinate
+     * @param z
+     *            The {@link Chunk} z coordinate
+     *
+     * @return A {@link CompletableFuture} of an {@link OptionalInt}, which is empty if this {@link GEOResource}
+     *         has not been generated yet
+     */
+    public @Nonnull CompletableFuture<OptionalInt> getSuppliesAsync(
+            @Nonnull GEOResource resource, @Nonnull World world, int x, int z) {
+        Validate.notNull(resource, "Cannot get supplies for null");
+        Validate.notNull(world, "World must not be null");
+
+        int index = supplyStore.indexOf(resource);
+        return supplyStore.load(world, x, z).thenApply(supplies -> supplies.get(index));
     }
 
     public void getSuppliesAsync(GEOResource resource, Chunk chunk, IAsyncReadCallback<Integer> callback) {
-        Slimefun.getDatabaseManager().getBlockDataController().getChunkDataAsync(chunk, new IAsyncReadCallback<>() {
-            @Override
-            public boolean runOnMainThread() {
-                return callback.runOnMainThread();
-            }
+        getSuppliesAsync(resource, chunk.getWorld(), chunk.getX(), chunk.getZ())
+                .thenAccept(supplies -> {
+                    Runnable runnable = supplies.isPresent()
+                            ? () -> callback.onResult(supplies.getAsInt())
+                            : callback::onResultNotFound;
+
+                    if (callback.runOnMainThread()) {
+                        Slimefun.runSync(runnable);
+                    } else {
+                        runnable.run();
+                    }
+                });
+    }
 
-            @Override
-            public void onResult(SlimefunChunkData result) {
-                String value = result.getData(resource.getKey().toString().replace(':', '-'));
-                if (value == null) {
-                    callback.onResultNotFound();
-                } else {
-                    callback.onResult(Integer.parseInt(value));
-                }
-            }
+    /**
+     * This checks whether the supplies of the given {@link Chunk} are cached,
+     * so that {@link #getSupplies(GEOResource, World, int, int)} will not block.
+     *
+     * @param world
+     *            The {@link World}
+     * @param x
+     *            The {@link Chunk} x coordinate
+     * @param z
+     *            The {@link Chunk} z coordinate
+     *
+     * @return Whether the supplies of this {@link Chunk} are cached
+     */
+    public boolean areSuppliesLoaded(@Nonnull World world, int x, int z) {
+        return supplyStore.getCached(world, x, z) != null;
+    }
 
-            @Override
-            public void onResultNotFound() {
-                callback.onResultNotFound();
-            }
-        });
+    /**
+     * This reads the supplies of the given {@link Chunk} and its neighbours in the background,
+     * without loading any of these chunks.
+     *
+     * @param world
+     *            The {@link World}
+     * @param x
+     *            The {@link Chunk} x coordinate
+     * @param z
+     *            The {@link Chunk} z coordinate
+     *
+     * @return A {@link CompletableFuture} that completes once the supplies of that {@link Chunk} were read
+     */
+    public @Nonnull CompletableFuture<Void> prefetchSupplies(@Nonnull World world, int x, int z) {
+        return supplyStore.load(world, x, z).thenApply(supplies -> null);
+    }
+
+    /**
+     * This removes the cached supplies of the given {@link Chunk}, they will be read from the database again.
+     * This must be called whenever the data of that {@link Chunk} is removed from the database.
+     *
+     * @param world
+     *            The {@link World}
+     * @param x
+     *            The {@link Chunk} x coordinate
+     * @param z
+     *            The {@link Chunk} z coordinate
+     */
+    public void invalidateSupplies(@Nonnull World world, int x, int z) {
+        Validate.notNull(world, "World cannot be null");
+
+        supplyStore.invalidate(world, x, z);
+    }
+
+    /**
+     * This removes the cached supplies of every {@link Chunk} in the given {@link World}.
+     * This must be called whenever the data of that {@link World} is removed from the database.
+     *
+     * @param world
+     *            The {@link World}
+     */
+    public void invalidateSupplies(@Nonnull World world) {
+        Validate.notNull(world, "World cannot be null");
+
+        supplyStore.invalidateWorld(world);
     }
 
     /**
@@ -167,13 +246,11 @@ public class ResourceManager {
         Validate.notNull(resource, "Cannot set supplies for null");
         Validate.notNull(world, "World cannot be null");
 
-        String key = resource.getKey().toString().replace(':', '-');
+        // fix issue 1147 : cached supplies are updated at the current thread to avoid async readwrite on supply numbers
+        supplyStore.set(world, x, z, resource, value);
         Slimefun.getDatabaseManager()
                 .getBlockDataController()
-                .getChunkDataAsync(world.getChunkAt(x, z))
-                // fix issue 1147 : when chunkdata is loaded, this cf method will return completedFuture and data will
-                // be updated at current thread to avoid async readwrite on supply numbers
-                .thenAccept(result -> result.setData(key, String.valueOf(value)));
+                .setChunkData(world, x, z, GEOSupplyStore.getDataKey(resource), String.valueOf(value));
     }
 
     /**
@@ -208,6 +285,10 @@ public class ResourceManager {
          */
         Validate.notNull(biome, "Biome appears to be null for position: " + new BlockPosition(block));
 
+        return generate(resource, world, x, z, biome);
+    }
+
+    private int generate(@Nonnull GEOResource resource, @Nonnull World world, int x, int z, @Nonnull Biome biome) {
         // Make sure the value is not below zero.
         int value = Math.max(0, resource.getDefaultSupply(world.getEnvironment(), biome));
 
@@ -233,6 +314,104 @@ public class ResourceManager {
         return value;
     }
 
+    /**
+     * This method will generate the supplies of every {@link GEOResource} which has not been generated yet
+     * for every {@link Chunk} in the given region, without loading the terrain of these chunks.
+     * <p>
+     * The {@link Biome} of a {@link Chunk} which is not loaded is taken from the {@link BiomeProvider}
+     * of its {@link World} at sea level. Chunks whose {@link Biome} cannot be determined are skipped.
+     * The supplies are generated on the main thread, since a {@link GEOResourceGenerationEvent} is called.
+     *
+     * @param world
+     *            The {@link World}
+     * @param minX
+     *            The lowest {@link Chunk} x coordinate
+     * @param minZ
+     *            The lowest {@link Chunk} z coordinate
+     * @param maxX
+     *            The highest {@link Chunk} x coordinate
+     * @param maxZ
+     *            The highest {@link Chunk} z coordinate
+     *
+     * @return A {@link CompletableFuture} of the amount of generated supply values
+     */
+    public @Nonnull CompletableFuture<Integer> generate(@Nonnull World world, int minX, int minZ, int maxX, int maxZ) {
+        Validate.notNull(world, "World cannot be null");
+        Validate.isTrue(minX <= maxX && minZ <= maxZ, "The minimum coordinates must not exceed the maximum ones");
+
+        List<GEOResource> resources = new ArrayList<>(Slimefun.getRegistry().getGEOResources().values());
+
+        return supplyStore
+                .loadRegion(world, minX, minZ, maxX, maxZ)
+                .thenApplyAsync(
+                        v -> {
+                            int generated = 0;
+
+                            for (int x = minX; x <= maxX; x++) {
+                                for (int z = minZ; z <= maxZ; z++) {
+                                    generated += generate(resources, world, x, z);
+                                }
+                            }
+
+                            return generated;
+                        },
+                        Slimefun::runSync);
+    }
+
+    private int generate(@Nonnull List<GEOResource> resources, @Nonnull World world, int x, int z) {
+        var supplies = supplyStore.getCached(world, x, z);
+
+        if (supplies == null) {
+            // The cache was cleared in the meantime, we cannot tell what has been generated already
+            return 0;
+        }
+
+        Biome biome = null;
+        int generated = 0;
+
+        for (GEOResource resource : resources) {
+            if (supplies.get(supplyStore.indexOf(resource)).isPresent()) {
+                continue;
+            }
+
+            if (biome == null) {
+                biome = getBiome(world, x, z);
+
+                if (biome == null) {
+                    return generated;
+                }
+            }
+
+            generate(resource, world, x, z, biome);
+            generated++;
+        }
+
+        return generated;
+    }
+
+    @Nullable private Biome getBiome(@Nonnull World world, int x, int z) {
+        int blockX = x << 4;
+        int blockZ = z << 4;
+        int y = world.getSeaLevel();
+
+        if (world.isChunkLoaded(x, z)) {
+            return world.getBiome(blockX, y, blockZ);
+        }
+
+        BiomeProvider provider = world.getBiomeProvider();
+
+        if (provider == null) {
+            try {
+                provider = world.vanillaBiomeProvider();
+            } catch (NoSuchMethodError e) {
+                // Only available on Paper, we cannot tell the biome without loading the chunk otherwise
+                return null;
+            }
+        }
+
+        return provider.getBiome(world, blockX, y, blockZ);
+    }
+
     /**
      * This method will start a geo-scan at the given {@link Block} and display the result
      * of that scan to the given {@link Player}.
@@ -258,6 +437,21 @@ public class ResourceManager {
         int x = block.getX() >> 4;
         int z = block.getZ() >> 4;
 
+        if (areSuppliesLoaded(block.getWorld(), x, z)) {
+            openScanResults(p, block, page);
+        } else {
+            prefetchSupplies(block.getWorld(), x, z).thenRun(() -> Slimefun.runSync(() -> {
+                if (p.isOnline()) {
+                    openScanResults(p, block, page);
+                }
+            }));
+        }
+    }
+
+    private void openScanResults(@Nonnull Player p, @Nonnull Block block, int page) {
+        int x = block.getX() >> 4;
+        int z = block.getZ() >> 4;
+
         String title = "&4" + Slimefun.getLocalization().getResourceString(p, "tooltips.results");
         ChestMenu menu = new ChestMenu(title);
 
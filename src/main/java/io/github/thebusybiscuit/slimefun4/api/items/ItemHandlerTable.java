@@ -0,0 +1,97 @@
+package io.github.thebusybiscuit.slimefun4.api.items;
+
+import io.github.thebusybiscuit.slimefun4.api.items.virtual.VirtualItemHandler;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * The {@link ItemHandlerTable} is an immutable snapshot of the {@link ItemHandler ItemHandlers}
+ * of a {@link SlimefunItem}.
+ * <p>
+ * Every {@link ItemHandler} identifier is assigned a global slot once, so looking up
+ * an {@link ItemHandler} is a simple array access instead of a {@link java.util.Map} lookup.
+ * The {@link VirtualItemHandler} of the item is resolved up front as well.
+ *
+ * @see SlimefunItem#callItemHandler(Class, java.util.function.Consumer)
+ *
+ */
+final class ItemHandlerTable {
+
+    private static final AtomicInteger nextSlot = new AtomicInteger();
+
+    private static final ClassValue<Integer> slots = new ClassValue<>() {
+
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return nextSlot.getAndIncrement();
+        }
+    };
+
+    static final ItemHandlerTable EMPTY = new ItemHandlerTable(new ItemHandler[0], null);
+
+    private final ItemHandler[] handlers;
+    private final VirtualItemHandler virtualItemHandler;
+
+    private ItemHandlerTable(@Nonnull ItemHandler[] handlers, @Nullable VirtualItemHandler virtualItemHandler) {
+        this.handlers = handlers;
+        this.virtualItemHandler = virtualItemHandler;
+    }
+
+    /**
+     * This builds a new {@link ItemHandlerTable} from the given {@link ItemHandler ItemHandlers}.
+     *
+     * @param handlers
+     *            The {@link ItemHandler ItemHandlers} of a {@link SlimefunItem}
+     *
+     * @return The {@link ItemHandlerTable}
+     */
+    @Nonnull
+    static ItemHandlerTable of(@Nonnull Collection<ItemHandler> handlers) {
+        if (handlers.isEmpty()) {
+            return EMPTY;
+        }
+
+        ItemHandler[] table = new ItemHandler[0];
+        VirtualItemHandler virtualItemHandler = null;
+
+        for (ItemHandler handler : handlers) {
+            int slot = slots.get(handler.getIdentifier());
+
+            if (slot >= table.length) {
+                ItemHandler[] grown = new ItemHandler[slot + 1];
+                System.arraycopy(table, 0, grown, 0, table.length);
+                table = grown;
+            }
+
+            table[slot] = handler;
+
+            if (virtualItemHandler == null && handler instanceof VirtualItemHandler virtual) {
+                virtualItemHandler = virtual;
+            }
+        }
+
+        return new ItemHandlerTable(table, virtualItemHandler);
+    }
+
+    /**
+     * This returns the {@link ItemHandler} registered for the given identifier.
+     *
+     * @param identifier
+     *            The identifier of the {@link ItemHandler}
+     *
+     * @return The {@link ItemHandler} or null if there is none
+     */
+    @Nullable ItemHandler get(@Nonnull Class<? extends ItemHandler> identifier) {
+        int slot = slots.get(identifier);
+        return slot < handlers.length ? handlers[slot] : null;
+    }
+
+    /**
+     * @return The first {@link VirtualItemHandler} of the item or null if there is none
+     */
+    @Nullable VirtualItemHandler getVirtualItemHandler() {
+        return virtualItemHandler;
+    }
+}
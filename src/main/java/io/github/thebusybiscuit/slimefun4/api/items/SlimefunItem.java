@@ -11,6 +11,7 @@ import io.github.thebusybiscuit.slimefun4.api.exceptions.IncompatibleItemHandler
 import io.github.thebusybiscuit.slimefun4.api.exceptions.MissingDependencyException;
 import io.github.thebusybiscuit.slimefun4.api.exceptions.UnregisteredItemException;
 import io.github.thebusybiscuit.slimefun4.api.exceptions.WrongItemStackException;
+import io.github.thebusybiscuit.slimefun4.api.items.virtual.VirtualItemHandler;
 import io.github.thebusybiscuit.slimefun4.api.player.PlayerProfile;
 import io.github.thebusybiscuit.slimefun4.api.recipes.RecipeType;
 import io.github.thebusybiscuit.slimefun4.api.researches.Research;
@@ -111,6 +112,12 @@ public class SlimefunItem implements Placeable {
     private Optional<String> wikiURL = Optional.empty();
 
     private final OptionalMap<Class<? extends ItemHandler>, ItemHandler> itemHandlers = new OptionalMap<>(HashMap::new);
+
+    /**
+     * A precomputed lookup table of our {@link ItemHandler ItemHandlers}.
+     * This is null if it needs to be built again.
+     */
+    private volatile ItemHandlerTable handlerTable;
     private final Set<ItemSetting<?>> itemSettings = new HashSet<>();
 
     private boolean ticking = false;
@@ -485,6 +492,9 @@ public class SlimefunItem implements Placeable {
                 this.itemHandlers.clear();
             }
 
+            // Our item handlers cannot change anymore, so we can build the lookup table now
+            this.handlerTable = ItemHandlerTable.of(itemHandlers.values());
+
             // Lock the SlimefunItemStack from any accidental manipulations
             if (itemStackTemplate instanceof SlimefunItemStack stack && isItemStackImmutable()) {
                 stack.lock();
@@ -844,6 +854,7 @@ public class SlimefunItem implements Placeable {
 
         for (ItemHandler handler : handlers) {
             itemHandlers.put(handler.getIdentifier(), handler);
+            handlerTable = null;
 
             // Tickers are a special case (at the moment at least)
             if (handler instanceof BlockTicker ticker) {
@@ -1001,11 +1012,11 @@ public class SlimefunItem implements Placeable {
      */
     @ParametersAreNonnullByDefault
     public <T extends ItemHandler> boolean callItemHandler(Class<T> c, Consumer<T> callable) {
-        Optional<ItemHandler> handler = itemHandlers.get(c);
+        ItemHandler handler = getHandlerTable().get(c);
 
-        if (handler.isPresent()) {
+        if (handler != null) {
             try {
-                callable.accept(c.cast(handler.get()));
+                callable.accept(c.cast(handler));
             } catch (Exception | LinkageError x) {
                 error("Could not pass \"" + c.getSimpleName() + "\" for " + toString(), x);
             }
@@ -1016,6 +1027,26 @@ public class SlimefunItem implements Placeable {
         return false;
     }
 
+    /**
+     * This returns the {@link VirtualItemHandler} of this {@link SlimefunItem}, if it has one.
+     *
+     * @return The {@link VirtualItemHandler} or null if this item has none
+     */
+    public @Nullable VirtualItemHandler getVirtualItemHandler() {
+        return getHandlerTable().getVirtualItemHandler();
+    }
+
+    private @Nonnull ItemHandlerTable getHandlerTable() {
+        ItemHandlerTable table = handlerTable;
+
+        if (table == null) {
+            table = ItemHandlerTable.of(itemHandlers.values());
+            handlerTable = table;
+        }
+
+        return table;
+    }
+
     /**
      * This returns whether or not we are scheduling a ticking task for this block.
      *
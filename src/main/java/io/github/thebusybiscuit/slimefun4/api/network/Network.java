@@ -116,6 +116,7 @@ public abstract class Network {
      */
     protected void addLocationToNetwork(@Nonnull Location l) {
         if (connectedLocations.add(l.clone())) {
+            manager.onLocationConnected(this, l);
             markDirty(l);
         }
     }
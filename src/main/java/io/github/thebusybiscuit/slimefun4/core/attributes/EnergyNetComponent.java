@@ -157,14 +157,8 @@ public interface EnergyNetComponent extends ItemAttribute {
             return 0;
         }
 
-        String charge = data.getData("energy-charge");
-
-        if (charge != null) {
-            // parseLong compatible with old int values
-            return Long.parseLong(charge);
-        } else {
-            return 0;
-        }
+        // getLong is compatible with old int values and caches the parsed charge
+        return data.getLong("energy-charge", 0);
     }
 
     @Deprecated
@@ -206,7 +200,7 @@ public interface EnergyNetComponent extends ItemAttribute {
                         return;
                     }
 
-                    blockData.setData("energy-charge", String.valueOf(charge));
+                    blockData.setLong("energy-charge", charge);
 
                     // Update the capacitor texture
                     if (getEnergyComponentType() == EnergyNetComponentType.CAPACITOR) {
@@ -0,0 +1,137 @@
+package io.github.thebusybiscuit.slimefun4.core.commands.subcommands;
+
+import io.github.thebusybiscuit.slimefun4.core.commands.SlimefunCommand;
+import io.github.thebusybiscuit.slimefun4.core.commands.SubCommand;
+import io.github.thebusybiscuit.slimefun4.core.services.backup.BackupEngine;
+import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.ConsoleCommandSender;
+
+/**
+ * This command lists, creates and verifies backups of Slimefun's SQLite databases.
+ * Verifying a backup restores it into a separate directory, the databases in use are never replaced.
+ *
+ * @see BackupEngine
+ */
+class BackupCommand extends SubCommand {
+
+    private static final int MAX_LISTED_BACKUPS = 10;
+
+    @ParametersAreNonnullByDefault
+    BackupCommand(Slimefun plugin, SlimefunCommand cmd) {
+        super(plugin, cmd, "backup", false);
+    }
+
+    @Override
+    protected @Nonnull String getDescription() {
+        return "commands.backup.description";
+    }
+
+    @Override
+    public void onExecute(@Nonnull CommandSender sender, @Nonnull String[] args) {
+        if (!sender.hasPermission("slimefun.command.backup") && !(sender instanceof ConsoleCommandSender)) {
+            Slimefun.getLocalization().sendMessage(sender, "messages.no-permission", true);
+            return;
+        }
+
+        var action = args.length > 1 ? args[1].toLowerCase() : "list";
+
+        switch (action) {
+            case "list" -> listBackups(sender);
+            case "now" -> createBackup(sender, args.length > 2 && args[2].equalsIgnoreCase("full"));
+            case "verify" -> {
+                if (args.length > 2) {
+                    verifyBackup(sender, args[2]);
+                } else {
+                    sendUsage(sender);
+                }
+            }
+            default -> sendUsage(sender);
+        }
+    }
+
+    private void listBackups(@Nonnull CommandSender sender) {
+        var backups = Slimefun.getBackupService().getBackups();
+
+        if (backups.isEmpty()) {
+            Slimefun.getLocalization().sendMessage(sender, "commands.backup.no-backups", true);
+            return;
+        }
+
+        for (var backup : backups.subList(0, Math.min(MAX_LISTED_BACKUPS, backups.size()))) {
+            var type = getType(!BackupEngine.isDelta(backup));
+            Slimefun.getLocalization()
+                    .sendMessage(sender, "commands.backup.list-entry", false, msg -> msg.replace(
+                                    "%name%", backup.getName())
+                            .replace("%type%", type)
+                            .replace("%size%", String.valueOf(backup.length() / 1024)));
+        }
+    }
+
+    private void createBackup(@Nonnull CommandSender sender, boolean full) {
+        Slimefun.getLocalization().sendMessage(sender, "commands.backup.started", true);
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            var report = Slimefun.getBackupService().createBackup(full);
+
+            if (report == null) {
+                reply(sender, "commands.backup.failed", msg -> msg);
+                return;
+            }
+
+            reply(sender, "commands.backup.success", msg -> msg.replace("%name%", report.name())
+                    .replace("%type%", getType(report.full()))
+                    .replace("%size%", String.valueOf(report.size() / 1024))
+                    .replace("%duration%", String.valueOf(report.duration())));
+        });
+    }
+
+    private void verifyBackup(@Nonnull CommandSender sender, @Nonnull String name) {
+        Slimefun.getLocalization()
+                .sendMessage(sender, "commands.backup.verifying", true, msg -> msg.replace("%name%", name));
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                for (var result : Slimefun.getBackupService().restoreAndVerify(name)) {
+                    var database = result.database();
+
+                    if (result.intact()) {
+                        reply(sender, "commands.backup.verified", msg -> msg.replace("%database%", database.getName())
+                                .replace("%path%", database.getPath()));
+                    } else {
+                        reply(sender, "commands.backup.corrupted", msg -> msg.replace("%database%", database.getName())
+                                .replace("%message%", result.message()));
+                    }
+                }
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.WARNING, "还原备份 " + name + " 时出现异常", e);
+                reply(sender, "commands.backup.verify-failed", msg -> msg.replace("%name%", name)
+                        .replace("%message%", String.valueOf(e.getMessage())));
+            }
+        });
+    }
+
+    private void sendUsage(@Nonnull CommandSender sender) {
+        Slimefun.getLocalization()
+                .sendMessage(
+                        sender,
+                        "messages.usage",
+                        true,
+                        msg -> msg.replace("%usage%", "/sf backup [list|now [full]|verify <backup>]"));
+    }
+
+    @ParametersAreNonnullByDefault
+    private void reply(CommandSender sender, String key, UnaryOperator<String> function) {
+        Slimefun.runSync(() -> Slimefun.getLocalization().sendMessage(sender, key, true, function));
+    }
+
+    @Nonnull
+    private String getType(boolean full) {
+        return Slimefun.getLocalization().getMessage(full ? "commands.backup.full" : "commands.backup.delta");
+    }
+}
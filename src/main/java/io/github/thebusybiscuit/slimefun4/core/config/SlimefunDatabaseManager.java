@@ -5,6 +5,7 @@ import com.xzavier0722.mc.plugin.slimefun4.storage.adapter.mysql.MysqlAdapter;
 import com.xzavier0722.mc.plugin.slimefun4.storage.adapter.mysql.MysqlConfig;
 import com.xzavier0722.mc.plugin.slimefun4.storage.adapter.postgresql.PostgreSqlAdapter;
 import com.xzavier0722.mc.plugin.slimefun4.storage.adapter.postgresql.PostgreSqlConfig;
+import com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlcommon.SqlCommonAdapter;
 import com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlite.SqliteAdapter;
 import com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlite.SqliteConfig;
 import com.xzavier0722.mc.plugin.slimefun4.storage.common.DataType;
@@ -17,6 +18,7 @@ import io.github.bakedlibs.dough.config.Config;
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 import java.util.Locale;
 import java.util.logging.Level;
 import javax.annotation.Nullable;
@@ -74,6 +76,20 @@ public class SlimefunDatabaseManager {
                         blockStorageConfig.getInt("delayedWriting.delayedSecond"),
                         blockStorageConfig.getInt("delayedWriting.forceSavePeriod"));
             }
+
+            if (blockStorageConfig.getBoolean("writeJournal.enable")) {
+                plugin.getLogger().log(Level.INFO, "已启用写入合并日志");
+                if (blockStorageConfig.getBoolean("delayedWriting.enable")) {
+                    plugin.getLogger().log(Level.INFO, "方块数据与通用数据将由写入合并日志写入, 不再经过延时写入");
+                }
+                blockDataController.initWriteJournal(plugin, blockStorageConfig.getInt("writeJournal.flushInterval"));
+            }
+
+            var cacheMemoryBudget = blockStorageConfig.getInt("cacheMemoryBudget");
+            if (cacheMemoryBudget > 0) {
+                plugin.getLogger().log(Level.INFO, "已启用方块数据缓存卸载, 内存预算: {0}MB", cacheMemoryBudget);
+                blockDataController.initCacheEviction(plugin, cacheMemoryBudget);
+            }
         } catch (IOException e) {
             plugin.getLogger().log(Level.SEVERE, "加载 Slimefun 方块存储适配器失败", e);
             return;
@@ -155,6 +171,15 @@ public class SlimefunDatabaseManager {
                 }
             }
         }
+
+        applyFetchSize(dataType == DataType.BLOCK_STORAGE ? blockStorageAdapter : profileAdapter, databaseConfig);
+    }
+
+    private void applyFetchSize(IDataSourceAdapter<?> adapter, Config databaseConfig) {
+        var fetchSize = databaseConfig.getInt("readFetchSize");
+        if (fetchSize > 0 && adapter instanceof SqlCommonAdapter<?> sqlAdapter) {
+            sqlAdapter.setFetchSize(fetchSize);
+        }
     }
 
     private int getConnectionPoolSize(StorageType storageType, Config config) {
@@ -201,6 +226,16 @@ public class SlimefunDatabaseManager {
         return ChunkDataLoadMode.valueOf(blockStorageConfig.getString("dataLoadMode"));
     }
 
+    /**
+     * 获取在 {@link ChunkDataLoadMode#LOAD_ON_STARTUP} 模式下需要在开服时加载完成的世界,
+     * 为空时仅优先加载主世界
+     *
+     * @return 优先加载的世界名称
+     */
+    public List<String> getPriorityPreloadWorlds() {
+        return blockStorageConfig.getStringList("priorityPreloadWorlds");
+    }
+
     public StorageType getBlockDataStorageType() {
         return blockDataStorageType;
     }
@@ -227,6 +262,22 @@ public class SlimefunDatabaseManager {
             changed = true;
         }
 
+        if (blockStorageConfig.getString("writeJournal.enable") == null) {
+            blockStorageConfig.setDefaultValue("writeJournal.enable", false);
+            blockStorageConfig.setDefaultValue("writeJournal.flushInterval", 20);
+            changed = true;
+        }
+
+        if (blockStorageConfig.getString("readFetchSize") == null) {
+            blockStorageConfig.setDefaultValue("readFetchSize", SqlCommonAdapter.DEFAULT_FETCH_SIZE);
+            changed = true;
+        }
+
+        if (blockStorageConfig.getString("cacheMemoryBudget") == null) {
+            blockStorageConfig.setDefaultValue("cacheMemoryBudget", 0);
+            changed = true;
+        }
+
         if (changed) blockStorageConfig.save();
     }
 }
@@ -1,5 +1,6 @@
 package io.github.thebusybiscuit.slimefun4.core.networks;
 
+import com.xzavier0722.mc.plugin.slimefun4.storage.util.ConcurrentLongObjectMap;
 import com.xzavier0722.mc.plugin.slimefun4.storage.util.LocationUtils;
 import io.github.bakedlibs.dough.blocks.BlockPosition;
 import io.github.bakedlibs.dough.config.Config;
@@ -11,8 +12,12 @@ import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
 import io.github.thebusybiscuit.slimefun4.implementation.listeners.NetworkListener;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 import javax.annotation.Nonnull;
@@ -20,6 +25,7 @@ import javax.annotation.Nullable;
 import org.apache.commons.lang.Validate;
 import org.bukkit.Location;
 import org.bukkit.Server;
+import org.bukkit.World;
 
 /**
  * The {@link NetworkManager} is responsible for holding all instances of {@link Network}
@@ -48,6 +54,20 @@ public class NetworkManager {
      */
     private final List<Network> networks = new CopyOnWriteArrayList<>();
 
+    /**
+     * A spatial index of every registered {@link Network}.
+     * It maps the packed chunk key of every connected {@link Location} to the
+     * {@link Network Networks} connected to a {@link Location} within that chunk,
+     * so a lookup only has to check the {@link Network Networks} nearby.
+     */
+    private final ConcurrentLongObjectMap<List<Network>> chunkIndex = new ConcurrentLongObjectMap<>(256);
+
+    /**
+     * The chunk keys each {@link Network} is indexed under.
+     * All modifications of our index are guarded by this {@link Map}.
+     */
+    private final Map<Network, Set<Long>> indexedChunks = new HashMap<>();
+
     /**
      * This creates a new {@link NetworkManager} with the given capacity.
      *
@@ -124,7 +144,7 @@ public class NetworkManager {
 
         Validate.notNull(type, "Type must not be null");
 
-        for (Network network : networks) {
+        for (Network network : getNearbyNetworks(l)) {
             if (type.isInstance(network) && network.connectsTo(l)) {
                 return Optional.of(type.cast(network));
             }
@@ -143,7 +163,7 @@ public class NetworkManager {
         Validate.notNull(type, "Type must not be null");
         List<T> list = new ArrayList<>();
 
-        for (Network network : networks) {
+        for (Network network : getNearbyNetworks(l)) {
             if (type.isInstance(network) && network.connectsTo(l)) {
                 list.add(type.cast(network));
             }
@@ -164,7 +184,61 @@ public class NetworkManager {
         Debug.log(
                 TestCase.ENERGYNET, "Registering network @ " + LocationUtils.locationToString(network.getRegulator()));
 
-        networks.add(network);
+        synchronized (indexedChunks) {
+            networks.add(network);
+            indexedChunks.putIfAbsent(network, new HashSet<>());
+            addToIndex(network, network.getRegulator());
+        }
+    }
+
+    /**
+     * This adds the given {@link Location} of a {@link Network} to our spatial index.
+     * It is called whenever a {@link Network} connects to a new {@link Location},
+     * a {@link Network} which is not registered is ignored.
+     *
+     * @param network
+     *            The {@link Network} that is now connected to the given {@link Location}
+     * @param l
+     *            The {@link Location} that was connected
+     */
+    public void onLocationConnected(@Nonnull Network network, @Nonnull Location l) {
+        synchronized (indexedChunks) {
+            addToIndex(network, l);
+        }
+    }
+
+    private void addToIndex(@Nonnull Network network, @Nonnull Location l) {
+        Set<Long> chunks = indexedChunks.get(network);
+        World world = l.getWorld();
+
+        if (chunks == null || world == null) {
+            return;
+        }
+
+        long chunkKey = LocationUtils.packChunkKey(world, l.getBlockX() >> 4, l.getBlockZ() >> 4);
+
+        if (chunks.add(chunkKey)) {
+            List<Network> list = chunkIndex.get(chunkKey);
+
+            if (list == null) {
+                list = new CopyOnWriteArrayList<>();
+                chunkIndex.put(chunkKey, list);
+            }
+
+            list.add(network);
+        }
+    }
+
+    @Nonnull
+    private List<Network> getNearbyNetworks(@Nonnull Location l) {
+        World world = l.getWorld();
+
+        if (world == null) {
+            return Collections.emptyList();
+        }
+
+        List<Network> list = chunkIndex.get(LocationUtils.packChunkKey(world, l.getBlockX() >> 4, l.getBlockZ() >> 4));
+        return list == null ? Collections.emptyList() : list;
     }
 
     /**
@@ -180,7 +254,24 @@ public class NetworkManager {
                 TestCase.ENERGYNET,
                 "Unregistering network @ " + LocationUtils.locationToString(network.getRegulator()));
 
-        networks.remove(network);
+        synchronized (indexedChunks) {
+            networks.remove(network);
+            Set<Long> chunks = indexedChunks.remove(network);
+
+            if (chunks != null) {
+                for (long chunkKey : chunks) {
+                    List<Network> list = chunkIndex.get(chunkKey);
+
+                    if (list != null) {
+                        list.remove(network);
+
+                        if (list.isEmpty()) {
+                            chunkIndex.remove(chunkKey, list);
+                        }
+                    }
+                }
+            }
+        }
     }
 
     /**
@@ -3,19 +3,18 @@ package io.github.thebusybiscuit.slimefun4.core.networks.cargo;
 import com.xzavier0722.mc.plugin.slimefun4.storage.controller.SlimefunBlockData;
 import com.xzavier0722.mc.plugin.slimefun4.storage.util.StorageCacheUtils;
 import com.xzavier0722.mc.plugin.slimefuncomplib.event.cargo.CargoTickEvent;
-import io.github.bakedlibs.dough.common.CommonPatterns;
 import io.github.thebusybiscuit.slimefun4.api.network.Network;
 import io.github.thebusybiscuit.slimefun4.api.network.NetworkComponent;
 import io.github.thebusybiscuit.slimefun4.core.attributes.HologramOwner;
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.logging.Level;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.bukkit.Bukkit;
@@ -46,6 +45,8 @@ public class CargoNet extends AbstractItemNetwork implements HologramOwner {
     private final Set<Location> outputNodes = new HashSet<>();
 
     protected final Map<Location, Integer> roundRobin = new HashMap<>();
+    private volatile CargoRoutingPlan routingPlan;
+    private volatile boolean routingPlanDirty = true;
     private int tickDelayThreshold = 0;
 
     public static @Nullable CargoNet getNetworkFromLocation(@Nonnull Location l) {
@@ -105,6 +106,7 @@ public class CargoNet extends AbstractItemNetwork implements HologramOwner {
     @Override
     public void onClassificationChange(Location l, NetworkComponent from, NetworkComponent to) {
         connectorCache.remove(l);
+        routingPlanDirty = true;
 
         if (from == NetworkComponent.TERMINUS) {
             inputNodes.remove(l);
@@ -121,6 +123,12 @@ public class CargoNet extends AbstractItemNetwork implements HologramOwner {
         }
     }
 
+    @Override
+    public void markCargoNodeConfigurationDirty(@Nonnull Location node) {
+        super.markCargoNodeConfigurationDirty(node);
+        routingPlanDirty = true;
+    }
+
     public void tick(@Nonnull Block b, SlimefunBlockData blockData) {
         if (!regulator.equals(b.getLocation())) {
             updateHologram(b, "&4发现附近有多个货运网络调节机", blockData::isPendingRemove);
@@ -144,8 +152,12 @@ public class CargoNet extends AbstractItemNetwork implements HologramOwner {
             // Reset the internal threshold, so we can start skipping again
             tickDelayThreshold = 0;
 
-            Map<Location, Integer> inputs = mapInputNodes();
-            Map<Integer, List<Location>> outputs = mapOutputNodes();
+            CargoRoutingPlan plan = getRoutingPlan();
+
+            // Listeners of the CargoTickEvent may modify these maps for this tick
+            Map<Location, Integer> inputs = new LinkedHashMap<>(plan.getInputMap());
+            Map<Integer, List<Location>> outputs = new HashMap<>();
+            plan.getOutputMap().forEach((frequency, nodes) -> outputs.put(frequency, new ArrayList<>(nodes)));
 
             if (StorageCacheUtils.getData(b.getLocation(), "visualizer") == null) {
                 display();
@@ -163,102 +175,32 @@ public class CargoNet extends AbstractItemNetwork implements HologramOwner {
                 }
 
                 Slimefun.getProfiler().scheduleEntries(inputs.size() + 1);
-                new CargoNetworkTask(this, inputs, outputs).run();
-            });
-        }
-    }
-
-    private @Nonnull Map<Location, Integer> mapInputNodes() {
-        Map<Location, Integer> inputs = new HashMap<>();
-
-        for (Location node : inputNodes) {
-            int frequency = getFrequency(node);
-
-            if (frequency >= 0 && frequency < 16) {
-                inputs.put(node, frequency);
-            }
-        }
-
-        return inputs;
-    }
-
-    private @Nonnull Map<Integer, List<Location>> mapOutputNodes() {
-        Map<Integer, List<Location>> output = new HashMap<>();
-
-        List<Location> list = new LinkedList<>();
-        int lastFrequency = -1;
-
-        for (Location node : outputNodes) {
-            int frequency = getFrequency(node);
-            if (frequency == -1) {
-                continue;
-            }
-
-            if (frequency != lastFrequency && lastFrequency != -1) {
-                output.merge(lastFrequency, list, (prev, next) -> {
-                    prev.addAll(next);
-                    return prev;
-                });
-
-                list = new LinkedList<>();
-            }
-
-            list.add(node);
-            lastFrequency = frequency;
-        }
-
-        if (!list.isEmpty()) {
-            output.merge(lastFrequency, list, (prev, next) -> {
-                prev.addAll(next);
-                return prev;
+                new CargoNetworkTask(this, plan.withNodes(inputs, outputs)).run();
             });
         }
-
-        return output;
     }
 
     /**
-     * This method returns the frequency a given node is set to.
-     * Should there be invalid data this method it will fall back to zero in
-     * order to preserve the integrity of the {@link CargoNet}.
-     *
-     * @param node
-     *            The {@link Location} of our cargo node
+     * This returns the current {@link CargoRoutingPlan} of this {@link CargoNet}.
+     * The plan is only compiled again after the configuration of a node or the topology of this network changed.
      *
-     * @return The frequency of the given node
+     * @return The current {@link CargoRoutingPlan}
      */
-    private static int getFrequency(@Nonnull Location node) {
-        var data = StorageCacheUtils.getBlock(node);
-        if (data == null) {
-            return -1;
-        }
-
-        if (!data.isDataLoaded()) {
-            StorageCacheUtils.requestLoad(data);
-            return -1;
+    private @Nonnull CargoRoutingPlan getRoutingPlan() {
+        CargoRoutingPlan plan = routingPlan;
+
+        if (plan == null || routingPlanDirty) {
+            // Reset the flag first, so that changes made while compiling are not lost
+            routingPlanDirty = false;
+            plan = CargoRoutingPlan.compile(inputNodes, outputNodes);
+            routingPlan = plan;
+
+            if (!plan.isComplete()) {
+                // Some nodes are still loading, we need to compile this plan again
+                routingPlanDirty = true;
+            }
         }
 
-        String frequency = data.getData("frequency");
-
-        if (frequency == null) {
-            return -1;
-        } else if (!CommonPatterns.NUMERIC.matcher(frequency).matches()) {
-            Slimefun.logger()
-                    .log(
-                            Level.SEVERE,
-                            () -> "Failed to parse a Cargo Node Frequency ("
-                                    + node.getWorld().getName()
-                                    + " - "
-                                    + node.getBlockX()
-                                    + ','
-                                    + node.getBlockY()
-                                    + ','
-                                    + node.getBlockZ()
-                                    + "): "
-                                    + frequency);
-            return -1;
-        } else {
-            return Integer.parseInt(frequency);
-        }
+        return plan;
     }
 }
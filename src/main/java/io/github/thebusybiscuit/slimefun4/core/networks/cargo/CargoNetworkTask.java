@@ -1,23 +1,17 @@
 package io.github.thebusybiscuit.slimefun4.core.networks.cargo;
 
-import com.xzavier0722.mc.plugin.slimefun4.storage.util.StorageCacheUtils;
 import io.github.bakedlibs.dough.blocks.BlockPosition;
 import io.github.thebusybiscuit.slimefun4.api.items.ItemSpawnReason;
 import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItem;
 import io.github.thebusybiscuit.slimefun4.api.items.virtual.VirtualItemHandler.InventoryContext;
 import io.github.thebusybiscuit.slimefun4.core.networks.NetworkManager;
+import io.github.thebusybiscuit.slimefun4.core.networks.cargo.CargoRoutingPlan.InputNode;
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
 import io.github.thebusybiscuit.slimefun4.implementation.SlimefunItems;
 import io.github.thebusybiscuit.slimefun4.utils.SlimefunUtils;
 import io.github.thebusybiscuit.slimefun4.utils.itemstack.ItemStackWrapper;
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Deque;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.logging.Level;
 import javax.annotation.Nullable;
@@ -47,16 +41,14 @@ class CargoNetworkTask implements Runnable {
     private final CargoNet network;
     private final Map<Location, Inventory> inventories = new HashMap<>();
 
-    private final Map<Location, Integer> inputs;
-    private final Map<Integer, List<Location>> outputs;
+    private final CargoRoutingPlan plan;
 
     @ParametersAreNonnullByDefault
-    CargoNetworkTask(CargoNet network, Map<Location, Integer> inputs, Map<Integer, List<Location>> outputs) {
+    CargoNetworkTask(CargoNet network, CargoRoutingPlan plan) {
         this.network = network;
         this.manager = Slimefun.getNetworkManager();
 
-        this.inputs = inputs;
-        this.outputs = outputs;
+        this.plan = plan;
     }
 
     @Override
@@ -69,15 +61,14 @@ class CargoNetworkTask implements Runnable {
              * (Apart from ChestTerminal Buses)
              */
             SlimefunItem inputNode = SlimefunItems.CARGO_INPUT_NODE.getItem();
-            for (Map.Entry<Location, Integer> entry : inputs.entrySet()) {
+            for (InputNode input : plan.getInputs()) {
                 long nodeTimestamp = System.nanoTime();
-                Location input = entry.getKey();
-                Optional<Block> attachedBlock = network.getAttachedBlock(input);
+                Optional<Block> attachedBlock = network.getAttachedBlock(input.location());
 
-                attachedBlock.ifPresent(block -> routeItems(input, block, entry.getValue(), outputs));
+                attachedBlock.ifPresent(block -> routeItems(input, block));
 
                 // This will prevent this timings from showing up for the Cargo Manager
-                timestamp += Slimefun.getProfiler().closeEntry(entry.getKey(), inputNode, nodeTimestamp);
+                timestamp += Slimefun.getProfiler().closeEntry(input.location(), inputNode, nodeTimestamp);
             }
         } catch (Exception | LinkageError x) {
             Slimefun.logger()
@@ -93,9 +84,9 @@ class CargoNetworkTask implements Runnable {
     }
 
     @ParametersAreNonnullByDefault
-    private void routeItems(
-            Location inputNode, Block inputTarget, int frequency, Map<Integer, List<Location>> outputNodes) {
-        ItemStackAndInteger slot = CargoUtils.withdraw(network, inventories, inputNode.getBlock(), inputTarget);
+    private void routeItems(InputNode inputNode, Block inputTarget) {
+        ItemStackAndInteger slot =
+                CargoUtils.withdraw(network, inventories, inputNode.location().getBlock(), inputTarget);
 
         if (slot == null) {
             return;
@@ -103,9 +94,9 @@ class CargoNetworkTask implements Runnable {
 
         ItemStack stack = slot.getItem();
         int previousSlot = slot.getInt();
-        List<Location> destinations = outputNodes.get(frequency);
+        Location[] destinations = plan.getOutputs(inputNode.frequency());
 
-        if (destinations != null) {
+        if (destinations.length > 0) {
             stack = distributeItem(stack, inputNode, destinations);
         }
 
@@ -151,71 +142,45 @@ class CargoNetworkTask implements Runnable {
     }
 
     @Nullable @ParametersAreNonnullByDefault
-    private ItemStack distributeItem(ItemStack stack, Location inputNode, List<Location> outputNodes) {
+    private ItemStack distributeItem(ItemStack stack, InputNode inputNode, Location[] outputNodes) {
         ItemStack item = stack;
 
-        var blockData = StorageCacheUtils.getBlock(inputNode);
-        boolean roundrobin = Objects.equals(blockData.getData("round-robin"), "true");
-        boolean smartFill = Objects.equals(blockData.getData("smart-fill"), "true");
-
+        boolean roundrobin = inputNode.roundRobin();
+        int size = outputNodes.length;
         int index = 0;
-        Collection<Location> destinations;
+
         if (roundrobin) {
-            // The current round-robin index of the (unsorted) outputNodes list,
+            // The current round-robin index of the outputNodes array,
             // or the index at which to start searching for valid output nodes
-            index = network.roundRobin.getOrDefault(inputNode, 0);
-            // Use an ArrayDeque to perform round-robin sorting
-            // Since the impl for roundRobinSort just does Deque.addLast(Deque#removeFirst)
-            // An ArrayDequeue is preferable as opposed to a LinkedList:
-            // - The number of elements does not change.
-            // - ArrayDequeue has better iterative performance
-            Deque<Location> tempDestinations = new ArrayDeque<>(outputNodes);
-            roundRobinSort(index, tempDestinations);
-            destinations = tempDestinations;
-        } else {
-            // Using an ArrayList here since we won't need to sort the destinations
-            // The ArrayList has the best performance for iteration bar a primitive array
-            destinations = new ArrayList<>(outputNodes);
+            index = network.roundRobin.getOrDefault(inputNode.location(), 0);
+
+            if (index >= size) {
+                index = 0;
+            }
         }
 
-        for (Location output : destinations) {
+        // Rotate through the array instead of copying and sorting the destinations
+        for (int i = 0; i < size; i++) {
+            Location output = outputNodes[index];
             Optional<Block> target = network.getAttachedBlock(output);
 
+            index = index + 1 < size ? index + 1 : 0;
+
             if (target.isPresent()) {
                 ItemStackWrapper wrapper = ItemStackWrapper.wrap(item);
                 item = CargoUtils.insert(
-                        network, inventories, output.getBlock(), target.get(), smartFill, item, wrapper);
+                        network, inventories, output.getBlock(), target.get(), inputNode.smartFill(), item, wrapper);
 
                 if (item == null) {
                     if (roundrobin) {
                         // The output was valid, set the round robin index to the node after this one
-                        network.roundRobin.put(inputNode, (index + 1) % outputNodes.size());
+                        network.roundRobin.put(inputNode.location(), index);
                     }
                     break;
                 }
             }
-            index++;
         }
 
         return item;
     }
-
-    /**
-     * This method sorts a given {@link Deque} of output node locations using a semi-accurate
-     * round-robin method.
-     *
-     * @param index
-     *            The round-robin index of the input node
-     * @param outputNodes
-     *            A {@link Deque} of {@link Location Locations} of the output nodes
-     */
-    private void roundRobinSort(int index, Deque<Location> outputNodes) {
-        if (index < outputNodes.size()) {
-            // Not ideal but actually not bad performance-wise over more elegant alternatives
-            for (int i = 0; i < index; i++) {
-                Location temp = outputNodes.removeFirst();
-                outputNodes.add(temp);
-            }
-        }
-    }
 }
@@ -0,0 +1,319 @@
+package io.github.thebusybiscuit.slimefun4.core.networks.cargo;
+
+import com.xzavier0722.mc.plugin.slimefun4.storage.controller.SlimefunBlockData;
+import com.xzavier0722.mc.plugin.slimefun4.storage.util.StorageCacheUtils;
+import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.bukkit.Location;
+
+/**
+ * The {@link CargoRoutingPlan} is the compiled configuration of all nodes of a {@link CargoNet}.
+ * <p>
+ * It holds the frequency and mode of every input node and the output nodes of every channel as an array,
+ * so that the {@link CargoNetworkTask} does not have to read any block data while routing items.
+ * A {@link CargoRoutingPlan} is immutable, the {@link CargoNet} compiles a new one whenever
+ * the configuration of a node or the topology of the network changes, or when the nodes were
+ * changed for a single tick by a listener of the {@code CargoTickEvent}.
+ *
+ * @see CargoNet
+ * @see CargoNetworkTask
+ *
+ */
+final class CargoRoutingPlan {
+
+    /**
+     * The amount of channels input nodes can send items on.
+     */
+    private static final int CHANNELS = 16;
+
+    private static final Location[] NO_OUTPUTS = new Location[0];
+
+    private final InputNode[] inputs;
+    private final Location[][] outputs;
+
+    private final Map<Location, Integer> inputMap;
+    private final Map<Integer, List<Location>> outputMap;
+
+    private final boolean complete;
+
+    private CargoRoutingPlan(
+            InputNode[] inputs,
+            Location[][] outputs,
+            Map<Location, Integer> inputMap,
+            Map<Integer, List<Location>> outputMap,
+            boolean complete) {
+        this.inputs = inputs;
+        this.outputs = outputs;
+        this.inputMap = inputMap;
+        this.outputMap = outputMap;
+        this.complete = complete;
+    }
+
+    /**
+     * This compiles a new {@link CargoRoutingPlan} from the given nodes.
+     *
+     * @param inputNodes
+     *            The {@link Location Locations} of all input nodes
+     * @param outputNodes
+     *            The {@link Location Locations} of all output nodes
+     *
+     * @return The compiled {@link CargoRoutingPlan}
+     */
+    @Nonnull
+    @ParametersAreNonnullByDefault
+    static CargoRoutingPlan compile(Collection<Location> inputNodes, Collection<Location> outputNodes) {
+        boolean complete = true;
+
+        var inputs = new ArrayList<InputNode>(inputNodes.size());
+        var inputMap = new LinkedHashMap<Location, Integer>();
+
+        for (Location node : inputNodes) {
+            var data = StorageCacheUtils.getBlock(node);
+
+            if (data == null) {
+                continue;
+            }
+
+            if (!data.isDataLoaded()) {
+                StorageCacheUtils.requestLoad(data);
+                complete = false;
+                continue;
+            }
+
+            int frequency = getFrequency(node, data);
+
+            if (frequency >= 0 && frequency < CHANNELS) {
+                inputs.add(readInputNode(node, frequency, data));
+                inputMap.put(node, frequency);
+            }
+        }
+
+        Map<Integer, List<Location>> outputMap = new HashMap<>();
+
+        for (Location node : outputNodes) {
+            var data = StorageCacheUtils.getBlock(node);
+
+            if (data == null) {
+                continue;
+            }
+
+            if (!data.isDataLoaded()) {
+                StorageCacheUtils.requestLoad(data);
+                complete = false;
+                continue;
+            }
+
+            int frequency = getFrequency(node, data);
+
+            if (frequency >= 0) {
+                outputMap.computeIfAbsent(frequency, k -> new ArrayList<>()).add(node);
+            }
+        }
+
+        return build(inputs, inputMap, outputMap, complete);
+    }
+
+    /**
+     * This returns a {@link CargoRoutingPlan} for the given nodes, which may have been modified
+     * by a listener of the {@code CargoTickEvent}. The modes of input nodes that are part of this plan are kept,
+     * the modes of any other input node are read from its block data.
+     *
+     * @param inputNodes
+     *            Every input node and its frequency
+     * @param outputNodes
+     *            Every frequency and the output nodes listening on it
+     *
+     * @return This plan if the nodes did not change, otherwise a new {@link CargoRoutingPlan}
+     */
+    @Nonnull
+    @ParametersAreNonnullByDefault
+    CargoRoutingPlan withNodes(Map<Location, Integer> inputNodes, Map<Integer, List<Location>> outputNodes) {
+        if (inputMap.equals(inputNodes) && outputMap.equals(outputNodes)) {
+            return this;
+        }
+
+        var known = new HashMap<Location, InputNode>();
+
+        for (InputNode input : inputs) {
+            known.put(input.location(), input);
+        }
+
+        var newInputs = new ArrayList<InputNode>(inputNodes.size());
+        var newInputMap = new LinkedHashMap<Location, Integer>();
+
+        for (var entry : inputNodes.entrySet()) {
+            Location node = entry.getKey();
+            Integer frequency = entry.getValue();
+
+            if (node == null || frequency == null || frequency < 0 || frequency >= CHANNELS) {
+                continue;
+            }
+
+            var input = known.get(node);
+
+            if (input != null) {
+                newInputs.add(new InputNode(node, frequency, input.roundRobin(), input.smartFill()));
+            } else {
+                var data = StorageCacheUtils.getBlock(node);
+
+                if (data == null || !data.isDataLoaded()) {
+                    newInputs.add(new InputNode(node, frequency, false, false));
+                } else {
+                    newInputs.add(readInputNode(node, frequency, data));
+                }
+            }
+
+            newInputMap.put(node, frequency);
+        }
+
+        Map<Integer, List<Location>> newOutputMap = new HashMap<>();
+
+        for (var entry : outputNodes.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null) {
+                newOutputMap.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+            }
+        }
+
+        return build(newInputs, newInputMap, newOutputMap, complete);
+    }
+
+    @Nonnull
+    @ParametersAreNonnullByDefault
+    private static CargoRoutingPlan build(
+            List<InputNode> inputs,
+            Map<Location, Integer> inputMap,
+            Map<Integer, List<Location>> outputMap,
+            boolean complete) {
+        var outputs = new Location[CHANNELS][];
+
+        for (int channel = 0; channel < CHANNELS; channel++) {
+            var list = outputMap.get(channel);
+            outputs[channel] = list == null ? NO_OUTPUTS : list.toArray(new Location[0]);
+        }
+
+        outputMap.replaceAll((frequency, list) -> Collections.unmodifiableList(list));
+
+        return new CargoRoutingPlan(
+                inputs.toArray(new InputNode[0]),
+                outputs,
+                Collections.unmodifiableMap(inputMap),
+                Collections.unmodifiableMap(outputMap),
+                complete);
+    }
+
+    @Nonnull
+    @ParametersAreNonnullByDefault
+    private static InputNode readInputNode(Location node, int frequency, SlimefunBlockData data) {
+        boolean roundRobin = Objects.equals(data.getData("round-robin"), "true");
+        boolean smartFill = Objects.equals(data.getData("smart-fill"), "true");
+
+        return new InputNode(node, frequency, roundRobin, smartFill);
+    }
+
+    /**
+     * @return All input nodes that send items on a valid channel
+     */
+    @Nonnull
+    InputNode[] getInputs() {
+        return inputs;
+    }
+
+    /**
+     * This returns the output nodes that listen on the given channel.
+     * The returned array must not be modified.
+     *
+     * @param frequency
+     *            The channel
+     *
+     * @return The output nodes of this channel, empty if there are none
+     */
+    @Nonnull
+    Location[] getOutputs(int frequency) {
+        return outputs[frequency];
+    }
+
+    /**
+     * @return An immutable {@link Map} of every input node and its frequency
+     */
+    @Nonnull
+    Map<Location, Integer> getInputMap() {
+        return inputMap;
+    }
+
+    /**
+     * @return An immutable {@link Map} of every frequency and the output nodes listening on it
+     */
+    @Nonnull
+    Map<Integer, List<Location>> getOutputMap() {
+        return outputMap;
+    }
+
+    /**
+     * This returns whether the data of every node was available while compiling this plan.
+     * An incomplete plan has to be compiled again once the missing data was loaded.
+     *
+     * @return Whether this plan is complete
+     */
+    boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * This method returns the frequency a given node is set to.
+     * Should there be invalid data this method it will fall back to -1 in
+     * order to preserve the integrity of the {@link CargoNet}.
+     *
+     * @param node
+     *            The {@link Location} of our cargo node
+     * @param data
+     *            The loaded {@link SlimefunBlockData} of this node
+     *
+     * @return The frequency of the given node
+     */
+    @ParametersAreNonnullByDefault
+    private static int getFrequency(Location node, SlimefunBlockData data) {
+        try {
+            int frequency = data.getInt("frequency", -1);
+            return frequency < 0 ? -1 : frequency;
+        } catch (NumberFormatException x) {
+            Slimefun.logger()
+                    .log(
+                            Level.SEVERE,
+                            () -> "Failed to parse a Cargo Node Frequency ("
+                                    + node.getWorld().getName()
+                                    + " - "
+                                    + node.getBlockX()
+                                    + ','
+                                    + node.getBlockY()
+                                    + ','
+                                    + node.getBlockZ()
+                                    + "): "
+                                    + data.getData("frequency"));
+            return -1;
+        }
+    }
+
+    /**
+     * The compiled configuration of a single input node.
+     *
+     * @param location
+     *            The {@link Location} of the input node
+     * @param frequency
+     *            The channel this node sends items on
+     * @param roundRobin
+     *            Whether items are distributed evenly among the output nodes
+     * @param smartFill
+     *            Whether smart fill mode is enabled for this node
+     */
+    record InputNode(@Nonnull Location location, int frequency, boolean roundRobin, boolean smartFill) {}
+}
@@ -13,11 +13,14 @@ import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
 import io.github.thebusybiscuit.slimefun4.utils.SlimefunUtils;
 import io.github.thebusybiscuit.slimefun4.utils.itemstack.ItemStackWrapper;
 import io.github.thebusybiscuit.slimefun4.utils.tags.SlimefunTag;
+import java.util.HashMap;
 import java.util.Map;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import me.mrCookieSlime.Slimefun.api.inventory.BlockMenu;
 import me.mrCookieSlime.Slimefun.api.inventory.DirtyChestMenu;
+import me.mrCookieSlime.Slimefun.api.inventory.MenuSlotIndex;
+import me.mrCookieSlime.Slimefun.api.inventory.MenuSlotIndex.Fingerprint;
 import me.mrCookieSlime.Slimefun.api.item_transport.ItemTransportFlow;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -146,8 +149,14 @@ final class CargoUtils {
         }
 
         ItemStackWrapper wrapperTemplate = ItemStackWrapper.wrap(template);
+        MenuSlotIndex index = menu.getSlotIndex();
+        boolean virtual = index != null && Slimefun.getItemStackService().isVirtualItem(template);
 
         for (int slot : menu.getPreset().getSlotsAccessedByItemTransport(menu, ItemTransportFlow.WITHDRAW, null)) {
+            if (index != null && index.isIncompatible(slot, template.getType(), virtual)) {
+                continue;
+            }
+
             ItemStack is = menu.getItemInSlot(slot);
             if (is == null || is.getType().isAir()) {
                 continue;
@@ -215,12 +224,36 @@ final class CargoUtils {
                 return null;
             }
 
+            MenuSlotIndex index = menu.getSlotIndex();
+            Map<Fingerprint, ItemStack> rejected = null;
+
             for (int slot : menu.getPreset().getSlotsAccessedByItemTransport(menu, ItemTransportFlow.WITHDRAW, null)) {
                 ItemStack is = menu.getItemInSlot(slot);
 
+                if (is == null || is.getType() == Material.AIR) {
+                    continue;
+                }
+
+                Fingerprint fingerprint = index != null ? index.getFingerprint(slot) : null;
+
+                if (fingerprint != null && rejected != null) {
+                    // Items of the same kind were already rejected by the filter, we do not need to test it again
+                    ItemStack previous = rejected.get(fingerprint);
+
+                    if (previous != null && previous.isSimilar(is)) {
+                        continue;
+                    }
+                }
+
                 if (matchesFilter(network, node, is)) {
                     menu.replaceExistingItem(slot, null);
                     return new ItemStackAndInteger(is, slot);
+                } else if (fingerprint != null) {
+                    if (rejected == null) {
+                        rejected = new HashMap<>();
+                    }
+
+                    rejected.put(fingerprint, is);
                 }
             }
         } else if (hasInventory(target)) {
@@ -308,7 +341,15 @@ final class CargoUtils {
             return stack;
         }
 
+        MenuSlotIndex index = menu.getSlotIndex();
+        boolean virtual = index != null && Slimefun.getItemStackService().isVirtualItem(stack);
+
         for (int slot : menu.getPreset().getSlotsAccessedByItemTransport(menu, ItemTransportFlow.INSERT, wrapper)) {
+            if (index != null && index.isIncompatible(slot, stack.getType(), virtual)) {
+                // Skip slots holding a different kind of item without resolving it again
+                continue;
+            }
+
             ItemStack itemInSlot = menu.getItemInSlot(slot);
 
             if (itemInSlot == null || itemInSlot.getType().isAir()) {
@@ -13,8 +13,10 @@ import io.github.thebusybiscuit.slimefun4.implementation.items.cargo.CargoNode;
 import io.github.thebusybiscuit.slimefun4.utils.SlimefunUtils;
 import io.github.thebusybiscuit.slimefun4.utils.itemstack.ItemStackWrapper;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Predicate;
 import javax.annotation.Nonnull;
 import org.bukkit.Material;
@@ -38,6 +40,12 @@ class ItemFilter implements Predicate<ItemStack> {
      */
     private final List<ItemStackWrapper> items = new ArrayList<>(9);
 
+    /**
+     * The {@link Material Materials} of our items.
+     * Items of any other {@link Material} can never match this {@link ItemFilter}.
+     */
+    private Set<Material> materials = EnumSet.noneOf(Material.class);
+
     /**
      * Our default value for this {@link ItemFilter}.
      * A default value of {@literal true} will mean that it returns true if no
@@ -137,13 +145,18 @@ class ItemFilter implements Predicate<ItemStack> {
                     this.checkLore = Objects.equals(data.getData("filter-lore"), "true");
                     this.rejectOnMatch = !Objects.equals(data.getData("filter-type"), "whitelist");
 
+                    Set<Material> types = EnumSet.noneOf(Material.class);
+
                     for (int slot : slots) {
                         ItemStack stack = menu.getItemInSlot(slot);
 
                         if (stack != null && stack.getType() != Material.AIR) {
                             this.items.add(ItemStackWrapper.wrap(stack));
+                            types.add(stack.getType());
                         }
                     }
+
+                    this.materials = types;
                 }
             } catch (Exception | LinkageError x) {
                 item.error("Something went wrong while updating the ItemFilter for this cargo node.", x);
@@ -161,6 +174,7 @@ class ItemFilter implements Predicate<ItemStack> {
      */
     private void clear(boolean rejectOnMatch) {
         this.items.clear();
+        this.materials = EnumSet.noneOf(Material.class);
         this.checkLore = false;
         this.rejectOnMatch = rejectOnMatch;
     }
@@ -196,48 +210,42 @@ class ItemFilter implements Predicate<ItemStack> {
             return rejectOnMatch;
         }
 
-        // The amount of potential matches with that item.
-        int potentialMatches = 0;
-
         /*
          * This is a first check for materials to see if we might even have any match.
          * If there is no potential match then we won't need to perform the quite
          * intense operation .getItemMeta()
          */
+        if (!materials.contains(item.getType())) {
+            // If there is no match, we can safely assume the default value
+            return rejectOnMatch;
+        }
+
+        return matches(item) != rejectOnMatch;
+    }
+
+    private boolean matches(@Nonnull ItemStack item) {
+        // The amount of potential matches with that item.
+        int potentialMatches = 0;
+
         for (ItemStackWrapper stack : items) {
             if (stack.getType() == item.getType()) {
-                // We found a potential match based on the Material
                 potentialMatches++;
             }
         }
 
-        if (potentialMatches == 0) {
-            // If there is no match, we can safely assume the default value
-            return rejectOnMatch;
-        } else {
-            /*
-             * If there is more than one potential match, create a wrapper to save
-             * performance on the ItemMeta otherwise just use the item directly.
-             */
-            ItemStack subject = potentialMatches == 1 ? item : ItemStackWrapper.wrap(item);
-
-            /*
-             * If there is only one match, we won't need to create a Wrapper
-             * and thus only perform .getItemMeta() once
-             */
-            for (ItemStackWrapper stack : items) {
-                if (SlimefunUtils.isItemSimilar(subject, stack, checkLore, false)) {
-                    /*
-                     * The filter has found a match, we can return the opposite
-                     * of our default value. If we exclude items, this is where we
-                     * would return false. Otherwise, we return true.
-                     */
-                    return !rejectOnMatch;
-                }
-            }
+        /*
+         * If there is more than one potential match, create a wrapper to save
+         * performance on the ItemMeta otherwise just use the item directly.
+         */
+        ItemStack subject = potentialMatches == 1 ? item : ItemStackWrapper.wrap(item);
 
-            // If no particular item was matched, we fallback to our default value.
-            return rejectOnMatch;
+        for (ItemStackWrapper stack : items) {
+            if (SlimefunUtils.isItemSimilar(subject, stack, checkLore, false)) {
+                // The filter has found a match
+                return true;
+            }
         }
+
+        return false;
     }
 }
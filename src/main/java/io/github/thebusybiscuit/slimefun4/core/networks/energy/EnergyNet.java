@@ -1,5 +1,6 @@
 package io.github.thebusybiscuit.slimefun4.core.networks.energy;
 
+import com.xzavier0722.mc.plugin.slimefun4.storage.controller.ASlimefunDataContainer;
 import com.xzavier0722.mc.plugin.slimefun4.storage.controller.SlimefunBlockData;
 import com.xzavier0722.mc.plugin.slimefun4.storage.util.StorageCacheUtils;
 import io.github.thebusybiscuit.slimefun4.api.ErrorReport;
@@ -12,9 +13,11 @@ import io.github.thebusybiscuit.slimefun4.core.attributes.HologramOwner;
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
 import io.github.thebusybiscuit.slimefun4.implementation.SlimefunItems;
 import io.github.thebusybiscuit.slimefun4.utils.NumberUtils;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -43,10 +46,22 @@ public class EnergyNet extends Network implements HologramOwner {
 
     private static final int RANGE = 6;
 
+    /**
+     * The amount of ticks after which our {@link NodeGroup NodeGroups} are compiled again,
+     * even if nothing has changed.
+     */
+    private static final int RECOMPILE_INTERVAL = 20;
+
     private final Map<Location, EnergyNetProvider> generators = new HashMap<>();
     private final Map<Location, EnergyNetComponent> capacitors = new HashMap<>();
     private final Map<Location, EnergyNetComponent> consumers = new HashMap<>();
 
+    private NodeGroup<EnergyNetProvider> compiledGenerators;
+    private NodeGroup<EnergyNetComponent> compiledCapacitors;
+    private NodeGroup<EnergyNetComponent> compiledConsumers;
+    private boolean dirty = true;
+    private int ticksSinceCompile = 0;
+
     protected EnergyNet(@Nonnull Location l) {
         super(Slimefun.getNetworkManager(), l);
     }
@@ -109,6 +124,8 @@ public class EnergyNet extends Network implements HologramOwner {
 
     @Override
     public void onClassificationChange(Location l, NetworkComponent from, NetworkComponent to) {
+        dirty = true;
+
         if (from == NetworkComponent.TERMINUS) {
             generators.remove(l);
             consumers.remove(l);
@@ -152,57 +169,49 @@ public class EnergyNet extends Network implements HologramOwner {
             if (connectorNodes.isEmpty() && terminusNodes.isEmpty()) {
                 updateHologram(b, "&4找不到能源网络", blockData::isPendingRemove);
             } else {
+                compileNodes();
+
                 long generatorsSupply = tickAllGenerators(timestamp::getAndAdd);
                 long capacitorsSupply = tickAllCapacitors();
                 long supply = NumberUtils.flowSafeAddition(generatorsSupply, capacitorsSupply);
                 long remainingEnergy = supply;
                 long demand = 0;
 
-                for (Map.Entry<Location, EnergyNetComponent> entry : consumers.entrySet()) {
-                    Location loc = entry.getKey();
+                NodeGroup<EnergyNetComponent> nodes = compiledConsumers;
+                long[] charges = nodes.charges;
+                long[] newCharges = nodes.newCharges;
+                long[] capacities = nodes.capacities;
 
-                    var data = StorageCacheUtils.getDataContainer(loc);
-                    if (data == null || data.isPendingRemove()) {
-                        continue;
-                    }
-
-                    EnergyNetComponent component = entry.getValue();
-                    if (!((SlimefunItem) component).getId().equals(data.getSfId())) {
-                        var newItem = SlimefunItem.getById(data.getSfId());
-                        if (!(newItem instanceof EnergyNetComponent newComponent)
-                                || newComponent.getEnergyComponentType() != EnergyNetComponentType.CONSUMER) {
-                            continue;
-                        }
-                        consumers.put(loc, newComponent);
-                        component = newComponent;
-                    }
-
-                    if (!data.isDataLoaded()) {
-                        StorageCacheUtils.requestLoad(data);
-                        continue;
-                    }
+                for (int i = 0; i < nodes.size; i++) {
+                    var data = nodes.resolve(i);
+                    charges[i] = data == null ? -1 : nodes.getComponent(i).getChargeLong(nodes.locations[i], data);
+                }
 
-                    long capacity = component.getCapacityLong();
-                    long charge = component.getChargeLong(loc);
+                // Distribute the energy over all consumers, this only works on our primitive arrays
+                for (int i = 0; i < nodes.size; i++) {
+                    long charge = charges[i];
+                    newCharges[i] = charge;
 
-                    if (charge < capacity) {
-                        long availableSpace = capacity - charge;
+                    if (charge >= 0 && charge < capacities[i]) {
+                        long availableSpace = capacities[i] - charge;
                         demand = NumberUtils.flowSafeAddition(demand, availableSpace);
 
                         if (remainingEnergy > 0) {
-                            if (remainingEnergy > availableSpace) {
-                                component.setCharge(loc, capacity);
-                                remainingEnergy -= availableSpace;
-                            } else {
-                                long curCharge = NumberUtils.flowSafeAddition(charge, remainingEnergy);
-                                component.setCharge(loc, (long) curCharge);
-
-                                remainingEnergy = 0;
-                            }
+                            long transfer = Math.min(remainingEnergy, availableSpace);
+                            newCharges[i] = charge + transfer;
+                            remainingEnergy -= transfer;
                         }
                     }
                 }
+
+                for (int i = 0; i < nodes.size; i++) {
+                    if (newCharges[i] != charges[i]) {
+                        nodes.getComponent(i).setCharge(nodes.locations[i], newCharges[i]);
+                    }
+                }
+
                 storeRemainingEnergy(remainingEnergy);
+                updateReplacedComponents();
                 updateHologram(blockData, supply, demand);
             }
         } finally {
@@ -212,94 +221,73 @@ public class EnergyNet extends Network implements HologramOwner {
         }
     }
 
-    private void storeRemainingEnergy(long remainingEnergy) {
-        for (Map.Entry<Location, EnergyNetComponent> entry : capacitors.entrySet()) {
-            Location loc = entry.getKey();
-
-            var data = StorageCacheUtils.getDataContainer(loc);
-            if (data == null || data.isPendingRemove() || !data.isDataLoaded()) {
-                continue;
-            }
-
-            EnergyNetComponent component = entry.getValue();
-
-            if (remainingEnergy > 0) {
-                long capacity = component.getCapacityLong();
-
-                if (remainingEnergy > capacity) {
-                    component.setCharge(loc, (long) capacity);
-                    remainingEnergy -= capacity;
-                } else {
-                    component.setCharge(loc, (long) remainingEnergy);
-                    remainingEnergy = 0;
-                }
-            } else {
-                component.setCharge(loc, 0L);
-            }
+    /**
+     * This (re-)compiles our {@link NodeGroup NodeGroups} if any node was added, removed or replaced
+     * since the last tick. The groups are also compiled periodically to drop any stale data container.
+     */
+    private void compileNodes() {
+        if (dirty || ++ticksSinceCompile >= RECOMPILE_INTERVAL) {
+            compiledGenerators = new NodeGroup<>(generators);
+            compiledCapacitors = new NodeGroup<>(capacitors);
+            compiledConsumers = new NodeGroup<>(consumers);
+            dirty = false;
+            ticksSinceCompile = 0;
         }
+    }
+
+    private void storeRemainingEnergy(long remainingEnergy) {
+        remainingEnergy = storeRemainingEnergy(compiledCapacitors, remainingEnergy);
+        storeRemainingEnergy(compiledGenerators, remainingEnergy);
+    }
 
-        for (Map.Entry<Location, EnergyNetProvider> entry : generators.entrySet()) {
-            Location loc = entry.getKey();
+    private long storeRemainingEnergy(@Nonnull NodeGroup<?> nodes, long remainingEnergy) {
+        for (int i = 0; i < nodes.size; i++) {
+            long charge = nodes.charges[i];
 
-            var data = StorageCacheUtils.getDataContainer(loc);
-            if (data == null || data.isPendingRemove() || !data.isDataLoaded()) {
+            // This node could not be resolved during this tick
+            if (charge < 0) {
                 continue;
             }
 
-            EnergyNetProvider component = entry.getValue();
-            long capacity = component.getCapacityLong();
+            long newCharge = Math.min(remainingEnergy, nodes.capacities[i]);
+            remainingEnergy -= newCharge;
 
-            if (remainingEnergy > 0) {
-                if (remainingEnergy > capacity) {
-                    component.setCharge(loc, capacity);
-                    remainingEnergy -= capacity;
-                } else {
-                    component.setCharge(loc, remainingEnergy);
-                    remainingEnergy = 0;
-                }
-            } else {
-                component.setCharge(loc, 0L);
+            if (newCharge != charge) {
+                nodes.getComponent(i).setCharge(nodes.locations[i], newCharge);
             }
         }
+
+        return remainingEnergy;
     }
 
     private long tickAllGenerators(@Nonnull LongConsumer timings) {
+        NodeGroup<EnergyNetProvider> nodes = compiledGenerators;
         Set<Location> explodedBlocks = new HashSet<>();
         long supply = 0;
 
-        for (Map.Entry<Location, EnergyNetProvider> entry : generators.entrySet()) {
+        for (int i = 0; i < nodes.size; i++) {
             long timestamp = Slimefun.getProfiler().newEntry();
-            Location loc = entry.getKey();
-            EnergyNetProvider provider = entry.getValue();
+            Location loc = nodes.locations[i];
+            EnergyNetProvider provider = nodes.getComponent(i);
             SlimefunItem item = (SlimefunItem) provider;
+            nodes.charges[i] = -1;
 
             try {
-                var data = StorageCacheUtils.getDataContainer(loc);
-                if (data == null || data.isPendingRemove()) {
-                    continue;
-                }
-
-                if (!item.getId().equals(data.getSfId())) {
-                    var newItem = SlimefunItem.getById(data.getSfId());
-                    if (!(newItem instanceof EnergyNetProvider newProvider)) {
-                        continue;
-                    }
-                    generators.put(loc, newProvider);
-                    provider = newProvider;
-                }
-
-                if (!data.isDataLoaded()) {
-                    StorageCacheUtils.requestLoad(data);
+                var data = nodes.resolve(i);
+                if (data == null) {
                     continue;
                 }
 
                 long energy = provider.getGeneratedOutputLong(loc, data);
 
                 if (provider.isChargeable()) {
-                    energy = NumberUtils.flowSafeAddition(energy, (long) provider.getChargeLong(loc));
+                    long charge = provider.getChargeLong(loc, data);
+                    nodes.charges[i] = charge;
+                    energy = NumberUtils.flowSafeAddition(energy, charge);
                 }
 
                 if (provider.willExplode(loc, data)) {
+                    nodes.charges[i] = -1;
                     explodedBlocks.add(loc);
                     Slimefun.getDatabaseManager().getBlockDataController().removeBlock(loc);
 
@@ -311,6 +299,7 @@ public class EnergyNet extends Network implements HologramOwner {
                     supply = NumberUtils.flowSafeAddition(supply, energy);
                 }
             } catch (Exception | LinkageError throwable) {
+                nodes.charges[i] = -1;
                 explodedBlocks.add(loc);
                 new ErrorReport<>(throwable, loc, item);
             }
@@ -322,21 +311,69 @@ public class EnergyNet extends Network implements HologramOwner {
         // Remove all generators which have exploded
         if (!explodedBlocks.isEmpty()) {
             generators.keySet().removeAll(explodedBlocks);
+            dirty = true;
         }
 
         return supply;
     }
 
     private long tickAllCapacitors() {
+        NodeGroup<EnergyNetComponent> nodes = compiledCapacitors;
         long supply = 0;
 
-        for (Map.Entry<Location, EnergyNetComponent> entry : capacitors.entrySet()) {
-            supply = NumberUtils.flowSafeAddition(supply, entry.getValue().getChargeLong(entry.getKey()));
+        for (int i = 0; i < nodes.size; i++) {
+            var data = nodes.resolve(i);
+
+            if (data == null) {
+                nodes.charges[i] = -1;
+            } else {
+                nodes.charges[i] = nodes.getComponent(i).getChargeLong(nodes.locations[i], data);
+                supply = NumberUtils.flowSafeAddition(supply, nodes.charges[i]);
+            }
         }
 
         return supply;
     }
 
+    /**
+     * This updates our component {@link Map Maps} for every node whose block was replaced
+     * by a different {@link SlimefunItem} since our nodes were compiled.
+     */
+    private void updateReplacedComponents() {
+        for (Location loc : compiledGenerators.drainReplaced()) {
+            if (getReplacement(loc) instanceof EnergyNetProvider provider) {
+                generators.put(loc, provider);
+            }
+            dirty = true;
+        }
+
+        for (Location loc : compiledCapacitors.drainReplaced()) {
+            EnergyNetComponent component = getReplacement(loc);
+            if (component != null && component.getEnergyComponentType() == EnergyNetComponentType.CAPACITOR) {
+                capacitors.put(loc, component);
+            }
+            dirty = true;
+        }
+
+        for (Location loc : compiledConsumers.drainReplaced()) {
+            EnergyNetComponent component = getReplacement(loc);
+            if (component != null && component.getEnergyComponentType() == EnergyNetComponentType.CONSUMER) {
+                consumers.put(loc, component);
+            }
+            dirty = true;
+        }
+    }
+
+    @Nullable private static EnergyNetComponent getReplacement(@Nonnull Location loc) {
+        var data = StorageCacheUtils.getDataContainer(loc);
+
+        if (data != null && SlimefunItem.getById(data.getSfId()) instanceof EnergyNetComponent component) {
+            return component;
+        }
+
+        return null;
+    }
+
     private void updateHologram(@Nonnull SlimefunBlockData data, double supply, double demand) {
         if (demand > supply) {
             String netLoss = NumberUtils.getCompactDouble(demand - supply);
@@ -395,4 +432,93 @@ public class EnergyNet extends Network implements HologramOwner {
             return network;
         }
     }
+
+    /**
+     * A compiled group of nodes of this {@link EnergyNet}.
+     * The nodes are stored in parallel arrays, together with their resolved data containers,
+     * their capacities and the charges of the current tick.
+     *
+     * @param <T>
+     *            The type of component in this group
+     */
+    private static final class NodeGroup<T extends EnergyNetComponent> {
+
+        private final int size;
+        private final Location[] locations;
+        private final EnergyNetComponent[] components;
+        private final ASlimefunDataContainer[] containers;
+        private final long[] capacities;
+        private final long[] charges;
+        private final long[] newCharges;
+        private final List<Location> replaced = new ArrayList<>(0);
+
+        private NodeGroup(@Nonnull Map<Location, T> nodes) {
+            size = nodes.size();
+            locations = new Location[size];
+            components = new EnergyNetComponent[size];
+            containers = new ASlimefunDataContainer[size];
+            capacities = new long[size];
+            charges = new long[size];
+            newCharges = new long[size];
+
+            int i = 0;
+            for (Map.Entry<Location, T> entry : nodes.entrySet()) {
+                locations[i] = entry.getKey();
+                components[i] = entry.getValue();
+                capacities[i] = Math.max(0, entry.getValue().getCapacityLong());
+                i++;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private T getComponent(int i) {
+            return (T) components[i];
+        }
+
+        /**
+         * This returns the data container of the node at the given index.
+         * The container is only looked up again if the cached one is being removed.
+         *
+         * @return The data container, or null if this node should be skipped for this tick
+         */
+        @Nullable private ASlimefunDataContainer resolve(int i) {
+            ASlimefunDataContainer data = containers[i];
+
+            if (data == null || data.isPendingRemove()) {
+                data = StorageCacheUtils.getDataContainer(locations[i]);
+
+                if (data == null || data.isPendingRemove()) {
+                    containers[i] = null;
+                    return null;
+                }
+
+                // The block was replaced by a different item, our maps need to be updated
+                if (!((SlimefunItem) components[i]).getId().equals(data.getSfId())) {
+                    containers[i] = null;
+                    replaced.add(locations[i]);
+                    return null;
+                }
+
+                containers[i] = data;
+            }
+
+            if (!data.isDataLoaded()) {
+                StorageCacheUtils.requestLoad(data);
+                return null;
+            }
+
+            return data;
+        }
+
+        @Nonnull
+        private List<Location> drainReplaced() {
+            if (replaced.isEmpty()) {
+                return Collections.emptyList();
+            }
+
+            List<Location> list = new ArrayList<>(replaced);
+            replaced.clear();
+            return list;
+        }
+    }
 }
@@ -1,7 +1,9 @@
 package io.github.thebusybiscuit.slimefun4.core.services;
 
+import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItem;
 import io.github.thebusybiscuit.slimefun4.api.player.PlayerProfile;
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+import io.github.thebusybiscuit.slimefun4.implementation.items.androids.ProgrammableAndroid;
 import java.util.Iterator;
 import java.util.logging.Level;
 import javax.annotation.Nonnull;
@@ -31,6 +33,7 @@ public class AutoSavingService {
         this.interval = interval;
 
         plugin.getServer().getScheduler().runTaskTimer(plugin, this::saveAllPlayers, 2000L, interval * 60L * 20L);
+        plugin.getServer().getScheduler().runTaskTimer(plugin, this::saveAllAndroids, 2000L, interval * 60L * 20L);
         plugin.getServer()
                 .getScheduler()
                 .runTaskTimerAsynchronously(
@@ -48,6 +51,19 @@ public class AutoSavingService {
                         interval * 60L * 20L);
     }
 
+    /**
+     * This method writes the execution state of every loaded {@link ProgrammableAndroid}
+     * back to its block data, so it is saved together with the remaining block data.
+     * This must be called from the main thread.
+     */
+    public void saveAllAndroids() {
+        for (SlimefunItem item : Slimefun.getRegistry().getEnabledSlimefunItems()) {
+            if (item instanceof ProgrammableAndroid android) {
+                android.saveStates();
+            }
+        }
+    }
+
     /**
      * This method saves every {@link PlayerProfile} in memory and removes profiles
      * that were marked for deletion.
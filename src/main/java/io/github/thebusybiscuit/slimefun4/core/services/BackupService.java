@@ -1,25 +1,24 @@
 package io.github.thebusybiscuit.slimefun4.core.services;
 
 import com.xzavier0722.mc.plugin.slimefun4.storage.controller.StorageType;
+import io.github.thebusybiscuit.slimefun4.core.services.backup.BackupEngine;
+import io.github.thebusybiscuit.slimefun4.core.services.backup.BackupEngine.BackupReport;
+import io.github.thebusybiscuit.slimefun4.core.services.backup.BackupEngine.RestoreResult;
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Arrays;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 import java.util.logging.Level;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 import javax.annotation.Nonnull;
-import org.apache.commons.lang.Validate;
+import javax.annotation.Nullable;
 
 /**
- * This Service creates a Backup of your Slimefun world data on every server shutdown.
+ * This Service creates a Backup of your Slimefun world data on every server shutdown
+ * and, if configured, periodically while the server is running.
+ * <p>
+ * Backups are consistent snapshots of the SQLite databases, see {@link BackupEngine}.
  *
  * @author TheBusyBiscuit
  *
@@ -32,117 +31,151 @@ public class BackupService implements Runnable {
     private static final int MAX_BACKUPS = 20;
 
     /**
-     * Our {@link DateTimeFormatter} for formatting file names.
+     * The amount of backups after which a full backup is created by default
      */
-    private final DateTimeFormatter format = DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm", Locale.ROOT);
+    private static final int DEFAULT_FULL_INTERVAL = 6;
+
+    /**
+     * The directory in which the databases are stored
+     */
+    private final File dataDirectory = new File("data-storage/Slimefun");
 
     /**
      * The directory in which to create the backups
      */
-    private final File directory = new File("data-storage/Slimefun/block-backups");
+    private final File directory = new File(dataDirectory, "block-backups");
 
-    @Override
-    public void run() {
-        var dbManager = Slimefun.getDatabaseManager();
-        if (dbManager.getProfileStorageType() != StorageType.SQLITE
-                && dbManager.getBlockDataStorageType() != StorageType.SQLITE) {
-            return;
-        }
-        // Make sure that the directory exists.
-        if (directory.exists()) {
-            List<File> backups = Arrays.asList(directory.listFiles());
-
-            if (backups.size() > MAX_BACKUPS) {
-                try {
-                    purgeBackups(backups);
-                } catch (IOException e) {
-                    Slimefun.logger().log(Level.WARNING, "无法删除旧备份文件", e);
-                }
-            }
+    private volatile BackupEngine engine = new BackupEngine(directory, DEFAULT_FULL_INTERVAL);
+    private volatile BackupReport lastReport;
 
-            File file = new File(directory, format.format(LocalDateTime.now()) + ".zip");
-
-            if (!file.exists()) {
-                try {
-                    if (file.createNewFile()) {
-                        try (ZipOutputStream output = new ZipOutputStream(new FileOutputStream(file))) {
-                            createBackup(output);
-                        }
-
-                        Slimefun.logger().log(Level.INFO, "已备份 Slimefun 数据至: {0}", file.getName());
-                    } else {
-                        Slimefun.logger().log(Level.WARNING, "无法创建备份文件: {0}", file.getName());
-                    }
-                } catch (IOException x) {
-                    Slimefun.logger()
-                            .log(
-                                    Level.SEVERE,
-                                    x,
-                                    () -> "An Exception occurred while creating a backup for Slimefun "
-                                            + Slimefun.getVersion());
-                }
-            }
+    /**
+     * This method starts the {@link BackupService}.
+     *
+     * @param plugin
+     *            The current instance of Slimefun
+     * @param interval
+     *            The interval in minutes in which to create backups, 0 to only create them on shutdown
+     * @param fullInterval
+     *            Every n-th backup is a full backup, the others only contain the changes since then
+     */
+    public void start(@Nonnull Slimefun plugin, int interval, int fullInterval) {
+        engine = new BackupEngine(directory, fullInterval > 0 ? fullInterval : DEFAULT_FULL_INTERVAL);
+        Slimefun.getProfiler().registerStatusReporter("backup", this::getStatus);
+
+        if (interval > 0) {
+            long period = interval * 60L * 20L;
+            plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this, period, period);
         }
     }
 
-    private void createBackup(@Nonnull ZipOutputStream output) throws IOException {
-        Validate.notNull(output, "The Output Stream cannot be null!");
+    @Override
+    public void run() {
+        createBackup(false);
+    }
 
-        if (Slimefun.getDatabaseManager().getProfileStorageType() == StorageType.SQLITE) {
-            addFile(output, new File("data-storage/Slimefun", "profile.db"), "");
-        }
+    /**
+     * This creates a new backup of all SQLite databases used by Slimefun.
+     *
+     * @param forceFull
+     *            Whether to create a full backup
+     *
+     * @return The {@link BackupReport} or null if no backup was created
+     */
+    @Nullable public BackupReport createBackup(boolean forceFull) {
+        var databases = getDatabases();
 
-        if (Slimefun.getDatabaseManager().getBlockDataStorageType() == StorageType.SQLITE) {
-            addFile(output, new File("data-storage/Slimefun", "block-storage.db"), "");
+        if (databases.isEmpty()) {
+            return null;
         }
-    }
 
-    private void addFile(ZipOutputStream output, File file, String path) throws IOException {
-        var entry = new ZipEntry(path + "/" + file.getName());
-        output.putNextEntry(entry);
+        try {
+            engine.purge(MAX_BACKUPS);
+        } catch (IOException e) {
+            Slimefun.logger().log(Level.WARNING, "无法删除旧备份文件", e);
+        }
 
-        byte[] buffer = new byte[4096];
-        try (var input = new FileInputStream(file)) {
-            int length;
+        try {
+            var report = engine.backup(databases, forceFull);
 
-            while ((length = input.read(buffer)) > 0) {
-                output.write(buffer, 0, length);
+            if (report == null) {
+                return null;
             }
-        }
-        output.closeEntry();
-    }
 
-    private void addDirectory(@Nonnull ZipOutputStream output, @Nonnull File directory, @Nonnull String zipPath)
-            throws IOException {
-        for (File file : directory.listFiles()) {
-            addFile(output, file, zipPath);
+            lastReport = report;
+            Slimefun.logger().log(Level.INFO, "已备份 Slimefun 数据至: {0} ({1}, 大小 {2}KB, 数据库 {3}KB, 耗时 {4}ms)", new Object[] {
+                report.name(),
+                report.full() ? "完整备份" : "增量备份",
+                report.size() / 1024,
+                report.databaseSize() / 1024,
+                report.duration()
+            });
+            return report;
+        } catch (IOException | SQLException | RuntimeException x) {
+            Slimefun.logger()
+                    .log(
+                            Level.SEVERE,
+                            x,
+                            () -> "An Exception occurred while creating a backup for Slimefun " + Slimefun.getVersion());
+            return null;
         }
     }
 
     /**
-     * This method will delete old backups.
+     * This restores the given backup into a separate directory and checks its integrity.
+     *
+     * @param name
+     *            The file name of the backup
      *
-     * @param backups
-     *            The {@link List} of all backups
+     * @return A {@link RestoreResult} for every database in the backup
      *
      * @throws IOException
-     *             An {@link IOException} is thrown if a {@link File} could not be deleted
+     *             If the backup could not be restored
+     * @throws SQLException
+     *             If a restored database could not be opened
      */
-    private void purgeBackups(@Nonnull List<File> backups) throws IOException {
-        var matchedBackup = backups.stream()
-                .filter(f -> f.getName().matches("^\\d{4}-\\d{2}-\\d{2}-\\d{2}-\\d{2}$"))
-                .sorted((a, b) -> {
-                    LocalDateTime time1 = LocalDateTime.parse(
-                            a.getName().substring(0, a.getName().length() - 4), format);
-                    LocalDateTime time2 = LocalDateTime.parse(
-                            b.getName().substring(0, b.getName().length() - 4), format);
-
-                    return time2.compareTo(time1);
-                })
-                .toList();
-
-        for (int i = matchedBackup.size() - MAX_BACKUPS; i > 0; i--) {
-            Files.delete(matchedBackup.get(i).toPath());
+    @Nonnull
+    public List<RestoreResult> restoreAndVerify(@Nonnull String name) throws IOException, SQLException {
+        return engine.restoreAndVerify(name);
+    }
+
+    /**
+     * @return All backups, newest first
+     */
+    @Nonnull
+    public List<File> getBackups() {
+        return engine.listBackups();
+    }
+
+    @Nonnull
+    private List<File> getDatabases() {
+        var dbManager = Slimefun.getDatabaseManager();
+        var databases = new ArrayList<File>();
+
+        if (dbManager.getProfileStorageType() == StorageType.SQLITE) {
+            databases.add(new File(dataDirectory, "profile.db"));
+        }
+
+        if (dbManager.getBlockDataStorageType() == StorageType.SQLITE) {
+            databases.add(new File(dataDirectory, "block-storage.db"));
+        }
+
+        return databases;
+    }
+
+    @Nonnull
+    private String getStatus() {
+        var report = lastReport;
+
+        if (report == null) {
+            return "本次运行期间暂无备份";
         }
+
+        return String.format(
+                "上次备份 %s (%s), 大小 %dKB, 数据库 %dKB, 耗时 %dms",
+                report.name(),
+                report.full() ? "完整备份" : "增量备份",
+                report.size() / 1024,
+                report.databaseSize() / 1024,
+                report.duration());
     }
 }
@@ -2,6 +2,7 @@ package io.github.thebusybiscuit.slimefun4.core.services;
 
 import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItem;
 import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItemStack;
+import io.github.thebusybiscuit.slimefun4.utils.itemstack.ItemStackWrapper;
 import java.util.Optional;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -27,11 +28,34 @@ import org.bukkit.plugin.Plugin;
  */
 public class CustomItemDataService implements Keyed {
 
+    /**
+     * This caches whether the persistent data of an {@link ItemStack} class can be read without
+     * going through {@link ItemStack#getItemMeta()}. Subclasses which override {@link ItemStack#getItemMeta()},
+     * like our {@link ItemStackWrapper}, need to be read through their {@link ItemMeta}.
+     */
+    private static final ClassValue<Boolean> DIRECT_READ = new ClassValue<>() {
+
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                Class<?> owner = type.getMethod("getItemMeta").getDeclaringClass();
+                return owner == ItemStack.class || owner.getName().startsWith("org.bukkit.craftbukkit");
+            } catch (NoSuchMethodException x) {
+                return false;
+            }
+        }
+    };
+
     /**
      * This is the {@link NamespacedKey} used to store/read data.
      */
     private final NamespacedKey namespacedKey;
 
+    /**
+     * Whether this server supports reading persistent data directly from an {@link ItemStack}.
+     */
+    private volatile boolean directReadSupported = true;
+
     /**
      * This creates a new {@link CustomItemDataService} for the given {@link Plugin} and the
      * provided data key.
@@ -97,7 +121,22 @@ public class CustomItemDataService implements Keyed {
      * @return An {@link Optional} describing the result
      */
     public @Nonnull Optional<String> getItemData(@Nullable ItemStack item) {
-        if (item == null || item.getType() == Material.AIR || !item.hasItemMeta()) {
+        if (item == null || item.getType() == Material.AIR) {
+            return Optional.empty();
+        }
+
+        if (directReadSupported && DIRECT_READ.get(item.getClass())) {
+            try {
+                // This reads the data without creating a copy of the whole ItemMeta
+                var container = item.getPersistentDataContainer();
+                return Optional.ofNullable(container.get(namespacedKey, PersistentDataType.STRING));
+            } catch (NoSuchMethodError x) {
+                // Older versions of Paper do not support this yet
+                directReadSupported = false;
+            }
+        }
+
+        if (!item.hasItemMeta()) {
             return Optional.empty();
         }
 
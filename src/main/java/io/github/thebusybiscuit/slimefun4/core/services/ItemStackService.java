@@ -2,7 +2,6 @@ package io.github.thebusybiscuit.slimefun4.core.services;
 
 import io.github.bakedlibs.dough.inventory.InvUtils;
 import io.github.bakedlibs.dough.items.ItemUtils;
-import io.github.thebusybiscuit.slimefun4.api.items.ItemHandler;
 import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItem;
 import io.github.thebusybiscuit.slimefun4.api.items.virtual.VirtualItemHandler;
 import io.github.thebusybiscuit.slimefun4.api.items.virtual.VirtualItemHandler.AdmissionResult;
@@ -16,7 +15,6 @@ import io.github.thebusybiscuit.slimefun4.utils.SlimefunUtils;
 import io.github.thebusybiscuit.slimefun4.utils.itemstack.ItemStackWrapper;
 import java.util.Arrays;
 import java.util.Map;
-import java.util.Optional;
 import java.util.function.Predicate;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -364,15 +362,9 @@ public final class ItemStackService {
             return null;
         }
 
-        Optional<ItemHandler> opt = sfItem.getHandlers().stream()
-                .filter(h -> h instanceof VirtualItemHandler)
-                .findFirst();
-        if (opt.isEmpty()) {
-            return null;
-        }
-
-        VirtualItemHandler handler = (VirtualItemHandler) opt.get();
-        if (!handler.isVirtualItem(item)) {
+        // This was resolved when the item was registered
+        VirtualItemHandler handler = sfItem.getVirtualItemHandler();
+        if (handler == null || !handler.isVirtualItem(item)) {
             return null;
         }
 
@@ -0,0 +1,465 @@
+package io.github.thebusybiscuit.slimefun4.core.services.backup;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.apache.commons.lang.Validate;
+
+/**
+ * The {@link BackupEngine} creates backups of SQLite databases while they are in use.
+ * <p>
+ * Every backup starts from a consistent snapshot taken with the online backup API of SQLite.
+ * This copies the database page by page, so a page keeps its number from one snapshot to the next,
+ * unlike {@code VACUUM} which rewrites the whole page layout. A full backup stores the whole snapshot,
+ * the backups in between only store the pages that changed since the last full backup.
+ * Any backup can therefore be restored from at most two files.
+ *
+ * @see PageIndex
+ *
+ */
+public class BackupEngine {
+
+    private static final String FULL_SUFFIX = ".zip";
+    private static final String DELTA_TAG = "-delta";
+    private static final String DELTA_SUFFIX = DELTA_TAG + FULL_SUFFIX;
+    private static final String DELTA_ENTRY_SUFFIX = ".delta";
+    private static final String DELTA_MAGIC = "SFDELTA";
+    private static final int DELTA_VERSION = 1;
+    private static final char SEQUENCE_SEPARATOR = '_';
+    private static final Pattern BACKUP_NAME = Pattern.compile("^\\d{4}-\\d{2}-\\d{2}-\\d{2}-\\d{2}(-\\d{2})?("
+            + SEQUENCE_SEPARATOR
+            + "\\d+)?("
+            + DELTA_TAG
+            + ")?\\.zip$");
+
+    private final DateTimeFormatter format = DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss", Locale.ROOT);
+
+    private final File directory;
+    private final File indexDirectory;
+    private final File tempDirectory;
+    private final File restoreDirectory;
+    private final int fullInterval;
+
+    /**
+     * This creates a new {@link BackupEngine}.
+     *
+     * @param directory
+     *            The directory in which to create the backups
+     * @param fullInterval
+     *            Every n-th backup is a full backup, 1 disables differential backups
+     */
+    public BackupEngine(@Nonnull File directory, int fullInterval) {
+        Validate.notNull(directory, "The backup directory cannot be null!");
+        Validate.isTrue(fullInterval > 0, "The full backup interval must be greater than 0!");
+
+        this.directory = directory;
+        this.indexDirectory = new File(directory, "index");
+        this.tempDirectory = new File(directory, "tmp");
+        this.restoreDirectory = new File(directory, "restore");
+        this.fullInterval = fullInterval;
+    }
+
+    /**
+     * This creates a new backup of the given databases.
+     *
+     * @param databases
+     *            The SQLite databases to back up, missing files are skipped
+     * @param forceFull
+     *            Whether to create a full backup even if a differential one would suffice
+     *
+     * @return A {@link BackupReport} or null if no backup was created
+     *
+     * @throws IOException
+     *             If the backup could not be written
+     * @throws SQLException
+     *             If a snapshot could not be taken
+     */
+    @Nullable public synchronized BackupReport backup(@Nonnull List<File> databases, boolean forceFull)
+            throws IOException, SQLException {
+        long start = System.nanoTime();
+        var name = nextName();
+
+        Files.createDirectories(indexDirectory.toPath());
+        Files.createDirectories(tempDirectory.toPath());
+
+        var snapshots = new LinkedHashMap<String, File>();
+
+        try {
+            for (File database : databases) {
+                if (!database.isFile()) {
+                    continue;
+                }
+
+                var snapshot = new File(tempDirectory, database.getName());
+                Files.deleteIfExists(snapshot.toPath());
+                SqliteDatabases.copyPages(database, snapshot);
+                snapshots.put(database.getName(), snapshot);
+            }
+
+            if (snapshots.isEmpty()) {
+                return null;
+            }
+
+            var current = new LinkedHashMap<String, PageIndex>();
+            var previous = new LinkedHashMap<String, PageIndex>();
+            var changedPages = new LinkedHashMap<String, List<Integer>>();
+            boolean full = forceFull;
+            long changedBytes = 0;
+            long totalBytes = 0;
+
+            for (var entry : snapshots.entrySet()) {
+                var index = PageIndex.compute(entry.getValue(), name + FULL_SUFFIX);
+                var base = PageIndex.read(getIndexFile(entry.getKey()));
+                current.put(entry.getKey(), index);
+                totalBytes += entry.getValue().length();
+
+                if (base == null
+                        || base.getPageSize() != index.getPageSize()
+                        || base.getDeltas() + 1 >= fullInterval
+                        || !new File(directory, base.getBaseName()).isFile()) {
+                    full = true;
+                } else {
+                    var changed = base.diff(index);
+                    previous.put(entry.getKey(), base);
+                    changedPages.put(entry.getKey(), changed);
+                    changedBytes += (long) changed.size() * index.getPageSize();
+                }
+            }
+
+            // A differential backup that is not much smaller than a full one is not worth it
+            if (changedBytes * 2 > totalBytes) {
+                full = true;
+            }
+
+            var file = new File(directory, name + (full ? FULL_SUFFIX : DELTA_SUFFIX));
+            var temp = new File(tempDirectory, file.getName());
+
+            try (var output = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                for (var entry : snapshots.entrySet()) {
+                    if (full) {
+                        output.putNextEntry(new ZipEntry("/" + entry.getKey()));
+                        Files.copy(entry.getValue().toPath(), output);
+                    } else {
+                        output.putNextEntry(new ZipEntry("/" + entry.getKey() + DELTA_ENTRY_SUFFIX));
+                        writeDelta(
+                                output,
+                                previous.get(entry.getKey()),
+                                current.get(entry.getKey()),
+                                entry.getValue(),
+                                changedPages.get(entry.getKey()));
+                    }
+                    output.closeEntry();
+                }
+            }
+
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+
+            for (var entry : current.entrySet()) {
+                var index = full ? entry.getValue() : previous.get(entry.getKey()).withDelta();
+                index.write(getIndexFile(entry.getKey()));
+            }
+
+            long duration = (System.nanoTime() - start) / 1_000_000;
+            return new BackupReport(file.getName(), full, file.length(), totalBytes, duration);
+        } finally {
+            for (File snapshot : snapshots.values()) {
+                Files.deleteIfExists(snapshot.toPath());
+            }
+        }
+    }
+
+    /**
+     * This restores the given backup into a separate directory and checks the integrity of every
+     * restored database. The databases in use are never touched.
+     *
+     * @param name
+     *            The file name of the backup
+     *
+     * @return A {@link RestoreResult} for every database in the backup
+     *
+     * @throws IOException
+     *             If the backup could not be read or restored
+     * @throws SQLException
+     *             If a restored database could not be opened
+     */
+    @Nonnull
+    public synchronized List<RestoreResult> restoreAndVerify(@Nonnull String name) throws IOException, SQLException {
+        var file = new File(directory, name);
+
+        if (!BACKUP_NAME.matcher(name).matches() || !file.isFile()) {
+            throw new IOException("Unknown backup: " + name);
+        }
+
+        var target = new File(restoreDirectory, name.substring(0, name.indexOf('.')));
+        deleteDirectory(target);
+        Files.createDirectories(target.toPath());
+
+        var restored = new ArrayList<File>();
+
+        try (var zip = new ZipFile(file)) {
+            for (var entry : zip.stream().toList()) {
+                var entryName = entry.getName().substring(entry.getName().lastIndexOf('/') + 1);
+
+                if (entryName.endsWith(DELTA_ENTRY_SUFFIX)) {
+                    var databaseName = entryName.substring(0, entryName.length() - DELTA_ENTRY_SUFFIX.length());
+                    var database = new File(target, databaseName);
+                    try (var input = new DataInputStream(zip.getInputStream(entry))) {
+                        applyDelta(input, database);
+                    }
+                    restored.add(database);
+                } else {
+                    var database = new File(target, entryName);
+                    try (var input = zip.getInputStream(entry)) {
+                        Files.copy(input, database.toPath());
+                    }
+                    restored.add(database);
+                }
+            }
+        }
+
+        var results = new ArrayList<RestoreResult>();
+        for (File database : restored) {
+            var integrity = SqliteDatabases.checkIntegrity(database);
+            results.add(new RestoreResult(database, "ok".equalsIgnoreCase(integrity), integrity));
+        }
+        return results;
+    }
+
+    /**
+     * This deletes the oldest backups until at most the given amount remains.
+     * A full backup is only deleted together with all differential backups that depend on it,
+     * and the most recent full backup is always kept.
+     *
+     * @param maxBackups
+     *            The maximum amount of backups to keep
+     *
+     * @throws IOException
+     *             If a backup could not be deleted
+     */
+    public synchronized void purge(int maxBackups) throws IOException {
+        var backups = listBackups();
+        Collections.reverse(backups);
+
+        // Group the backups into sets of one full backup and its differential backups
+        var sets = new ArrayList<List<File>>();
+        for (File backup : backups) {
+            if (sets.isEmpty() || !isDelta(backup)) {
+                sets.add(new ArrayList<>());
+            }
+            sets.get(sets.size() - 1).add(backup);
+        }
+
+        int remaining = backups.size();
+        while (remaining > maxBackups && sets.size() > 1) {
+            var set = sets.remove(0);
+            for (File backup : set) {
+                Files.delete(backup.toPath());
+            }
+            remaining -= set.size();
+        }
+    }
+
+    /**
+     * @return All backups in the backup directory, newest first
+     */
+    @Nonnull
+    public List<File> listBackups() {
+        var files = directory.listFiles((dir, fileName) -> BACKUP_NAME.matcher(fileName).matches());
+
+        if (files == null) {
+            return new ArrayList<>();
+        }
+
+        var backups = new ArrayList<>(Arrays.asList(files));
+        backups.sort(Comparator.comparing(BackupEngine::getTimestamp)
+                .thenComparingInt(BackupEngine::getSequence)
+                .reversed());
+        return backups;
+    }
+
+    /**
+     * @param backup
+     *            A backup file
+     *
+     * @return Whether the backup is a differential backup
+     */
+    public static boolean isDelta(@Nonnull File backup) {
+        return backup.getName().endsWith(DELTA_SUFFIX);
+    }
+
+    @ParametersAreNonnullByDefault
+    private void writeDelta(ZipOutputStream zip, PageIndex base, PageIndex index, File snapshot, List<Integer> pages)
+            throws IOException {
+        // The stream must stay open for the following zip entries
+        var output = new DataOutputStream(zip);
+        int pageSize = index.getPageSize();
+        var page = new byte[pageSize];
+
+        output.writeUTF(DELTA_MAGIC);
+        output.writeInt(DELTA_VERSION);
+        output.writeUTF(base.getBaseName());
+        output.writeInt(pageSize);
+        output.writeInt(index.getPageCount());
+        output.writeInt(pages.size());
+
+        try (var input = new RandomAccessFile(snapshot, "r")) {
+            for (int pageNumber : pages) {
+                input.seek((long) pageNumber * pageSize);
+                input.readFully(page);
+                output.writeInt(pageNumber);
+                output.write(page);
+            }
+        }
+
+        output.flush();
+    }
+
+    @ParametersAreNonnullByDefault
+    private void applyDelta(DataInputStream input, File database) throws IOException {
+        if (!DELTA_MAGIC.equals(input.readUTF()) || input.readInt() != DELTA_VERSION) {
+            throw new IOException("Not a valid differential backup: " + database.getName());
+        }
+
+        var baseName = input.readUTF();
+        int pageSize = input.readInt();
+        int pageCount = input.readInt();
+        int changedPages = input.readInt();
+        var base = new File(directory, baseName);
+
+        if (!base.isFile()) {
+            throw new IOException("The full backup " + baseName + " of this differential backup is missing");
+        }
+
+        try (var zip = new ZipFile(base)) {
+            var entry = zip.getEntry("/" + database.getName());
+
+            if (entry == null) {
+                throw new IOException("The full backup " + baseName + " does not contain " + database.getName());
+            }
+
+            try (var baseInput = zip.getInputStream(entry)) {
+                Files.copy(baseInput, database.toPath());
+            }
+        }
+
+        var page = new byte[pageSize];
+        try (var output = new RandomAccessFile(database, "rw")) {
+            output.setLength((long) pageCount * pageSize);
+
+            for (int i = 0; i < changedPages; i++) {
+                int pageNumber = input.readInt();
+                input.readFully(page);
+                output.seek((long) pageNumber * pageSize);
+                output.write(page);
+            }
+        }
+    }
+
+    /**
+     * This returns the name for a new backup, several backups within the same second get a sequence number.
+     *
+     * @return The name of the new backup without its suffix
+     */
+    @Nonnull
+    private String nextName() {
+        var timestamp = format.format(LocalDateTime.now());
+        var name = timestamp;
+
+        for (int sequence = 1; exists(name); sequence++) {
+            name = timestamp + SEQUENCE_SEPARATOR + sequence;
+        }
+
+        return name;
+    }
+
+    private boolean exists(@Nonnull String name) {
+        return new File(directory, name + FULL_SUFFIX).exists() || new File(directory, name + DELTA_SUFFIX).exists();
+    }
+
+    @Nonnull
+    private File getIndexFile(@Nonnull String database) {
+        return new File(indexDirectory, database + ".idx");
+    }
+
+    @Nonnull
+    private static String getTimestamp(@Nonnull File backup) {
+        var name = getStem(backup);
+        int separator = name.indexOf(SEQUENCE_SEPARATOR);
+        return separator < 0 ? name : name.substring(0, separator);
+    }
+
+    private static int getSequence(@Nonnull File backup) {
+        var name = getStem(backup);
+        int separator = name.indexOf(SEQUENCE_SEPARATOR);
+        return separator < 0 ? 0 : Integer.parseInt(name.substring(separator + 1));
+    }
+
+    @Nonnull
+    private static String getStem(@Nonnull File backup) {
+        var name = backup.getName();
+        return name.substring(0, name.indexOf('.')).replace(DELTA_TAG, "");
+    }
+
+    private static void deleteDirectory(@Nonnull File directory) throws IOException {
+        var files = directory.listFiles();
+
+        if (files != null) {
+            for (File file : files) {
+                Files.delete(file.toPath());
+            }
+        }
+
+        Files.deleteIfExists(directory.toPath());
+    }
+
+    /**
+     * The outcome of {@link BackupEngine#backup(List, boolean)}.
+     *
+     * @param name
+     *            The file name of the backup
+     * @param full
+     *            Whether this is a full backup
+     * @param size
+     *            The size of the backup file in bytes
+     * @param databaseSize
+     *            The total size of all database snapshots in bytes
+     * @param duration
+     *            The time it took to create the backup in milliseconds
+     */
+    public record BackupReport(String name, boolean full, long size, long databaseSize, long duration) {}
+
+    /**
+     * The outcome of restoring a single database in {@link BackupEngine#restoreAndVerify(String)}.
+     *
+     * @param database
+     *            The restored database file
+     * @param intact
+     *            Whether the integrity check passed
+     * @param message
+     *            The result of the integrity check
+     */
+    public record RestoreResult(File database, boolean intact, String message) {}
+}
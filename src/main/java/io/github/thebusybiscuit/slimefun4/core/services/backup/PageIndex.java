@@ -0,0 +1,199 @@
+package io.github.thebusybiscuit.slimefun4.core.services.backup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link PageIndex} holds a hash of every page of a database snapshot that was written
+ * to a full backup. Differential backups only store the pages whose hash changed since then.
+ *
+ * @see BackupEngine
+ *
+ */
+final class PageIndex {
+
+    private static final int VERSION = 1;
+
+    private final String baseName;
+    private final int pageSize;
+    private final long[] hashes;
+    private final int deltas;
+
+    private PageIndex(@Nonnull String baseName, int pageSize, @Nonnull long[] hashes, int deltas) {
+        this.baseName = baseName;
+        this.pageSize = pageSize;
+        this.hashes = hashes;
+        this.deltas = deltas;
+    }
+
+    /**
+     * This hashes every page of the given database snapshot.
+     *
+     * @param database
+     *            The snapshot to hash
+     * @param baseName
+     *            The name of the full backup this snapshot will be written to
+     *
+     * @return The {@link PageIndex} of the snapshot
+     *
+     * @throws IOException
+     *             If the snapshot could not be read
+     */
+    @Nonnull
+    static PageIndex compute(@Nonnull File database, @Nonnull String baseName) throws IOException {
+        int pageSize = SqliteDatabases.readPageSize(database);
+        long length = database.length();
+
+        if (length % pageSize != 0) {
+            throw new IOException("Database size is not a multiple of its page size: " + database.getName());
+        }
+
+        long[] hashes = new long[Math.toIntExact(length / pageSize)];
+        var digest = newDigest();
+        var page = new byte[pageSize];
+
+        try (var input = new DataInputStream(new BufferedInputStream(new FileInputStream(database), 1 << 16))) {
+            for (int i = 0; i < hashes.length; i++) {
+                input.readFully(page);
+                hashes[i] = hash(digest, page);
+            }
+        }
+
+        return new PageIndex(baseName, pageSize, hashes, 0);
+    }
+
+    /**
+     * This reads a {@link PageIndex} that was previously written by {@link #write(File)}.
+     *
+     * @param file
+     *            The index file
+     *
+     * @return The {@link PageIndex} or null if there is no usable index
+     */
+    @Nullable static PageIndex read(@Nonnull File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try (var input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != VERSION) {
+                return null;
+            }
+
+            var baseName = input.readUTF();
+            int pageSize = input.readInt();
+            int deltas = input.readInt();
+            long[] hashes = new long[input.readInt()];
+
+            for (int i = 0; i < hashes.length; i++) {
+                hashes[i] = input.readLong();
+            }
+
+            return new PageIndex(baseName, pageSize, hashes, deltas);
+        } catch (IOException e) {
+            // A broken index only means that the next backup has to be a full one
+            return null;
+        }
+    }
+
+    /**
+     * This writes this {@link PageIndex} to the given {@link File}, replacing it atomically.
+     *
+     * @param file
+     *            The index file
+     *
+     * @throws IOException
+     *             If the index could not be written
+     */
+    void write(@Nonnull File file) throws IOException {
+        var temp = new File(file.getParentFile(), file.getName() + ".tmp");
+
+        try (var output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            output.writeInt(VERSION);
+            output.writeUTF(baseName);
+            output.writeInt(pageSize);
+            output.writeInt(deltas);
+            output.writeInt(hashes.length);
+
+            for (long hash : hashes) {
+                output.writeLong(hash);
+            }
+        }
+
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * This returns the pages of the given snapshot that differ from the snapshot this index was built from.
+     *
+     * @param snapshot
+     *            The {@link PageIndex} of a newer snapshot with the same page size
+     *
+     * @return The numbers of all changed or added pages
+     */
+    @Nonnull
+    List<Integer> diff(@Nonnull PageIndex snapshot) {
+        var changed = new ArrayList<Integer>();
+
+        for (int i = 0; i < snapshot.hashes.length; i++) {
+            if (i >= hashes.length || hashes[i] != snapshot.hashes[i]) {
+                changed.add(i);
+            }
+        }
+
+        return changed;
+    }
+
+    /**
+     * @return A copy of this {@link PageIndex} that counts one more differential backup
+     */
+    @Nonnull
+    PageIndex withDelta() {
+        return new PageIndex(baseName, pageSize, hashes, deltas + 1);
+    }
+
+    @Nonnull
+    String getBaseName() {
+        return baseName;
+    }
+
+    int getPageSize() {
+        return pageSize;
+    }
+
+    int getPageCount() {
+        return hashes.length;
+    }
+
+    int getDeltas() {
+        return deltas;
+    }
+
+    private static long hash(@Nonnull MessageDigest digest, @Nonnull byte[] page) {
+        return ByteBuffer.wrap(digest.digest(page)).getLong();
+    }
+
+    @Nonnull
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM", e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.thebusybiscuit.slimefun4.core.services.backup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import javax.annotation.Nonnull;
+
+/**
+ * Low-level helpers for working with SQLite database files.
+ *
+ * @see BackupEngine
+ *
+ */
+final class SqliteDatabases {
+
+    /**
+     * The offset of the page size within the header of a SQLite database file.
+     */
+    private static final int PAGE_SIZE_OFFSET = 16;
+
+    private SqliteDatabases() {}
+
+    /**
+     * This writes a consistent copy of the given database into the target {@link File}.
+     * The database is copied page by page with the online backup API, so every page keeps its number.
+     * The copy is taken inside a read transaction, so other connections may keep writing meanwhile
+     * without causing the copy to start over.
+     *
+     * @param source
+     *            The database to copy
+     * @param target
+     *            The {@link File} to create, it must not exist yet
+     *
+     * @throws SQLException
+     *             If the copy could not be created
+     */
+    static void copyPages(@Nonnull File source, @Nonnull File target) throws SQLException {
+        try (var conn = open(source);
+                var stmt = conn.createStatement()) {
+            conn.setAutoCommit(false);
+
+            try {
+                // Start the read transaction, the copy will be taken from this snapshot
+                stmt.executeQuery("SELECT count(*) FROM sqlite_master").close();
+                stmt.executeUpdate("backup to " + quote(target.getAbsolutePath()));
+            } finally {
+                conn.rollback();
+            }
+        }
+    }
+
+    /**
+     * This runs {@code PRAGMA integrity_check} on the given database.
+     *
+     * @param database
+     *            The database to check
+     *
+     * @return The result of the check, {@code "ok"} if the database is intact
+     *
+     * @throws SQLException
+     *             If the database could not be opened
+     */
+    @Nonnull
+    static String checkIntegrity(@Nonnull File database) throws SQLException {
+        try (var conn = open(database);
+                var stmt = conn.createStatement();
+                var result = stmt.executeQuery("PRAGMA integrity_check")) {
+            var messages = new ArrayList<String>();
+            while (result.next()) {
+                messages.add(result.getString(1));
+            }
+            return String.join("; ", messages);
+        }
+    }
+
+    /**
+     * This reads the page size from the header of a SQLite database file.
+     *
+     * @param database
+     *            The database file
+     *
+     * @return The page size in bytes
+     *
+     * @throws IOException
+     *             If the file could not be read or is not a SQLite database
+     */
+    static int readPageSize(@Nonnull File database) throws IOException {
+        try (var file = new RandomAccessFile(database, "r")) {
+            file.seek(PAGE_SIZE_OFFSET);
+            int pageSize = file.readUnsignedShort();
+
+            // A value of 1 is used for the largest possible page size
+            if (pageSize == 1) {
+                return 65536;
+            }
+
+            if (pageSize < 512 || Integer.bitCount(pageSize) != 1) {
+                throw new IOException("Not a valid SQLite database: " + database.getName());
+            }
+
+            return pageSize;
+        }
+    }
+
+    @Nonnull
+    private static String quote(@Nonnull String path) throws SQLException {
+        if (path.indexOf('\'') < 0) {
+            return '\'' + path + '\'';
+        } else if (path.indexOf('"') < 0) {
+            return '"' + path + '"';
+        } else {
+            throw new SQLException("Cannot back up into a path containing both kinds of quotes: " + path);
+        }
+    }
+
+    @Nonnull
+    private static Connection open(@Nonnull File database) throws SQLException {
+        return DriverManager.getConnection("jdbc:sqlite:" + database.getAbsolutePath());
+    }
+}
@@ -98,6 +98,11 @@ class PerformanceSummary {
         if (sender.isVerbose()) {
             sender.sendMessage("");
             sender.sendMessage(profiler.getThreadPoolStatus());
+
+            String status = profiler.getStatusReport();
+            if (!status.isEmpty()) {
+                sender.sendMessage(status);
+            }
         }
     }
 
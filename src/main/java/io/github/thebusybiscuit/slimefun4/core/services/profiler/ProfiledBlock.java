@@ -49,6 +49,22 @@ final class ProfiledBlock {
         this.item = item;
     }
 
+    /**
+     * This creates a new {@link ProfiledBlock} from a sample recorded by a {@link SampleBuffer}.
+     *
+     * @param world
+     *            The {@link World}
+     * @param position
+     *            The position, as returned by {@link #getLocationAsLong(int, int, int)}
+     * @param item
+     *            The {@link SlimefunItem} found at that position
+     */
+    ProfiledBlock(@Nonnull World world, long position, @Nonnull SlimefunItem item) {
+        this.world = world;
+        this.position = position;
+        this.item = item;
+    }
+
     /**
      * This is just a <strong>dummy</strong> constructor.
      * Please only use this for comparisons or lookups.
@@ -74,7 +90,7 @@ final class ProfiledBlock {
      *
      * @return A {@link Long} representation of this {@link Location}
      */
-    private static long getLocationAsLong(int x, int y, int z) {
+    static long getLocationAsLong(int x, int y, int z) {
         return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (long) (y & 0xFFF);
     }
 
@@ -0,0 +1,129 @@
+package io.github.thebusybiscuit.slimefun4.core.services.profiler;
+
+import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItem;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.annotation.Nonnull;
+import org.bukkit.World;
+
+/**
+ * A {@link SampleBuffer} is a ring buffer of timings samples written by exactly one {@link Thread}
+ * and read by the {@link SlimefunProfiler} at the end of a tick.
+ * <p>
+ * Samples are stored in parallel arrays, so recording a sample never allocates anything.
+ * If the buffer is full, new samples are dropped until it has been drained again.
+ *
+ * @see SlimefunProfiler
+ *
+ */
+final class SampleBuffer {
+
+    private static final int CAPACITY = 1 << 14;
+    private static final int MASK = CAPACITY - 1;
+
+    private final World[] worlds = new World[CAPACITY];
+    private final long[] positions = new long[CAPACITY];
+    private final SlimefunItem[] items = new SlimefunItem[CAPACITY];
+    private final long[] nanos = new long[CAPACITY];
+
+    private final Thread owner;
+
+    /**
+     * The amount of entries the owning {@link Thread} skips before the next sample is recorded.
+     */
+    private int countdown = 0;
+
+    /**
+     * The amount of samples written, only ever written by the owning {@link Thread}.
+     */
+    private volatile long written = 0;
+
+    /**
+     * The amount of samples read, only ever written by the draining {@link Thread}.
+     */
+    private volatile long read = 0;
+
+    private volatile long dropped = 0;
+
+    SampleBuffer(@Nonnull Thread owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * This returns whether the owning {@link Thread} is still alive.
+     * A buffer of a dead {@link Thread} will never receive any new samples.
+     *
+     * @return Whether the owning {@link Thread} is alive
+     */
+    boolean isOwnerAlive() {
+        return owner.isAlive();
+    }
+
+    /**
+     * This checks whether the next entry of the owning {@link Thread} should be recorded.
+     * <p>
+     * Tickers always run in the same order, so a fixed stride would sample the same blocks every tick.
+     * Instead, the gap to the next sample is chosen at random with an average of the sample rate.
+     *
+     * @param sampleRate
+     *            On average, only every n-th entry is recorded
+     *
+     * @return Whether to record this entry
+     */
+    boolean shouldSample(int sampleRate) {
+        if (--countdown > 0) {
+            return false;
+        }
+
+        countdown = sampleRate == 1 ? 1 : ThreadLocalRandom.current().nextInt(1, 2 * sampleRate);
+        return true;
+    }
+
+    /**
+     * This records a sample, may only be called from the owning {@link Thread}.
+     */
+    void record(@Nonnull World world, long position, @Nonnull SlimefunItem item, long elapsedTime) {
+        long w = written;
+
+        if (w - read >= CAPACITY) {
+            dropped++;
+            return;
+        }
+
+        int i = (int) (w & MASK);
+        worlds[i] = world;
+        positions[i] = position;
+        items[i] = item;
+        nanos[i] = elapsedTime;
+
+        // Publishes the sample to the draining thread
+        written = w + 1;
+    }
+
+    /**
+     * This passes every sample recorded so far to the given {@link SampleConsumer}.
+     * Only one {@link Thread} may drain a buffer at a time.
+     */
+    void drain(@Nonnull SampleConsumer consumer) {
+        long r = read;
+        long w = written;
+
+        for (; r < w; r++) {
+            int i = (int) (r & MASK);
+            consumer.accept(worlds[i], positions[i], items[i], nanos[i]);
+            worlds[i] = null;
+            items[i] = null;
+        }
+
+        read = r;
+    }
+
+    long getDropped() {
+        return dropped;
+    }
+
+    @FunctionalInterface
+    interface SampleConsumer {
+
+        void accept(@Nonnull World world, long position, @Nonnull SlimefunItem item, long elapsedTime);
+    }
+}
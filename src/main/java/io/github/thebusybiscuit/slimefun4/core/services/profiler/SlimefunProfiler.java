@@ -23,6 +23,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import javax.annotation.Nonnull;
 import lombok.Getter;
@@ -87,6 +88,33 @@ public class SlimefunProfiler {
 
     private final List<SlimefunPoolExecutor> threadPools = new CopyOnWriteArrayList<>();
 
+    /**
+     * Only every n-th entry is recorded, zero means entries are evaluated on our {@link Thread} pool instead.
+     */
+    @Getter
+    private volatile int sampleRate = 0;
+
+    /**
+     * Every {@link SampleBuffer} of a {@link Thread} that is still alive, one per {@link Thread}.
+     */
+    private final List<SampleBuffer> sampleBuffers = new CopyOnWriteArrayList<>();
+
+    /**
+     * The amount of samples dropped by buffers of {@link Thread Threads} that have died since.
+     */
+    private final AtomicLong retiredDroppedSamples = new AtomicLong();
+
+    private final ThreadLocal<SampleBuffer> localSampleBuffer = ThreadLocal.withInitial(() -> {
+        SampleBuffer buffer = new SampleBuffer(Thread.currentThread());
+        sampleBuffers.add(buffer);
+        return buffer;
+    });
+
+    /**
+     * Additional status lines shown in verbose timings reports, keyed by their source.
+     */
+    private final Map<String, Supplier<String>> statusReporters = new ConcurrentHashMap<>();
+
     private long totalElapsedTime;
 
     private final Map<ProfiledBlock, Long> timings = new ConcurrentHashMap<>();
@@ -115,6 +143,18 @@ public class SlimefunProfiler {
         timings.clear();
     }
 
+    /**
+     * This sets the sample rate of this {@link SlimefunProfiler}.
+     * A positive rate enables the sampling mode, in which entries are recorded into per-thread
+     * buffers and aggregated at the end of a tick, only every n-th entry of a {@link Thread} is recorded.
+     * Zero disables the sampling mode.
+     *
+     * @param sampleRate The sample rate, zero or less disables sampling
+     */
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = Math.max(0, sampleRate);
+    }
+
     /**
      * This method starts a new profiler entry.
      *
@@ -125,7 +165,10 @@ public class SlimefunProfiler {
             return 0;
         }
 
-        queued.incrementAndGet();
+        if (sampleRate == 0) {
+            queued.incrementAndGet();
+        }
+
         return System.nanoTime();
     }
 
@@ -139,7 +182,7 @@ public class SlimefunProfiler {
      * @param amount The amount of entries that should be scheduled. Can be negative
      */
     public void scheduleEntries(int amount) {
-        if (isProfiling) {
+        if (isProfiling && sampleRate == 0) {
             queued.getAndAdd(amount);
         }
     }
@@ -162,6 +205,18 @@ public class SlimefunProfiler {
         }
 
         long elapsedTime = System.nanoTime() - timestamp;
+        int rate = sampleRate;
+
+        if (rate > 0) {
+            SampleBuffer buffer = localSampleBuffer.get();
+
+            if (buffer.shouldSample(rate)) {
+                long position = ProfiledBlock.getLocationAsLong(l.getBlockX(), l.getBlockY(), l.getBlockZ());
+                buffer.record(l.getWorld(), position, item, elapsedTime);
+            }
+
+            return elapsedTime;
+        }
 
         executor.execute(() -> {
             ProfiledBlock block = new ProfiledBlock(l, item);
@@ -185,7 +240,30 @@ public class SlimefunProfiler {
             return;
         }
 
-        executor.execute(this::finishReport);
+        int rate = sampleRate;
+
+        if (rate > 0) {
+            /*
+             * Samples of synchronized tickers which have not run yet
+             * simply end up in the report of the next tick
+             */
+            for (SampleBuffer buffer : sampleBuffers) {
+                // A dead Thread cannot write anymore, so its buffer can be dropped once drained
+                boolean alive = buffer.isOwnerAlive();
+
+                buffer.drain((world, position, item, elapsedTime) ->
+                        timings.merge(new ProfiledBlock(world, position, item), elapsedTime * rate, Long::sum));
+
+                if (!alive) {
+                    sampleBuffers.remove(buffer);
+                    retiredDroppedSamples.addAndGet(buffer.getDropped());
+                }
+            }
+
+            finishReport();
+        } else {
+            executor.execute(this::finishReport);
+        }
     }
 
     public void registerPool(SlimefunPoolExecutor executor) {
@@ -199,6 +277,24 @@ public class SlimefunProfiler {
         threadPools.add(executor);
     }
 
+    /**
+     * This registers a status reporter whose output will be appended to verbose timings reports.
+     * Registering another reporter with the same name replaces the previous one.
+     *
+     * @param name     The name of this reporter
+     * @param reporter The {@link Supplier} of the status text
+     */
+    public void registerStatusReporter(@Nonnull String name, @Nonnull Supplier<String> reporter) {
+        Validate.notNull(name, "The reporter name cannot be null");
+        Validate.notNull(reporter, "Cannot register a null status reporter");
+
+        statusReporters.put(name, reporter);
+    }
+
+    public void unregisterStatusReporter(@Nonnull String name) {
+        statusReporters.remove(name);
+    }
+
     private void finishReport() {
         // We will only wait for a maximum of this many 1ms sleeps
         int iterations = 4000;
@@ -484,6 +580,36 @@ public class SlimefunProfiler {
         return sb.toString();
     }
 
+    public String getStatusReport() {
+        StringBuilder sb = new StringBuilder();
+
+        if (sampleRate > 0) {
+            long dropped = retiredDroppedSamples.get();
+
+            for (SampleBuffer buffer : sampleBuffers) {
+                dropped += buffer.getDropped();
+            }
+
+            sb.append("分析器采样模式: 采样率 1/")
+                    .append(sampleRate)
+                    .append(" | 采样缓冲区 ")
+                    .append(sampleBuffers.size())
+                    .append(" | 累计丢弃样本 ")
+                    .append(dropped)
+                    .append("\n");
+        }
+
+        for (Supplier<String> reporter : statusReporters.values()) {
+            try {
+                sb.append(reporter.get()).append("\n");
+            } catch (Exception e) {
+                Slimefun.logger().log(Level.WARNING, "An error occurred while collecting a status report", e);
+            }
+        }
+
+        return sb.toString();
+    }
+
     public String snapshotThreads() {
         StringBuilder sb = new StringBuilder();
         final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
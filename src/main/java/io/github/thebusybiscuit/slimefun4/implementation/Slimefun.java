@@ -432,6 +432,10 @@ public final class Slimefun extends JavaPlugin implements SlimefunAddon, ICompat
 
         // Starting our tasks
         autoSavingService.start(this, config.getInt("options.auto-save-delay-in-minutes"));
+        if (config.getBoolean("options.backup-data")) {
+            backupService.start(
+                    this, config.getInt("options.backup-interval"), config.getInt("options.backup-full-interval"));
+        }
         hologramsService.start();
         ticker.start(this);
 
@@ -506,6 +510,9 @@ public final class Slimefun extends JavaPlugin implements SlimefunAddon, ICompat
             }
         });
 
+        // Write back the state of androids before the block data is saved
+        autoSavingService.saveAllAndroids();
+
         databaseManager.shutdown();
 
         // Create a new backup zip
@@ -909,6 +916,16 @@ public final class Slimefun extends JavaPlugin implements SlimefunAddon, ICompat
         return instance.blockDataService;
     }
 
+    /**
+     * This returns the {@link BackupService} which creates and restores backups of Slimefun's data.
+     *
+     * @return The {@link BackupService}
+     */
+    public static @Nonnull BackupService getBackupService() {
+        validateInstance();
+        return instance.backupService;
+    }
+
     public static @Nonnull ItemStackService getItemStackService() {
         validateInstance();
         return instance.itemStackService;
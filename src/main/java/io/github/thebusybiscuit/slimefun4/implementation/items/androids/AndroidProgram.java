@@ -0,0 +1,91 @@
+package io.github.thebusybiscuit.slimefun4.implementation.items.androids;
+
+import io.github.bakedlibs.dough.common.CommonPatterns;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * An {@link AndroidProgram} is the compiled form of a {@link ProgrammableAndroid}'s script.
+ * Every distinct script is only split and parsed once, all androids running the same script
+ * share the same immutable {@link AndroidProgram}.
+ *
+ * @see AndroidState
+ *
+ */
+final class AndroidProgram {
+
+    /**
+     * The maximum amount of distinct scripts to keep compiled.
+     * Scripts are usually shared between many androids, so this limit is rarely ever reached.
+     */
+    private static final int MAX_CACHED_PROGRAMS = 1024;
+
+    private static final Map<String, AndroidProgram> programs = new ConcurrentHashMap<>();
+
+    private final String[] tokens;
+    private final Instruction[] instructions;
+
+    private AndroidProgram(@Nonnull String source) {
+        this.tokens = CommonPatterns.DASH.split(source);
+        this.instructions = new Instruction[tokens.length];
+
+        for (int i = 0; i < tokens.length; i++) {
+            instructions[i] = Instruction.getInstruction(tokens[i]);
+        }
+    }
+
+    /**
+     * This returns the compiled {@link AndroidProgram} for the given script.
+     *
+     * @param source
+     *            The script
+     *
+     * @return The {@link AndroidProgram} of that script
+     */
+    @Nonnull
+    static AndroidProgram compile(@Nonnull String source) {
+        var program = programs.get(source);
+
+        if (program == null) {
+            if (programs.size() >= MAX_CACHED_PROGRAMS) {
+                programs.clear();
+            }
+
+            program = programs.computeIfAbsent(source, AndroidProgram::new);
+        }
+
+        return program;
+    }
+
+    /**
+     * @return The amount of instructions in this program, including the START and REPEAT tokens
+     */
+    int size() {
+        return instructions.length;
+    }
+
+    /**
+     * This returns the {@link Instruction} at the given index.
+     *
+     * @param index
+     *            The index of the instruction
+     *
+     * @return The {@link Instruction} or null if the token at this index is not a known {@link Instruction}
+     */
+    @Nullable Instruction getInstruction(int index) {
+        return instructions[index];
+    }
+
+    /**
+     * @param index
+     *            The index of the instruction
+     *
+     * @return The raw token at the given index
+     */
+    @Nonnull
+    String getToken(int index) {
+        return tokens[index];
+    }
+}
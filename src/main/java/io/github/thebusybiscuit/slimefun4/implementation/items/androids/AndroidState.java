@@ -0,0 +1,164 @@
+package io.github.thebusybiscuit.slimefun4.implementation.items.androids;
+
+import com.xzavier0722.mc.plugin.slimefun4.storage.controller.SlimefunUniversalData;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.bukkit.block.BlockFace;
+
+/**
+ * The {@link AndroidState} holds the execution state of a single {@link ProgrammableAndroid}
+ * in typed fields, so that it does not have to be parsed from its block data on every tick.
+ * <p>
+ * The program counter and fuel level are only written back to the block data every few ticks,
+ * when the android is paused and whenever {@link ProgrammableAndroid#saveStates()} is called.
+ * Values that were changed in the block data by anything else are picked up on the next tick.
+ *
+ * @see AndroidProgram
+ *
+ */
+final class AndroidState {
+
+    /**
+     * The amount of executed instructions after which the state is written back to the block data.
+     */
+    private static final int SAVE_INTERVAL = 20;
+
+    private String scriptSource;
+    private AndroidProgram program;
+
+    private String indexSource;
+    private int index;
+
+    private String fuelSource;
+    private float fuel;
+
+    private String rotationSource;
+    private BlockFace facing;
+
+    private int unsavedTicks;
+
+    /**
+     * This reads every value that was changed in the given block data since it was last read or written.
+     * Unchanged values are not parsed again.
+     *
+     * @param data
+     *            The block data of the android
+     * @param defaultScript
+     *            The script to run if the android has none
+     */
+    void sync(@Nonnull SlimefunUniversalData data, @Nonnull String defaultScript) {
+        var script = data.getData("script");
+        if (script != scriptSource || program == null) {
+            scriptSource = script;
+            program = AndroidProgram.compile(script == null ? defaultScript : script);
+        }
+
+        var indexData = data.getData("index");
+        if (indexData != indexSource) {
+            indexSource = indexData;
+            index = parseInt(indexData);
+        }
+
+        var fuelData = data.getData("fuel");
+        if (fuelData != fuelSource) {
+            fuelSource = fuelData;
+            fuel = parseFloat(fuelData);
+        }
+
+        var rotationData = data.getData("rotation");
+        if (rotationData != rotationSource || facing == null) {
+            rotationSource = rotationData;
+            facing = parseFace(rotationData);
+        }
+    }
+
+    /**
+     * This writes the program counter and fuel level back to the block data
+     * if they were changed since the last save.
+     *
+     * @param data
+     *            The block data of the android
+     */
+    void save(@Nonnull SlimefunUniversalData data) {
+        if (unsavedTicks == 0) {
+            return;
+        }
+
+        indexSource = String.valueOf(index);
+        data.setData("index", indexSource);
+
+        fuelSource = String.valueOf(fuel);
+        data.setData("fuel", fuelSource);
+
+        unsavedTicks = 0;
+    }
+
+    /**
+     * This marks the current tick as changed and saves the state once enough ticks have passed.
+     *
+     * @param data
+     *            The block data of the android
+     */
+    void saveLater(@Nonnull SlimefunUniversalData data) {
+        if (++unsavedTicks >= SAVE_INTERVAL) {
+            save(data);
+        }
+    }
+
+    @Nonnull
+    AndroidProgram getProgram() {
+        return program;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    void setIndex(int index) {
+        this.index = index;
+        unsavedTicks = Math.max(unsavedTicks, 1);
+    }
+
+    float getFuel() {
+        return fuel;
+    }
+
+    void setFuel(float fuel) {
+        this.fuel = fuel;
+        unsavedTicks = Math.max(unsavedTicks, 1);
+    }
+
+    @Nonnull
+    BlockFace getFacing() {
+        return facing;
+    }
+
+    private static int parseInt(@Nullable String value) {
+        if (value == null) {
+            return 0;
+        }
+
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException x) {
+            return 0;
+        }
+    }
+
+    private static float parseFloat(@Nullable String value) {
+        if (value == null) {
+            return 0;
+        }
+
+        try {
+            return Float.parseFloat(value);
+        } catch (NumberFormatException x) {
+            return 0;
+        }
+    }
+
+    @Nonnull
+    private static BlockFace parseFace(@Nullable String value) {
+        return value == null ? BlockFace.NORTH : BlockFace.valueOf(value);
+    }
+}
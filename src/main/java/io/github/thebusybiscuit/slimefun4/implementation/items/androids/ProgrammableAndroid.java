@@ -35,9 +35,11 @@ import io.github.thebusybiscuit.slimefun4.utils.SlimefunUtils;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.WeakHashMap;
 import java.util.function.Predicate;
 import java.util.logging.Level;
 import javax.annotation.Nonnull;
@@ -82,6 +84,11 @@ public class ProgrammableAndroid extends SlimefunItem
     private static final int MAX_SCRIPT_LENGTH = 54;
 
     protected final List<MachineFuel> fuelTypes = new ArrayList<>();
+
+    /**
+     * The execution state of every loaded android of this type, only accessed from the main thread.
+     */
+    private final Map<SlimefunUniversalData, AndroidState> states = new WeakHashMap<>();
     protected final String texture;
     private final int tier;
 
@@ -229,10 +236,23 @@ public class ProgrammableAndroid extends SlimefunItem
                     menu.dropItems(b.getLocation(), 43);
                     menu.dropItems(b.getLocation(), getOutputSlots());
                 }
+
+                // The data of this android is removed, its state does not need to be saved anymore
+                states.remove(uniData);
             }
         };
     }
 
+    /**
+     * This writes the execution state of every loaded android of this type back to its block data.
+     * The state is otherwise only written every few instructions, so this must be called before the
+     * block data is saved for good, e.g. when the server shuts down.
+     * This must be called from the main thread.
+     */
+    public void saveStates() {
+        states.forEach((data, state) -> state.save(data));
+    }
+
     /**
      * This returns the {@link AndroidType} that is associated with this {@link ProgrammableAndroid}.
      *
@@ -263,6 +283,9 @@ public class ProgrammableAndroid extends SlimefunItem
     public void preRegister() {
         super.preRegister();
 
+        // Start loading the uploaded scripts in the background
+        ScriptRepository.getInstance();
+
         addItemHandler(new BlockTicker(true) {
 
             @Override
@@ -446,6 +469,18 @@ public class ProgrammableAndroid extends SlimefunItem
     }
 
     protected void openScriptDownloader(Player p, SlimefunUniversalBlockData uniData, int page) {
+        ScriptRepository repository = ScriptRepository.getInstance();
+
+        if (!repository.isLoaded()) {
+            // Open the menu once the scripts were loaded instead of blocking the server
+            repository.whenLoaded(() -> {
+                if (p.isOnline()) {
+                    openScriptDownloader(p, uniData, page);
+                }
+            });
+            return;
+        }
+
         ChestMenu menu = new ChestMenu("机器人脚本");
 
         menu.setEmptySlotsClickable(false);
@@ -545,22 +580,25 @@ public class ProgrammableAndroid extends SlimefunItem
     @ParametersAreNonnullByDefault
     private void uploadScript(Player p, SlimefunUniversalBlockData uniData, int page) {
         String code = getScript(uniData);
-        int nextId = 1;
+        ScriptRepository repository = ScriptRepository.getInstance();
 
-        for (Script script : Script.getUploadedScripts(getAndroidType())) {
-            if (script.isAuthor(p)) {
-                nextId++;
-            }
+        if (!repository.isLoaded()) {
+            repository.whenLoaded(() -> {
+                if (p.isOnline()) {
+                    uploadScript(p, uniData, page);
+                }
+            });
+            return;
+        }
 
-            if (script.getSourceCode().equals(code)) {
-                Slimefun.getLocalization().sendMessage(p, "android.scripts.already-uploaded", true);
-                return;
-            }
+        if (repository.isUploaded(getAndroidType(), code)) {
+            Slimefun.getLocalization().sendMessage(p, "android.scripts.already-uploaded", true);
+            return;
         }
 
         p.closeInventory();
         Slimefun.getLocalization().sendMessages(p, "android.scripts.enter-name");
-        int id = nextId;
+        int id = repository.countScripts(getAndroidType(), p.getUniqueId()) + 1;
 
         ChatInput.waitForPlayer(Slimefun.instance(), p, msg -> {
             Script.upload(p, getAndroidType(), id, msg, code);
@@ -780,75 +818,74 @@ public class ProgrammableAndroid extends SlimefunItem
             return;
         }
 
-        if ("false".equals(data.getData("paused"))) {
-            UniversalMenu menu = data.getMenu();
+        if (!"false".equals(data.getData("paused"))) {
+            AndroidState state = states.get(data);
 
-            String fuelData = data.getData("fuel");
-            float fuel = fuelData == null ? 0 : Float.parseFloat(fuelData);
+            if (state != null) {
+                state.save(data);
+            }
 
-            if (fuel < 0.001) {
-                consumeFuel(b, menu);
-            } else {
-                String code = data.getData("script");
-                String[] script = CommonPatterns.DASH.split(code == null ? DEFAULT_SCRIPT : code);
+            return;
+        }
 
-                String indexData = data.getData("index");
-                int index = (indexData == null ? 0 : Integer.parseInt(indexData)) + 1;
+        AndroidState state = states.computeIfAbsent(data, key -> new AndroidState());
+        state.sync(data, DEFAULT_SCRIPT);
 
-                if (index >= script.length) {
-                    index = 0;
-                }
+        UniversalMenu menu = data.getMenu();
 
-                Instruction instruction = Instruction.getInstruction(script[index]);
+        if (state.getFuel() < 0.001) {
+            consumeFuel(menu, data, state);
+        } else {
+            AndroidProgram program = state.getProgram();
+            int index = state.getIndex() + 1;
 
-                if (instruction == null) {
-                    Slimefun.logger()
-                            .log(
-                                    Level.WARNING,
-                                    "Failed to parse Android instruction: {0}, maybe your server is out of date?",
-                                    script[index]);
-                    return;
-                }
+            if (index >= program.size()) {
+                index = 0;
+            }
 
-                if ("false".equals(data.getData("paused"))) {
-                    executeInstruction(instruction, b, menu, data, index);
+            Instruction instruction = program.getInstruction(index);
 
-                    data.setData("fuel", String.valueOf(fuel - 1));
-                }
+            if (instruction == null) {
+                Slimefun.logger()
+                        .log(
+                                Level.WARNING,
+                                "Failed to parse Android instruction: {0}, maybe your server is out of date?",
+                                program.getToken(index));
+                return;
             }
+
+            executeInstruction(instruction, b, menu, state, index);
+
+            state.setFuel(state.getFuel() - 1);
+            state.saveLater(data);
         }
     }
 
     @ParametersAreNonnullByDefault
     private void executeInstruction(
-            Instruction instruction, Block b, UniversalMenu inv, SlimefunUniversalData data, int index) {
-        if ("true".equals(data.getData("paused"))) {
-            return;
-        }
-
+            Instruction instruction, Block b, UniversalMenu inv, AndroidState state, int index) {
         if (getAndroidType().isType(instruction.getRequiredType())) {
-            String rotationData = data.getData("rotation");
-            BlockFace face = rotationData == null ? BlockFace.NORTH : BlockFace.valueOf(rotationData);
+            BlockFace face = state.getFacing();
 
             switch (instruction) {
                 case START:
                 case WAIT:
                     // We are "waiting" here, so we only move a step forward
-                    data.setData("index", String.valueOf(index));
+                    state.setIndex(index);
                     break;
                 case REPEAT:
                     // "repeat" just means, we reset our index
-                    data.setData("index", String.valueOf(0));
+                    state.setIndex(0);
                     break;
                 case CHOP_TREE:
                     // We only move to the next step if we finished chopping wood
                     if (chopTree(b, inv, face)) {
-                        data.setData("index", String.valueOf(index));
+                        state.setIndex(index);
                     }
                     break;
                 default:
                     // We set the index here in advance to fix moving android issues
-                    data.setData("index", String.valueOf(index));
+                    state.setIndex(index);
                     instruction.execute(this, b, inv, face);
                     break;
             }
@@ -938,7 +975,7 @@ public class ProgrammableAndroid extends SlimefunItem
     }
 
     @ParametersAreNonnullByDefault
-    private void consumeFuel(Block b, UniversalMenu menu) {
+    private void consumeFuel(UniversalMenu menu, SlimefunUniversalData data, AndroidState state) {
         ItemStack item = menu.getItemInSlot(43);
 
         if (item != null && item.getType() != Material.AIR) {
@@ -950,8 +987,8 @@ public class ProgrammableAndroid extends SlimefunItem
                         menu.pushItem(new ItemStack(Material.BUCKET), getOutputSlots());
                     }
 
-                    int fuelLevel = fuel.getTicks();
-                    StorageCacheUtils.setData(b.getLocation(), "fuel", String.valueOf(fuelLevel));
+                    state.setFuel(fuel.getTicks());
+                    state.save(data);
                     break;
                 }
             }
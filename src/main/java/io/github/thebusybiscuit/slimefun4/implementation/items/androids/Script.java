@@ -2,17 +2,13 @@ package io.github.thebusybiscuit.slimefun4.implementation.items.androids;
 
 import io.github.bakedlibs.dough.config.Config;
 import io.github.bakedlibs.dough.items.CustomItemStack;
-import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
 import io.github.thebusybiscuit.slimefun4.utils.ChatUtils;
 import io.github.thebusybiscuit.slimefun4.utils.NumberUtils;
 import java.io.File;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.UUID;
-import java.util.logging.Level;
 import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
 import org.apache.commons.lang.Validate;
@@ -31,7 +27,9 @@ import org.bukkit.inventory.ItemStack;
 public final class Script {
 
     private final Config config;
+    private final AndroidType androidType;
     private final String name;
+    private final UUID authorId;
     private final String author;
     private final String code;
 
@@ -40,11 +38,14 @@ public final class Script {
      *
      * @param config
      *            The {@link Config}
+     * @param androidType
+     *            The {@link AndroidType} this {@link Script} was uploaded for
      */
-    private Script(@Nonnull Config config) {
+    Script(@Nonnull Config config, @Nonnull AndroidType androidType) {
         Validate.notNull(config);
 
         this.config = config;
+        this.androidType = androidType;
         this.name = config.getString("name");
         this.code = config.getString("code");
         String uuid = config.getString("author");
@@ -55,7 +56,8 @@ public final class Script {
         Validate.notNull(config.getStringList("rating.positive"));
         Validate.notNull(config.getStringList("rating.negative"));
 
-        OfflinePlayer player = Bukkit.getOfflinePlayer(UUID.fromString(uuid));
+        this.authorId = UUID.fromString(uuid);
+        OfflinePlayer player = Bukkit.getOfflinePlayer(authorId);
         this.author = player.getName() != null ? player.getName() : config.getString("author_name");
     }
 
@@ -102,7 +104,7 @@ public final class Script {
      * @return Whether the given {@link OfflinePlayer} is the author of this {@link Script}.
      */
     public boolean isAuthor(@Nonnull OfflinePlayer p) {
-        return p.getUniqueId().equals(config.getUUID("author"));
+        return p.getUniqueId().equals(authorId);
     }
 
     /**
@@ -114,7 +116,7 @@ public final class Script {
      *
      * @return Whether the given {@link Player} is able to rate this {@link Script}
      */
-    public boolean canRate(@Nonnull Player p) {
+    public synchronized boolean canRate(@Nonnull Player p) {
         if (isAuthor(p)) {
             return false;
         }
@@ -157,7 +159,7 @@ public final class Script {
      *
      * @return The amount of upvotes
      */
-    public int getUpvotes() {
+    public synchronized int getUpvotes() {
         return config.getStringList("rating.positive").size();
     }
 
@@ -166,7 +168,7 @@ public final class Script {
      *
      * @return The amount of downvotes
      */
-    public int getDownvotes() {
+    public synchronized int getDownvotes() {
         return config.getStringList("rating.negative").size();
     }
 
@@ -175,7 +177,7 @@ public final class Script {
      *
      * @return The amount of downloads for this {@link Script}.
      */
-    public int getDownloads() {
+    public synchronized int getDownloads() {
         return config.getInt("downloads");
     }
 
@@ -195,63 +197,48 @@ public final class Script {
      * This method increases the amount of downloads by one.
      */
     public void download() {
-        config.reload();
-        config.setValue("downloads", getDownloads() + 1);
-        config.save();
+        synchronized (this) {
+            config.setValue("downloads", getDownloads() + 1);
+        }
+
+        ScriptRepository.getInstance().save(this);
     }
 
     public void rate(@Nonnull Player p, boolean positive) {
-        config.reload();
+        synchronized (this) {
+            String path = "rating." + (positive ? "positive" : "negative");
+            List<String> list = config.getStringList(path);
+            list.add(p.getUniqueId().toString());
 
-        String path = "rating." + (positive ? "positive" : "negative");
-        List<String> list = config.getStringList(path);
-        list.add(p.getUniqueId().toString());
+            config.setValue(path, list);
+        }
 
-        config.setValue(path, list);
-        config.save();
+        ScriptRepository.getInstance().save(this);
     }
 
     @Nonnull
-    public static List<Script> getUploadedScripts(@Nonnull AndroidType androidType) {
-        List<Script> scripts = new LinkedList<>();
-
-        loadScripts(scripts, androidType);
+    UUID getAuthorId() {
+        return authorId;
+    }
 
-        if (androidType != AndroidType.NONE) {
-            loadScripts(scripts, AndroidType.NONE);
-        }
+    @Nonnull
+    AndroidType getAndroidType() {
+        return androidType;
+    }
 
-        Collections.sort(scripts, Comparator.comparingInt(script -> -script.getUpvotes() + 1 - script.getDownvotes()));
-        return scripts;
+    @Nonnull
+    Config getConfig() {
+        return config;
     }
 
-    private static void loadScripts(@Nonnull List<Script> scripts, @Nonnull AndroidType type) {
-        File directory = new File("plugins/Slimefun/scripts/" + type.name());
-        if (!directory.exists()) {
-            directory.mkdirs();
-        }
+    @Nonnull
+    File getFile() {
+        return config.getFile();
+    }
 
-        for (File file : directory.listFiles()) {
-            if (file.getName().endsWith(".sfs")) {
-                try {
-                    Config config = new Config(file);
-
-                    // Some older versions somehow allowed null values to slip in here sometimes
-                    // So we need this check for compatibility with older scripts
-                    if (config.contains("code") && config.contains("author")) {
-                        scripts.add(new Script(config));
-                    }
-                } catch (Exception x) {
-                    Slimefun.logger()
-                            .log(
-                                    Level.SEVERE,
-                                    x,
-                                    () -> "An Exception occurred while trying to load Android Script '"
-                                            + file.getName()
-                                            + "'");
-                }
-            }
-        }
+    @Nonnull
+    public static List<Script> getUploadedScripts(@Nonnull AndroidType androidType) {
+        return ScriptRepository.getInstance().getScripts(androidType);
     }
 
     @ParametersAreNonnullByDefault
@@ -267,6 +254,7 @@ public final class Script {
         config.setValue("android", androidType.name());
         config.setValue("rating.positive", new ArrayList<String>());
         config.setValue("rating.negative", new ArrayList<String>());
-        config.save();
+
+        ScriptRepository.getInstance().add(androidType, config);
     }
 }
@@ -0,0 +1,393 @@
+package io.github.thebusybiscuit.slimefun4.implementation.items.androids;
+
+import io.github.bakedlibs.dough.config.Config;
+import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * The {@link ScriptRepository} holds every uploaded {@link Script} in memory.
+ * <p>
+ * The scripts are read from disk once and then kept up to date with a {@link WatchService},
+ * so that opening the script downloader does not have to list and parse every script file again.
+ * Changes to a {@link Script}, like ratings or downloads, are written back in the background.
+ *
+ * @see Script
+ *
+ */
+final class ScriptRepository {
+
+    private static final String FILE_EXTENSION = ".sfs";
+
+    /**
+     * This is the same order the scripts were always sorted in, scripts with more votes come first.
+     */
+    private static final Comparator<Script> ORDER =
+            Comparator.comparingInt(script -> -script.getUpvotes() + 1 - script.getDownvotes());
+
+    private static volatile ScriptRepository instance;
+
+    private final File directory;
+    private final CompletableFuture<Void> loading = new CompletableFuture<>();
+
+    private final Map<File, Script> scripts = new ConcurrentHashMap<>();
+    private final Map<AndroidType, Map<String, Set<File>>> sourceIndex = new EnumMap<>(AndroidType.class);
+    private final Map<AndroidType, List<Script>> sortedViews = new ConcurrentHashMap<>();
+
+    private final Set<Script> pendingSaves = ConcurrentHashMap.newKeySet();
+    private final Map<File, Long> savedFiles = new ConcurrentHashMap<>();
+
+    private ScriptRepository(@Nonnull File directory) {
+        this.directory = directory;
+
+        for (AndroidType type : AndroidType.values()) {
+            sourceIndex.put(type, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * This returns the {@link ScriptRepository}, it starts loading all scripts on first access.
+     *
+     * @return The {@link ScriptRepository}
+     */
+    @Nonnull
+    static ScriptRepository getInstance() {
+        var repository = instance;
+
+        if (repository == null) {
+            synchronized (ScriptRepository.class) {
+                repository = instance;
+
+                if (repository == null) {
+                    repository = new ScriptRepository(new File("plugins/Slimefun/scripts"));
+                    repository.start();
+                    instance = repository;
+                }
+            }
+        }
+
+        return repository;
+    }
+
+    private void start() {
+        Slimefun.getThreadService().newThread(Slimefun.instance(), "ScriptRepository#load", this::run);
+    }
+
+    /**
+     * This returns whether every {@link Script} was read from disk yet.
+     *
+     * @return Whether the scripts were loaded
+     */
+    boolean isLoaded() {
+        return loading.isDone();
+    }
+
+    /**
+     * This runs the given callback on the main thread once every {@link Script} was read from disk.
+     * If the scripts were loaded already, the callback runs right away.
+     *
+     * @param callback
+     *            The callback to run
+     */
+    void whenLoaded(@Nonnull Runnable callback) {
+        if (loading.isDone()) {
+            callback.run();
+        } else {
+            loading.thenRun(() -> Slimefun.runSync(callback));
+        }
+    }
+
+    /**
+     * This returns all scripts that can be used by the given {@link AndroidType}, sorted by their votes.
+     * While the scripts are still being loaded, this only contains the scripts that were loaded so far.
+     *
+     * @param type
+     *            The {@link AndroidType}
+     *
+     * @return An immutable, sorted {@link List} of scripts
+     */
+    @Nonnull
+    List<Script> getScripts(@Nonnull AndroidType type) {
+        return sortedViews.computeIfAbsent(type, this::sort);
+    }
+
+    /**
+     * This checks whether a {@link Script} with the given code was already uploaded
+     * for the given {@link AndroidType}.
+     * While the scripts are still being loaded, only the scripts that were loaded so far are checked.
+     *
+     * @param type
+     *            The {@link AndroidType}
+     * @param code
+     *            The source code of the {@link Script}
+     *
+     * @return Whether such a {@link Script} exists
+     */
+    boolean isUploaded(@Nonnull AndroidType type, @Nonnull String code) {
+        if (!sourceIndex.get(type).getOrDefault(code, Set.of()).isEmpty()) {
+            return true;
+        }
+
+        return type != AndroidType.NONE
+                && !sourceIndex.get(AndroidType.NONE).getOrDefault(code, Set.of()).isEmpty();
+    }
+
+    /**
+     * This counts the scripts the given author has uploaded for the given {@link AndroidType}.
+     *
+     * @param type
+     *            The {@link AndroidType}
+     * @param author
+     *            The {@link UUID} of the author
+     *
+     * @return The amount of scripts by this author
+     */
+    int countScripts(@Nonnull AndroidType type, @Nullable UUID author) {
+        int count = 0;
+
+        for (var script : getScripts(type)) {
+            if (script.getAuthorId().equals(author)) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * This adds a newly uploaded {@link Script} and writes it to disk in the background.
+     *
+     * @param type
+     *            The {@link AndroidType} the {@link Script} was uploaded for
+     * @param config
+     *            The {@link Config} of the new {@link Script}
+     */
+    @ParametersAreNonnullByDefault
+    void add(AndroidType type, Config config) {
+        var script = new Script(config, type);
+        put(config.getFile(), script);
+        save(script);
+    }
+
+    /**
+     * This writes the given {@link Script} to disk in the background.
+     * The order of scripts may have changed, so the sorted views are rebuilt.
+     *
+     * @param script
+     *            The changed {@link Script}
+     */
+    void save(@Nonnull Script script) {
+        sortedViews.clear();
+
+        if (pendingSaves.add(script)) {
+            var plugin = Slimefun.instance();
+
+            if (plugin != null && plugin.isEnabled()) {
+                Slimefun.getThreadService().newThread(plugin, "ScriptRepository#save", this::flush);
+            } else {
+                flush();
+            }
+        }
+    }
+
+    private synchronized void flush() {
+        for (var script : pendingSaves) {
+            pendingSaves.remove(script);
+            var file = script.getFile();
+
+            synchronized (script) {
+                script.getConfig().save();
+            }
+
+            savedFiles.put(file, file.lastModified());
+        }
+    }
+
+    @Nonnull
+    private List<Script> sort(@Nonnull AndroidType type) {
+        var list = new ArrayList<Script>();
+
+        for (var script : scripts.values()) {
+            var scriptType = script.getAndroidType();
+
+            if (scriptType == type || scriptType == AndroidType.NONE) {
+                list.add(script);
+            }
+        }
+
+        list.sort(ORDER);
+        return Collections.unmodifiableList(list);
+    }
+
+    private void run() {
+        try (WatchService watcher = FileSystems.getDefault().newWatchService()) {
+            for (AndroidType type : AndroidType.values()) {
+                var path = getDirectory(type);
+                path.register(
+                        watcher,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+                loadAll(type, path);
+            }
+
+            loading.complete(null);
+            watch(watcher);
+        } catch (IOException | RuntimeException x) {
+            Slimefun.logger().log(Level.SEVERE, "无法监听机器人脚本目录, 脚本列表将不会自动更新", x);
+        } finally {
+            // Whatever was loaded so far should still be usable
+            loading.complete(null);
+        }
+    }
+
+    private void watch(@Nonnull WatchService watcher) throws IOException {
+        while (isPluginEnabled()) {
+            WatchKey key;
+
+            try {
+                key = watcher.poll(5, TimeUnit.SECONDS);
+            } catch (InterruptedException x) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ClosedWatchServiceException x) {
+                return;
+            }
+
+            if (key == null) {
+                continue;
+            }
+
+            var path = (Path) key.watchable();
+            var type = AndroidType.valueOf(path.getFileName().toString());
+
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    loadAll(type, path);
+                } else if (event.context() instanceof Path name) {
+                    onChange(type, path.resolve(name).toFile());
+                }
+            }
+
+            key.reset();
+        }
+    }
+
+    @ParametersAreNonnullByDefault
+    private void onChange(AndroidType type, File file) {
+        if (!file.getName().endsWith(FILE_EXTENSION)) {
+            return;
+        }
+
+        if (!file.isFile()) {
+            remove(file);
+            return;
+        }
+
+        // Skip the changes we wrote ourselves
+        Long saved = savedFiles.get(file);
+        if (saved != null && saved == file.lastModified()) {
+            return;
+        }
+
+        load(type, file);
+    }
+
+    @ParametersAreNonnullByDefault
+    private void loadAll(AndroidType type, Path path) {
+        var files = path.toFile().listFiles();
+
+        if (files == null) {
+            return;
+        }
+
+        for (var file : files) {
+            if (file.getName().endsWith(FILE_EXTENSION)) {
+                load(type, file);
+            }
+        }
+    }
+
+    @ParametersAreNonnullByDefault
+    private void load(AndroidType type, File file) {
+        try {
+            Config config = new Config(file);
+
+            // Some older versions somehow allowed null values to slip in here sometimes
+            // So we need this check for compatibility with older scripts
+            if (config.contains("code") && config.contains("author")) {
+                put(file, new Script(config, type));
+            } else {
+                remove(file);
+            }
+        } catch (Exception x) {
+            Slimefun.logger()
+                    .log(
+                            Level.SEVERE,
+                            x,
+                            () -> "An Exception occurred while trying to load Android Script '" + file.getName() + "'");
+        }
+    }
+
+    @ParametersAreNonnullByDefault
+    private void put(File file, Script script) {
+        remove(file);
+
+        scripts.put(file, script);
+        sourceIndex
+                .get(script.getAndroidType())
+                .computeIfAbsent(script.getSourceCode(), code -> ConcurrentHashMap.newKeySet())
+                .add(file);
+        sortedViews.clear();
+    }
+
+    private void remove(@Nonnull File file) {
+        var previous = scripts.remove(file);
+
+        if (previous != null) {
+            sourceIndex.get(previous.getAndroidType()).computeIfPresent(previous.getSourceCode(), (code, files) -> {
+                files.remove(file);
+                return files.isEmpty() ? null : files;
+            });
+            sortedViews.clear();
+        }
+    }
+
+    @Nonnull
+    private Path getDirectory(@Nonnull AndroidType type) {
+        var typeDirectory = new File(directory, type.name());
+
+        if (!typeDirectory.exists()) {
+            typeDirectory.mkdirs();
+        }
+
+        return typeDirectory.toPath();
+    }
+
+    private static boolean isPluginEnabled() {
+        var plugin = Slimefun.instance();
+        return plugin != null && plugin.isEnabled();
+    }
+}
@@ -4,6 +4,7 @@ import io.github.bakedlibs.dough.items.CustomItemStack;
 import io.github.thebusybiscuit.slimefun4.api.items.ItemGroup;
 import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItemStack;
 import io.github.thebusybiscuit.slimefun4.api.recipes.RecipeType;
+import io.github.thebusybiscuit.slimefun4.core.networks.cargo.CargoNet;
 import io.github.thebusybiscuit.slimefun4.utils.ChestMenuUtils;
 import javax.annotation.ParametersAreNonnullByDefault;
 import me.mrCookieSlime.Slimefun.api.inventory.BlockMenu;
@@ -53,10 +54,16 @@ public class CargoOutputNode extends AbstractCargoNode {
     @Override
     protected void updateBlockMenu(BlockMenu menu, Block b) {
         addChannelSelector(b, menu, 12, 13, 14);
+        markDirty(b.getLocation());
     }
 
     @Override
     protected void markDirty(Location loc) {
-        // No need to mark anything as dirty, there is no item filter.
+        // There is no item filter, but the network needs to pick up the new channel
+        CargoNet network = CargoNet.getNetworkFromLocation(loc);
+
+        if (network != null) {
+            network.markCargoNodeConfigurationDirty(loc);
+        }
     }
 }
@@ -366,12 +366,7 @@ public abstract class Reactor extends AbstractEnergyProvider
             @Nullable BlockMenu accessPort,
             @Nonnull FuelOperation operation) {
         int produced = getEnergyProduction();
-        String energyData = data.getData("energy-charge");
-        int charge = 0;
-
-        if (energyData != null) {
-            charge = Integer.parseInt(energyData);
-        }
+        int charge = data.getInt("energy-charge", 0);
 
         int space = getCapacity() - charge;
 
@@ -1,12 +1,11 @@
 package io.github.thebusybiscuit.slimefun4.implementation.items.geo;
 
-import com.xzavier0722.mc.plugin.slimefun4.storage.callback.IAsyncReadCallback;
 import com.xzavier0722.mc.plugin.slimefun4.storage.controller.SlimefunBlockData;
-import com.xzavier0722.mc.plugin.slimefun4.storage.controller.SlimefunChunkData;
 import com.xzavier0722.mc.plugin.slimefun4.storage.util.StorageCacheUtils;
 import io.github.bakedlibs.dough.items.CustomItemStack;
 import io.github.thebusybiscuit.slimefun4.api.SlimefunAddon;
 import io.github.thebusybiscuit.slimefun4.api.geo.GEOResource;
+import io.github.thebusybiscuit.slimefun4.api.geo.ResourceManager;
 import io.github.thebusybiscuit.slimefun4.api.items.ItemGroup;
 import io.github.thebusybiscuit.slimefun4.api.items.ItemState;
 import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItem;
@@ -329,25 +328,13 @@ public class GEOMiner extends SlimefunItem
             return;
         }
         // fix issue 1147 : concurrent geo mining leads to duplication in geo resources
-        SlimefunChunkData chunkData =
-                Slimefun.getDatabaseManager().getBlockDataController().getChunkDataFromCache(b.getLocation());
-        if (chunkData != null && chunkData.isDataLoaded()) {
-            // the data is fully loaded
-            if (chunkData.getAllData().isEmpty()) {
-                updateHologram(b, "&4需要先进行地形扫描!");
-            } else {
-                start(b, inv);
-            }
+        ResourceManager resourceManager = Slimefun.getGPSNetwork().getResourceManager();
+        if (resourceManager.areSuppliesLoaded(b.getWorld(), b.getX() >> 4, b.getZ() >> 4)) {
+            // the supplies are cached, reading them does not block
+            start(b, inv);
         } else {
-            // load chunk
-            Slimefun.getDatabaseManager()
-                    .getBlockDataController()
-                    .getChunkDataAsync(b.getChunk(), new IAsyncReadCallback<>() {
-                        @Override
-                        public void onResult(SlimefunChunkData result) {
-                            updateHologram(b, "&4区块数据加载中...");
-                        }
-                    });
+            updateHologram(b, "&4区块数据加载中...");
+            resourceManager.prefetchSupplies(b.getWorld(), b.getX() >> 4, b.getZ() >> 4);
         }
     }
 
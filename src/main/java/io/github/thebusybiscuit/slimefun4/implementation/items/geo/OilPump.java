@@ -2,6 +2,7 @@ package io.github.thebusybiscuit.slimefun4.implementation.items.geo;
 
 import io.github.bakedlibs.dough.protection.Interaction;
 import io.github.thebusybiscuit.slimefun4.api.geo.GEOResource;
+import io.github.thebusybiscuit.slimefun4.api.geo.ResourceManager;
 import io.github.thebusybiscuit.slimefun4.api.items.ItemGroup;
 import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItemStack;
 import io.github.thebusybiscuit.slimefun4.api.recipes.RecipeType;
@@ -55,10 +56,15 @@ public class OilPump extends AContainer implements RecipeDisplayItem, NotDiagona
                     return false;
                 }
 
-                if (!Slimefun.getGPSNetwork()
-                        .getResourceManager()
-                        .getSupplies(oil, b.getWorld(), b.getX() >> 4, b.getZ() >> 4)
-                        .isPresent()) {
+                ResourceManager resourceManager = Slimefun.getGPSNetwork().getResourceManager();
+
+                if (!resourceManager.areSuppliesLoaded(b.getWorld(), b.getX() >> 4, b.getZ() >> 4)) {
+                    // Do not block the main thread, the supplies can be checked once they were read
+                    resourceManager.prefetchSupplies(b.getWorld(), b.getX() >> 4, b.getZ() >> 4);
+                    return false;
+                }
+
+                if (!resourceManager.getSupplies(oil, b.getWorld(), b.getX() >> 4, b.getZ() >> 4).isPresent()) {
                     Slimefun.getLocalization().sendMessage(p, "gps.geo.scan-required", true);
                     return false;
                 }
@@ -96,21 +102,26 @@ public class OilPump extends AContainer implements RecipeDisplayItem, NotDiagona
     protected MachineRecipe findNextRecipe(BlockMenu inv) {
         if (inv.fits(SlimefunItems.OIL_BUCKET, getOutputSlots())) {
             Block b = inv.getBlock();
+            ResourceManager resourceManager = Slimefun.getGPSNetwork().getResourceManager();
+
+            if (!resourceManager.areSuppliesLoaded(b.getWorld(), b.getX() >> 4, b.getZ() >> 4)) {
+                // Try again once the supplies of this chunk were read
+                resourceManager.prefetchSupplies(b.getWorld(), b.getX() >> 4, b.getZ() >> 4);
+                return null;
+            }
 
             for (int slot : getInputSlots()) {
                 if (SlimefunUtils.isItemSimilar(inv.getItemInSlot(slot), emptyBucket, true, false)) {
-                    OptionalInt supplies = Slimefun.getGPSNetwork()
-                            .getResourceManager()
-                            .getSupplies(oil, b.getWorld(), b.getX() >> 4, b.getZ() >> 4);
+                    OptionalInt supplies =
+                            resourceManager.getSupplies(oil, b.getWorld(), b.getX() >> 4, b.getZ() >> 4);
 
                     if (supplies.isPresent() && supplies.getAsInt() > 0) {
                         MachineRecipe recipe = new MachineRecipe(
                                 26, new ItemStack[] {emptyBucket}, new ItemStack[] {SlimefunItems.OIL_BUCKET});
 
                         inv.consumeItem(slot);
-                        Slimefun.getGPSNetwork()
-                                .getResourceManager()
-                                .setSupplies(oil, b.getWorld(), b.getX() >> 4, b.getZ() >> 4, supplies.getAsInt() - 1);
+                        resourceManager.setSupplies(
+                                oil, b.getWorld(), b.getX() >> 4, b.getZ() >> 4, supplies.getAsInt() - 1);
                         return recipe;
                     } else {
                         /*
@@ -33,6 +33,15 @@ public class GEOMiningOperation extends MiningOperation {
     @Override
     public void onCancel(@Nonnull BlockPosition position) {
         ResourceManager resourceManager = Slimefun.getGPSNetwork().getResourceManager();
+
+        if (!resourceManager.areSuppliesLoaded(position.getWorld(), position.getChunkX(), position.getChunkZ())) {
+            // Return the resource on the main thread once the supplies were read
+            resourceManager
+                    .prefetchSupplies(position.getWorld(), position.getChunkX(), position.getChunkZ())
+                    .thenRun(() -> Slimefun.runSync(() -> onCancel(position)));
+            return;
+        }
+
         OptionalInt supplies =
                 resourceManager.getSupplies(resource, position.getWorld(), position.getChunkX(), position.getChunkZ());
         supplies.ifPresent(s -> resourceManager.setSupplies(
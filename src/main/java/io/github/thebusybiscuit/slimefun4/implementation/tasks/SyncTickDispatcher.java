@@ -0,0 +1,202 @@
+package io.github.thebusybiscuit.slimefun4.implementation.tasks;
+
+import com.xzavier0722.mc.plugin.slimefun4.storage.controller.ASlimefunDataContainer;
+import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItem;
+import io.github.thebusybiscuit.slimefun4.core.services.profiler.SlimefunProfiler;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import me.mrCookieSlime.Slimefun.Objects.handlers.BlockTicker;
+import org.bukkit.Location;
+
+/**
+ * The {@link SyncTickDispatcher} collects the work of synchronized {@link BlockTicker BlockTickers}
+ * during an asynchronous tick of the {@link TickerTask} and runs it from one repeating
+ * main thread task, instead of scheduling a new task for every single block.
+ * <p>
+ * Every server tick it only spends up to the configured time budget, anything left over
+ * is deferred to the next server tick. A block is queued at most once at a time and the
+ * backlog is capped, so sustained overload cannot make it grow without limit.
+ *
+ * @see TickerTask
+ *
+ */
+class SyncTickDispatcher implements Runnable {
+
+    /**
+     * The maximum amount of blocks that may be queued at once, further blocks are skipped
+     * until the backlog has been worked off.
+     */
+    private static final int MAX_QUEUED_BLOCKS = 1 << 16;
+
+    private final TickerTask tickerTask;
+    private final long budgetNanos;
+
+    /**
+     * The work submitted by the {@link TickerTask}, guarded by this dispatcher.
+     */
+    private WorkBuffer incoming = new WorkBuffer();
+
+    /**
+     * The work currently being executed, only accessed from the main thread.
+     */
+    private WorkBuffer draining = new WorkBuffer();
+
+    /**
+     * The {@link Location Locations} of every queued block, guarded by this dispatcher.
+     */
+    private final Set<Location> queued = new HashSet<>();
+
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private volatile int lastDeferred = 0;
+
+    /**
+     * @param tickerTask
+     *            The {@link TickerTask} whose blocks we tick
+     * @param budgetMillis
+     *            The time we may spend per server tick in milliseconds, zero or less means no limit
+     */
+    SyncTickDispatcher(@Nonnull TickerTask tickerTask, long budgetMillis) {
+        this.tickerTask = tickerTask;
+        this.budgetNanos = budgetMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(budgetMillis) : Long.MAX_VALUE;
+    }
+
+    /**
+     * This queues the given block to be ticked on the main thread.
+     * Blocks which are still queued from an earlier tick are not queued again.
+     */
+    @ParametersAreNonnullByDefault
+    synchronized void submit(Location l, SlimefunItem item, ASlimefunDataContainer data) {
+        if (queued.size() >= MAX_QUEUED_BLOCKS || !queued.add(l)) {
+            skipped.increment();
+            return;
+        }
+
+        incoming.add(l, item, data);
+        queueDepth.incrementAndGet();
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        WorkBuffer buffer = draining;
+
+        while (true) {
+            if (!buffer.hasNext()) {
+                buffer.clear();
+
+                synchronized (this) {
+                    if (incoming.isEmpty()) {
+                        lastDeferred = 0;
+                        return;
+                    }
+
+                    draining = incoming;
+                    incoming = buffer;
+                    buffer = draining;
+                }
+            }
+
+            if (System.nanoTime() - start > budgetNanos) {
+                int remaining = buffer.remaining();
+                synchronized (this) {
+                    remaining += incoming.remaining();
+                }
+
+                lastDeferred = remaining;
+                deferred.add(remaining);
+                return;
+            }
+
+            int i = buffer.index++;
+            Location l = buffer.locations[i];
+            ASlimefunDataContainer data = buffer.data[i];
+
+            synchronized (this) {
+                queued.remove(l);
+            }
+
+            if (!data.isPendingRemove()) {
+                tickerTask.tickBlock(l, buffer.items[i], data, System.nanoTime());
+            }
+
+            dispatched.increment();
+            queueDepth.decrementAndGet();
+        }
+    }
+
+    /**
+     * This returns a summary of this dispatcher for the {@link SlimefunProfiler}.
+     *
+     * @return The status of this dispatcher
+     */
+    @Nonnull
+    String getStatus() {
+        return String.format(
+                "同步 Ticker 调度: 队列深度 %d | 上次延后 %d | 累计执行 %d | 累计延后 %d | 累计跳过 %d | 每 Tick 预算 %s",
+                queueDepth.get(),
+                lastDeferred,
+                dispatched.sum(),
+                deferred.sum(),
+                skipped.sum(),
+                budgetNanos == Long.MAX_VALUE
+                        ? "无限制"
+                        : TimeUnit.NANOSECONDS.toMillis(budgetNanos) + "ms");
+    }
+
+    /**
+     * A reusable buffer of work items, backed by parallel arrays so queuing a block
+     * does not allocate anything as long as the buffer has enough capacity.
+     */
+    private static final class WorkBuffer {
+        private static final int INITIAL_CAPACITY = 256;
+
+        private Location[] locations = new Location[INITIAL_CAPACITY];
+        private SlimefunItem[] items = new SlimefunItem[INITIAL_CAPACITY];
+        private ASlimefunDataContainer[] data = new ASlimefunDataContainer[INITIAL_CAPACITY];
+        private int size = 0;
+        private int index = 0;
+
+        private void add(Location l, SlimefunItem item, ASlimefunDataContainer container) {
+            if (size == locations.length) {
+                int capacity = size << 1;
+                locations = Arrays.copyOf(locations, capacity);
+                items = Arrays.copyOf(items, capacity);
+                data = Arrays.copyOf(data, capacity);
+            }
+
+            locations[size] = l;
+            items[size] = item;
+            data[size] = container;
+            size++;
+        }
+
+        private boolean hasNext() {
+            return index < size;
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        private int remaining() {
+            return size - index;
+        }
+
+        private void clear() {
+            Arrays.fill(locations, 0, size, null);
+            Arrays.fill(items, 0, size, null);
+            Arrays.fill(data, 0, size, null);
+            size = 0;
+            index = 0;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.thebusybiscuit.slimefun4.implementation.tasks;
 
+import city.norain.slimefun4.utils.SlimefunPoolExecutor;
 import com.xzavier0722.mc.plugin.slimefun4.storage.controller.ASlimefunDataContainer;
 import com.xzavier0722.mc.plugin.slimefun4.storage.controller.SlimefunBlockData;
 import com.xzavier0722.mc.plugin.slimefun4.storage.controller.SlimefunUniversalData;
@@ -11,12 +12,21 @@ import io.github.thebusybiscuit.slimefun4.api.ErrorReport;
 import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItem;
 import io.github.thebusybiscuit.slimefun4.core.ticker.TickLocation;
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -27,6 +37,7 @@ import me.mrCookieSlime.Slimefun.Objects.handlers.BlockTicker;
 import org.apache.commons.lang.Validate;
 import org.bukkit.Chunk;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.scheduler.BukkitScheduler;
 
 /**
@@ -52,6 +63,19 @@ public class TickerTask implements Runnable {
      */
     private final Map<BlockPosition, Integer> bugs = new ConcurrentHashMap<>();
 
+    /**
+     * The executor that ticks regions in parallel, or null if parallel ticking is disabled.
+     * Only {@link BlockTicker BlockTickers} which are not synchronized are run on it,
+     * synchronized ones are still scheduled on the main thread.
+     */
+    private ExecutorService regionExecutor;
+
+    /**
+     * The dispatcher that runs synchronized {@link BlockTicker BlockTickers} on the main thread.
+     * It is null until this task was started, in which case every block is scheduled on its own.
+     */
+    private SyncTickDispatcher syncDispatcher;
+
     private int tickRate;
     private boolean halted = false;
     private boolean running = false;
@@ -67,9 +91,35 @@ public class TickerTask implements Runnable {
      */
     public void start(@Nonnull Slimefun plugin) {
         this.tickRate = Slimefun.getCfg().getInt("URID.custom-ticker-delay");
+        Slimefun.getProfiler().setSampleRate(Slimefun.getCfg().getInt("URID.profiler-sample-rate"));
+
+        if (Slimefun.getCfg().getBoolean("URID.parallel-ticking.enable")) {
+            int threads = Slimefun.getCfg().getInt("URID.parallel-ticking.threads");
+            if (threads <= 0) {
+                threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+            }
+
+            AtomicInteger threadCount = new AtomicInteger();
+            regionExecutor = new SlimefunPoolExecutor(
+                    "Slimefun-Ticker-Executor",
+                    threads,
+                    threads,
+                    10,
+                    TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    r -> {
+                        Thread thread = new Thread(r, "Slimefun Ticker Thread #" + threadCount.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
 
         BukkitScheduler scheduler = plugin.getServer().getScheduler();
         scheduler.runTaskTimerAsynchronously(plugin, this, 100L, tickRate);
+
+        syncDispatcher = new SyncTickDispatcher(this, Slimefun.getCfg().getInt("URID.sync-ticker-budget"));
+        scheduler.runTaskTimer(plugin, syncDispatcher, 100L, 1L);
+        Slimefun.getProfiler().registerStatusReporter("sync-ticker-dispatcher", syncDispatcher::getStatus);
     }
 
     /**
@@ -93,18 +143,22 @@ public class TickerTask implements Runnable {
 
             running = true;
             Slimefun.getProfiler().start();
-            Set<BlockTicker> tickers = new HashSet<>();
+            Set<BlockTicker> tickers = ConcurrentHashMap.newKeySet();
 
             // Run our ticker code
             if (!halted) {
-                Set<Map.Entry<ChunkPosition, Set<TickLocation>>> loc;
+                if (regionExecutor != null) {
+                    tickRegions(tickers);
+                } else {
+                    Set<Map.Entry<ChunkPosition, Set<TickLocation>>> loc;
 
-                synchronized (tickingLocations) {
-                    loc = new HashSet<>(tickingLocations.entrySet());
-                }
+                    synchronized (tickingLocations) {
+                        loc = new HashSet<>(tickingLocations.entrySet());
+                    }
 
-                for (Map.Entry<ChunkPosition, Set<TickLocation>> entry : loc) {
-                    tickChunk(entry.getKey(), tickers, new HashSet<>(entry.getValue()));
+                    for (Map.Entry<ChunkPosition, Set<TickLocation>> entry : loc) {
+                        tickChunk(entry.getKey(), tickers, new HashSet<>(entry.getValue()));
+                    }
                 }
             }
 
@@ -126,6 +180,48 @@ public class TickerTask implements Runnable {
         }
     }
 
+    /**
+     * This ticks every chunk on our {@link #regionExecutor}.
+     * Chunks are grouped by region (32x32 chunks), every region is ticked serially on one thread
+     * while different regions are ticked in parallel.
+     * This method only returns once every region has been ticked.
+     *
+     * @param tickers
+     *            The thread-safe {@link Set} to collect all ticked {@link BlockTicker BlockTickers}
+     */
+    private void tickRegions(@Nonnull Set<BlockTicker> tickers) throws InterruptedException {
+        Map<RegionPosition, List<Map.Entry<ChunkPosition, Set<TickLocation>>>> regions = new HashMap<>();
+
+        // The values of #tickingLocations are thread-safe, so we do not need to lock the whole map here
+        for (Map.Entry<ChunkPosition, Set<TickLocation>> entry : tickingLocations.entrySet()) {
+            ChunkPosition chunk = entry.getKey();
+            regions.computeIfAbsent(
+                            new RegionPosition(chunk.getWorld(), chunk.getX() >> 5, chunk.getZ() >> 5),
+                            k -> new ArrayList<>())
+                    .add(entry);
+        }
+
+        List<Callable<Void>> shards = new ArrayList<>(regions.size());
+        for (List<Map.Entry<ChunkPosition, Set<TickLocation>>> region : regions.values()) {
+            shards.add(() -> {
+                for (Map.Entry<ChunkPosition, Set<TickLocation>> entry : region) {
+                    tickChunk(entry.getKey(), tickers, new HashSet<>(entry.getValue()));
+                }
+                return null;
+            });
+        }
+
+        // invokeAll waits for every shard, so startNewTick() is still called once all blocks were ticked
+        for (var result : regionExecutor.invokeAll(shards)) {
+            try {
+                result.get();
+            } catch (ExecutionException x) {
+                Slimefun.logger()
+                        .log(Level.SEVERE, x.getCause(), () -> "An Exception was caught while ticking a region");
+            }
+        }
+    }
+
     @ParametersAreNonnullByDefault
     private void tickChunk(ChunkPosition chunk, Set<BlockTicker> tickers, Set<TickLocation> locations) {
         try {
@@ -167,12 +263,16 @@ public class TickerTask implements Runnable {
                      * We are inserting a new timestamp because synchronized actions
                      * are always ran with a 50ms delay (1 game tick)
                      */
-                    Slimefun.runSync(() -> {
-                        if (blockData.isPendingRemove()) {
-                            return;
-                        }
-                        tickBlock(l, item, blockData, System.nanoTime());
-                    });
+                    if (syncDispatcher != null) {
+                        syncDispatcher.submit(l, item, blockData);
+                    } else {
+                        Slimefun.runSync(() -> {
+                            if (blockData.isPendingRemove()) {
+                                return;
+                            }
+                            tickBlock(l, item, blockData, System.nanoTime());
+                        });
+                    }
                 } else {
                     long timestamp = Slimefun.getProfiler().newEntry();
                     item.getBlockTicker().update();
@@ -205,12 +305,16 @@ public class TickerTask implements Runnable {
                      * We are inserting a new timestamp because synchronized actions
                      * are always ran with a 50ms delay (1 game tick)
                      */
-                    Slimefun.runSync(() -> {
-                        if (data.isPendingRemove()) {
-                            return;
-                        }
-                        tickBlock(l, item, data, System.nanoTime());
-                    });
+                    if (syncDispatcher != null) {
+                        syncDispatcher.submit(l, item, data);
+                    } else {
+                        Slimefun.runSync(() -> {
+                            if (data.isPendingRemove()) {
+                                return;
+                            }
+                            tickBlock(l, item, data, System.nanoTime());
+                        });
+                    }
                 } else {
                     long timestamp = Slimefun.getProfiler().newEntry();
                     item.getBlockTicker().update();
@@ -225,7 +329,7 @@ public class TickerTask implements Runnable {
     }
 
     @ParametersAreNonnullByDefault
-    private void tickBlock(Location l, SlimefunItem item, ASlimefunDataContainer data, long timestamp) {
+    void tickBlock(Location l, SlimefunItem item, ASlimefunDataContainer data, long timestamp) {
         try {
             if (item.getBlockTicker().isUniversal()) {
                 if (data instanceof SlimefunUniversalData universalData) {
@@ -250,12 +354,12 @@ public class TickerTask implements Runnable {
     @ParametersAreNonnullByDefault
     private void reportErrors(Location l, SlimefunItem item, Throwable x) {
         BlockPosition position = new BlockPosition(l);
-        int errors = bugs.getOrDefault(position, 0) + 1;
+        // Regions may be ticked in parallel, so the counter has to be updated atomically
+        int errors = bugs.merge(position, 1, Integer::sum);
 
         if (errors == 1) {
             // Generate a new Error-Report
             new ErrorReport<>(x, l, item);
-            bugs.put(position, errors);
         } else if (errors == 4) {
             Slimefun.logger().log(Level.SEVERE, "X: {0} Y: {1} Z: {2} ({3})", new Object[] {
                 l.getBlockX(), l.getBlockY(), l.getBlockZ(), item.getId()
@@ -267,8 +371,6 @@ public class TickerTask implements Runnable {
             bugs.remove(position);
 
             disableTicker(l);
-        } else {
-            bugs.put(position, errors);
         }
     }
 
@@ -278,6 +380,10 @@ public class TickerTask implements Runnable {
 
     public void halt() {
         halted = true;
+
+        if (regionExecutor != null) {
+            regionExecutor.shutdown();
+        }
     }
 
     /**
@@ -439,4 +545,9 @@ public class TickerTask implements Runnable {
             tickingLocations.values().forEach(loc -> loc.removeIf(tk -> uuid.equals(tk.getUuid())));
         }
     }
+
+    /**
+     * A region of 32x32 chunks, used to shard the ticking chunks.
+     */
+    private record RegionPosition(World world, int x, int z) {}
 }
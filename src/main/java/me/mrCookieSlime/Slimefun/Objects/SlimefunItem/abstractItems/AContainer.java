@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
 import me.mrCookieSlime.CSCoreLibPlugin.general.Inventory.ChestMenu.AdvancedMenuClickHandler;
@@ -61,12 +62,25 @@ public abstract class AContainer extends SlimefunItem
      */
     private static final int[] BORDER_OUT = {14, 15, 16, 17, 23, 26, 32, 33, 34, 35};
 
+    /**
+     * The amount of ticks a machine may skip looking for its next recipe
+     * while its inventory has not changed since the last failed lookup.
+     */
+    private static final int MAX_SKIPPED_LOOKUPS = 8;
+
     /**
      * The list of registered machine recipes.
      */
     protected final List<MachineRecipe> recipes = new ArrayList<>();
 
     private final MachineProcessor<CraftingOperation> processor = new MachineProcessor<>(this);
+    private final MachineRecipeIndex recipeIndex = new MachineRecipeIndex(recipes);
+
+    /**
+     * The last failed recipe lookup of every {@link BlockMenu}, this only holds weak references to the menus,
+     * so the state is dropped together with a menu that was unloaded or replaced.
+     */
+    private final Map<BlockMenu, FailedLookup> failedLookups = new WeakHashMap<>();
 
     private int energyConsumedPerTick = -1;
     private int energyCapacity = -1;
@@ -93,6 +107,10 @@ public abstract class AContainer extends SlimefunItem
                 if (inv != null) {
                     inv.dropItems(b.getLocation(), getInputSlots());
                     inv.dropItems(b.getLocation(), getOutputSlots());
+
+                    synchronized (failedLookups) {
+                        failedLookups.remove(inv);
+                    }
                 }
 
                 processor.endOperation(b);
@@ -342,6 +360,7 @@ public abstract class AContainer extends SlimefunItem
     public void registerRecipe(MachineRecipe recipe) {
         recipe.setTicks(recipe.getTicks() / getSpeed());
         recipes.add(recipe);
+        recipeIndex.invalidate();
     }
 
     public void registerRecipe(int seconds, ItemStack[] input, ItemStack[] output) {
@@ -389,14 +408,35 @@ public abstract class AContainer extends SlimefunItem
                 }
             }
         } else {
+            FailedLookup lastLookup;
+
+            synchronized (failedLookups) {
+                lastLookup = inv == null ? null : failedLookups.get(inv);
+            }
+
+            // Nothing has changed since we last looked, there is no point in looking again
+            if (lastLookup != null && lastLookup.canSkip(inv)) {
+                return;
+            }
+
             MachineRecipe next = findNextRecipe(inv);
 
             if (next != null) {
+                if (lastLookup != null) {
+                    synchronized (failedLookups) {
+                        failedLookups.remove(inv);
+                    }
+                }
+
                 currentOperation = new CraftingOperation(next);
                 processor.startOperation(b, currentOperation);
 
                 // Fixes #3534 - Update indicator immediately
                 processor.updateProgressBar(inv, 22, currentOperation);
+            } else if (inv != null) {
+                synchronized (failedLookups) {
+                    failedLookups.put(inv, new FailedLookup(inv));
+                }
             }
         }
     }
@@ -437,8 +477,9 @@ public abstract class AContainer extends SlimefunItem
         }
 
         Map<Integer, Integer> found = new HashMap<>();
+        List<MachineRecipe> candidates = recipeIndex.getCandidates(new ArrayList<>(inventory.values()));
 
-        for (MachineRecipe recipe : recipes) {
+        for (MachineRecipe recipe : candidates != null ? candidates : recipes) {
             for (ItemStack input : recipe.getInput()) {
                 for (int slot : getInputSlots()) {
                     if (Slimefun.getItemStackService()
@@ -482,6 +523,7 @@ public abstract class AContainer extends SlimefunItem
     public void disable() {
         super.disable();
         recipes.clear();
+        recipeIndex.invalidate();
     }
 
     @Override
@@ -490,4 +532,26 @@ public abstract class AContainer extends SlimefunItem
             registerDefaultRecipes();
         }
     }
+
+    /**
+     * The state of a machine whose last lookup for a recipe did not find anything.
+     * This must never hold a reference to its {@link BlockMenu}, which would keep it from being collected.
+     */
+    private static final class FailedLookup {
+
+        private final long modifications;
+        private int skipped = 0;
+
+        private FailedLookup(@Nonnull BlockMenu menu) {
+            this.modifications = menu.getModificationCount();
+        }
+
+        /**
+         * Players can modify the {@link Inventory} directly while viewing it, so we never skip then.
+         * We also look again every few ticks in case it was modified without marking the menu as dirty.
+         */
+        private boolean canSkip(@Nonnull BlockMenu menu) {
+            return menu.getModificationCount() == modifications && !menu.hasViewer() && ++skipped < MAX_SKIPPED_LOOKUPS;
+        }
+    }
 }
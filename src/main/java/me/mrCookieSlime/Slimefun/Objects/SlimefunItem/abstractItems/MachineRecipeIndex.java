@@ -0,0 +1,114 @@
+package me.mrCookieSlime.Slimefun.Objects.SlimefunItem.abstractItems;
+
+import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * The {@link MachineRecipeIndex} indexes the {@link MachineRecipe MachineRecipes} of an {@link AContainer}
+ * by the {@link Material} of their inputs.
+ * <p>
+ * An input can only ever be similar to an {@link ItemStack} of the same {@link Material}, unless one of them
+ * is a virtual item. So when looking for the next recipe, only the recipes which have an input of the same
+ * {@link Material} as one of the items in the input slots need to be checked.
+ * Recipes with a virtual input are always checked.
+ *
+ * @see AContainer
+ *
+ */
+class MachineRecipeIndex {
+
+    private final List<MachineRecipe> recipes;
+    private volatile Snapshot snapshot;
+
+    /**
+     * @param recipes
+     *            The {@link List} of recipes to index, changes to it are picked up on the next lookup
+     */
+    MachineRecipeIndex(@Nonnull List<MachineRecipe> recipes) {
+        this.recipes = recipes;
+    }
+
+    /**
+     * This marks this index as outdated, it will be rebuilt on the next lookup.
+     */
+    void invalidate() {
+        snapshot = null;
+    }
+
+    /**
+     * This returns every {@link MachineRecipe} which could possibly be crafted from the given items,
+     * in the order they were registered.
+     *
+     * @param items
+     *            The items in the input slots of the machine
+     *
+     * @return The candidate recipes, or null if every recipe has to be checked
+     */
+    @Nullable List<MachineRecipe> getCandidates(@Nonnull List<ItemStack> items) {
+        Snapshot current = snapshot;
+
+        // Addons may add recipes through AContainer#getMachineRecipes() directly
+        if (current == null || current.recipes.size() != recipes.size()) {
+            current = new Snapshot(new ArrayList<>(recipes));
+            snapshot = current;
+        }
+
+        BitSet candidates = (BitSet) current.alwaysChecked.clone();
+
+        for (ItemStack item : items) {
+            if (Slimefun.getItemStackService().isVirtualItem(item)) {
+                return null;
+            }
+
+            BitSet indexed = current.byMaterial.get(item.getType());
+
+            if (indexed != null) {
+                candidates.or(indexed);
+            }
+        }
+
+        List<MachineRecipe> list = new ArrayList<>(candidates.cardinality());
+
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            list.add(current.recipes.get(i));
+        }
+
+        return list;
+    }
+
+    private static final class Snapshot {
+
+        private final List<MachineRecipe> recipes;
+        private final Map<Material, BitSet> byMaterial = new EnumMap<>(Material.class);
+        private final BitSet alwaysChecked = new BitSet();
+
+        private Snapshot(@Nonnull List<MachineRecipe> recipes) {
+            this.recipes = recipes;
+
+            for (int i = 0; i < recipes.size(); i++) {
+                ItemStack[] inputs = recipes.get(i).getInput();
+
+                // A recipe without any inputs always matches
+                if (inputs.length == 0) {
+                    alwaysChecked.set(i);
+                }
+
+                for (ItemStack input : inputs) {
+                    if (input == null || Slimefun.getItemStackService().isVirtualItem(input)) {
+                        alwaysChecked.set(i);
+                    } else {
+                        byMaterial.computeIfAbsent(input.getType(), type -> new BitSet()).set(i);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -8,6 +8,7 @@ import io.github.thebusybiscuit.slimefun4.api.items.ItemHandler;
 import io.github.thebusybiscuit.slimefun4.api.items.SlimefunItem;
 import io.github.thebusybiscuit.slimefun4.core.attributes.NotPlaceable;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 import lombok.Getter;
 import me.mrCookieSlime.CSCoreLibPlugin.Configuration.Config;
 import org.bukkit.block.Block;
@@ -17,7 +18,16 @@ public abstract class BlockTicker implements ItemHandler {
     @Getter
     private final boolean universal;
 
-    protected boolean unique = true;
+    /**
+     * Whether {@link #uniqueTick()} still has to be called during the current tick.
+     *
+     * @deprecated Several regions may be ticked in parallel, the flag is consumed atomically
+     *             in {@link #update()}. It is only kept for compatibility.
+     */
+    @Deprecated
+    protected volatile boolean unique = true;
+
+    private final AtomicBoolean uniqueTickPending = new AtomicBoolean(true);
 
     public BlockTicker() {
         this.universal = false;
@@ -31,7 +41,7 @@ public abstract class BlockTicker implements ItemHandler {
      * 刷新当前 ticker 执行状态
      */
     public void update() {
-        if (unique) {
+        if (unique && uniqueTickPending.compareAndSet(true, false)) {
             uniqueTick();
             unique = false;
         }
@@ -108,5 +118,6 @@ public abstract class BlockTicker implements ItemHandler {
      */
     public void startNewTick() {
         unique = true;
+        uniqueTickPending.set(true);
     }
 }
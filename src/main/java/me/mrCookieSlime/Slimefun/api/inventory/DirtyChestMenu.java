@@ -11,6 +11,8 @@ import io.github.thebusybiscuit.slimefun4.api.items.virtual.VirtualItemHandler.M
 import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
 import io.github.thebusybiscuit.slimefun4.utils.SlimefunUtils;
 import io.github.thebusybiscuit.slimefun4.utils.itemstack.ItemStackWrapper;
+import java.util.Arrays;
+import java.util.BitSet;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import me.mrCookieSlime.CSCoreLibPlugin.general.Inventory.ChestMenu;
@@ -25,6 +27,29 @@ public class DirtyChestMenu extends ChestMenu {
 
     protected final BlockMenuPreset preset;
     protected int changes = 1;
+    private volatile long modifications = 0;
+
+    /**
+     * The slots which were modified through this menu since they were last saved.
+     * This also serves as the lock for {@link #savedHashes}.
+     */
+    private final BitSet dirtySlots = new BitSet();
+
+    /**
+     * The hash codes of every slot as it was last saved, used to detect changes
+     * which did not go through this menu, e.g. by a {@link Player} or by modifying an {@link ItemStack} directly.
+     */
+    private int[] savedHashes;
+
+    /**
+     * Whether this menu was opened since the last save, a {@link Player} may have changed any slot.
+     */
+    private volatile boolean viewed = false;
+
+    /**
+     * The fingerprints of the items in this menu, only created once item transport accesses this menu.
+     */
+    private volatile MenuSlotIndex slotIndex;
 
     public DirtyChestMenu(@Nonnull BlockMenuPreset preset) {
         super(preset.getTitle());
@@ -44,6 +69,136 @@ public class DirtyChestMenu extends ChestMenu {
 
     public void markDirty() {
         changes++;
+        modifications++;
+
+        // We do not know which slots were changed
+        MenuSlotIndex index = slotIndex;
+        if (index != null) {
+            index.markAllStale();
+        }
+    }
+
+    /**
+     * This marks the given slot as modified, so it is written on the next save.
+     *
+     * @param slot
+     *            The slot that was modified
+     */
+    public void markDirty(int slot) {
+        synchronized (dirtySlots) {
+            dirtySlots.set(slot);
+        }
+
+        MenuSlotIndex index = slotIndex;
+        if (index != null) {
+            index.markStale(slot);
+        }
+
+        changes++;
+        modifications++;
+    }
+
+    /**
+     * This returns the {@link MenuSlotIndex} of this menu, which allows skipping slots
+     * that cannot hold a given item.
+     * <p>
+     * While a {@link Player} is viewing this menu, any slot may change at any time.
+     * The index cannot be used then.
+     *
+     * @return The {@link MenuSlotIndex} or null if it cannot be used right now
+     */
+    @Nullable public MenuSlotIndex getSlotIndex() {
+        MenuSlotIndex index = slotIndex;
+
+        if (index == null) {
+            index = new MenuSlotIndex(this);
+            slotIndex = index;
+        }
+
+        if (hasViewer()) {
+            index.markAllStale();
+            return null;
+        }
+
+        index.use();
+        return index;
+    }
+
+    /**
+     * This returns every slot that has changed since the last call and marks them as saved.
+     * <p>
+     * Slots modified through this menu are tracked directly. If the menu was opened by a {@link Player}
+     * or belongs to an addon, which may modify the {@link ItemStack ItemStacks} in it directly,
+     * every other slot is compared to the hash code it had when it was last saved.
+     *
+     * @return The slots that need to be saved
+     */
+    @Nonnull
+    public BitSet collectChangedSlots() {
+        boolean compareHashes = viewed || !isTrackedBySlimefun();
+        viewed = hasViewer();
+
+        Inventory inv = toInventory();
+
+        synchronized (dirtySlots) {
+            BitSet changed = (BitSet) dirtySlots.clone();
+            dirtySlots.clear();
+
+            if (savedHashes == null || savedHashes.length != inv.getSize()) {
+                savedHashes = Arrays.copyOf(savedHashes == null ? new int[0] : savedHashes, inv.getSize());
+                compareHashes = true;
+            }
+
+            if (compareHashes) {
+                ItemStack[] contents = inv.getContents();
+
+                for (int slot = 0; slot < contents.length; slot++) {
+                    int hash = hashSlot(contents[slot]);
+
+                    if (hash != savedHashes[slot]) {
+                        changed.set(slot);
+                        savedHashes[slot] = hash;
+                    }
+                }
+            } else {
+                for (int slot = changed.nextSetBit(0); slot >= 0; slot = changed.nextSetBit(slot + 1)) {
+                    if (slot < savedHashes.length) {
+                        savedHashes[slot] = hashSlot(inv.getItem(slot));
+                    }
+                }
+            }
+
+            for (int slot : preset.getPresetSlots()) {
+                changed.clear(slot);
+            }
+
+            return changed;
+        }
+    }
+
+    /**
+     * This marks the current contents of this menu as saved, e.g. after they were loaded.
+     */
+    public void markSlotsSaved() {
+        ItemStack[] contents = toInventory().getContents();
+
+        synchronized (dirtySlots) {
+            dirtySlots.clear();
+            savedHashes = new int[contents.length];
+
+            for (int slot = 0; slot < contents.length; slot++) {
+                savedHashes[slot] = hashSlot(contents[slot]);
+            }
+        }
+    }
+
+    private boolean isTrackedBySlimefun() {
+        SlimefunItem item = SlimefunItem.getById(preset.getID());
+        return item != null && item.getAddon() == Slimefun.instance();
+    }
+
+    private static int hashSlot(@Nullable ItemStack item) {
+        return item == null || item.getType().isAir() ? 0 : item.hashCode();
     }
 
     public boolean isDirty() {
@@ -54,6 +209,17 @@ public class DirtyChestMenu extends ChestMenu {
         return changes;
     }
 
+    /**
+     * This returns the amount of modifications made to this {@link DirtyChestMenu}.
+     * Unlike {@link #getUnsavedChanges()}, this is never reset when the menu is saved, so
+     * it can be used to check whether the contents have changed since they were last looked at.
+     *
+     * @return The amount of modifications made to this menu
+     */
+    public long getModificationCount() {
+        return modifications;
+    }
+
     @Nonnull
     public BlockMenuPreset getPreset() {
         return preset;
@@ -72,6 +238,7 @@ public class DirtyChestMenu extends ChestMenu {
         super.open(players);
 
         // The Inventory will likely be modified soon
+        viewed = true;
         markDirty();
     }
 
@@ -219,6 +386,7 @@ public class DirtyChestMenu extends ChestMenu {
                     int movedAmount = Math.min(amount, maxStackSize - stack.getAmount());
                     amount -= movedAmount;
                     stack.setAmount(stack.getAmount() + movedAmount);
+                    markDirty(slot);
                 }
             }
         }
@@ -256,7 +424,7 @@ public class DirtyChestMenu extends ChestMenu {
             ItemUtils.consumeItem(item, amount, replaceConsumables);
         }
 
-        markDirty();
+        markDirty(slot);
     }
 
     @Override
@@ -271,6 +439,6 @@ public class DirtyChestMenu extends ChestMenu {
         }
 
         super.replaceExistingItem(slot, item);
-        markDirty();
+        markDirty(slot);
     }
 }
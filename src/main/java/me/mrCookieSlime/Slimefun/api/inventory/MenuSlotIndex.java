@@ -0,0 +1,159 @@
+package me.mrCookieSlime.Slimefun.api.inventory;
+
+import io.github.thebusybiscuit.slimefun4.implementation.Slimefun;
+import java.util.Arrays;
+import java.util.BitSet;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+/**
+ * The {@link MenuSlotIndex} holds a {@link Fingerprint} of the item in every slot of a {@link DirtyChestMenu}.
+ * <p>
+ * Slots are marked as stale whenever they are changed through their {@link DirtyChestMenu}
+ * and are only fingerprinted again once they are looked at.
+ * This allows item transport to skip slots that cannot hold a given item without resolving
+ * the Slimefun item of every slot again.
+ * <p>
+ * The index is never trusted blindly: it may only be used to skip slots which could not match anyway.
+ * In case an {@link ItemStack} was modified without marking its slot as dirty, every slot is
+ * fingerprinted again every few uses.
+ *
+ * @see DirtyChestMenu#getSlotIndex()
+ *
+ */
+public final class MenuSlotIndex {
+
+    /**
+     * The amount of uses after which every slot is fingerprinted again.
+     */
+    private static final int REFRESH_INTERVAL = 64;
+
+    private final DirtyChestMenu menu;
+    private final BitSet staleSlots = new BitSet();
+
+    private Fingerprint[] fingerprints = new Fingerprint[0];
+    private int uses = 0;
+
+    MenuSlotIndex(@Nonnull DirtyChestMenu menu) {
+        this.menu = menu;
+    }
+
+    /**
+     * This marks the given slot as changed, it will be fingerprinted again when it is looked at next time.
+     *
+     * @param slot
+     *            The slot that was changed
+     */
+    synchronized void markStale(int slot) {
+        staleSlots.set(slot);
+    }
+
+    /**
+     * This marks every slot as changed, e.g. because a {@link Player} may have modified the menu.
+     */
+    synchronized void markAllStale() {
+        fingerprints = new Fingerprint[0];
+        staleSlots.clear();
+    }
+
+    /**
+     * This is called whenever the index is handed out and occasionally throws away every {@link Fingerprint}.
+     */
+    synchronized void use() {
+        if (++uses >= REFRESH_INTERVAL) {
+            uses = 0;
+            markAllStale();
+        }
+    }
+
+    /**
+     * This returns the {@link Fingerprint} of the item in the given slot.
+     *
+     * @param slot
+     *            The slot
+     *
+     * @return The {@link Fingerprint} or null if the slot is empty
+     */
+    @Nullable public synchronized Fingerprint getFingerprint(int slot) {
+        if (slot >= fingerprints.length) {
+            int size = menu.toInventory().getSize();
+
+            if (slot >= size) {
+                return null;
+            }
+
+            int length = fingerprints.length;
+            fingerprints = Arrays.copyOf(fingerprints, size);
+            staleSlots.set(length, size);
+        }
+
+        if (staleSlots.get(slot)) {
+            fingerprints[slot] = Fingerprint.of(menu.getItemInSlot(slot));
+            staleSlots.clear(slot);
+        }
+
+        return fingerprints[slot];
+    }
+
+    /**
+     * This checks whether the item in the given slot can never be similar to an item of the given {@link Material}.
+     * Empty slots and virtual items are never considered incompatible.
+     *
+     * @param slot
+     *            The slot
+     * @param type
+     *            The {@link Material} of the other item
+     * @param virtual
+     *            Whether the other item is a virtual item
+     *
+     * @return Whether this slot can safely be skipped
+     */
+    public boolean isIncompatible(int slot, @Nonnull Material type, boolean virtual) {
+        if (virtual) {
+            return false;
+        }
+
+        Fingerprint fingerprint = getFingerprint(slot);
+        return fingerprint != null && !fingerprint.virtual() && fingerprint.type() != type;
+    }
+
+    /**
+     * A {@link Fingerprint} identifies the kind of an {@link ItemStack}, regardless of its amount.
+     * Two equal fingerprints do not guarantee that two items are similar, a hash collision of their
+     * {@link ItemMeta} is still possible. Items with a different {@link Material} can only be similar
+     * if one of them is a virtual item.
+     *
+     * @param type
+     *            The {@link Material} of the item
+     * @param id
+     *            The id of the Slimefun item, or null if it is not a Slimefun item
+     * @param metaHash
+     *            The hash code of the {@link ItemMeta}, or 0 if the item has none
+     * @param virtual
+     *            Whether this item is a virtual item
+     */
+    public record Fingerprint(@Nonnull Material type, @Nullable String id, int metaHash, boolean virtual) {
+
+        @Nullable static Fingerprint of(@Nullable ItemStack item) {
+            if (item == null || item.getType().isAir()) {
+                return null;
+            }
+
+            if (!item.hasItemMeta()) {
+                return new Fingerprint(item.getType(), null, 0, false);
+            }
+
+            ItemMeta meta = item.getItemMeta();
+            String id = Slimefun.getItemDataService().getItemData(meta).orElse(null);
+
+            // Only Slimefun items can be virtual items
+            boolean virtual = id != null && Slimefun.getItemStackService().isVirtualItem(item);
+
+            return new Fingerprint(item.getType(), id, meta.hashCode(), virtual);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.xzavier0722.mc.plugin.slimefun4.storage.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class ADataContainerTest {
+
+    @Test
+    void invalidatesParsedValuesWhenDataChanges() {
+        var data = new SlimefunUniversalData(UUID.randomUUID(), "TEST_ITEM");
+        data.setIsDataLoaded(true);
+
+        assertEquals(-1, data.getLong("energy-charge", -1));
+
+        data.setCacheInternal("energy-charge", "5", true);
+        assertEquals(5, data.getLong("energy-charge"));
+        assertEquals(5, data.getInt("energy-charge"));
+
+        data.setCacheInternal("energy-charge", "7", true);
+        assertEquals(7, data.getLong("energy-charge"));
+
+        data.removeCacheInternal("energy-charge");
+        assertEquals(0, data.getLong("energy-charge"));
+    }
+
+    @Test
+    void parsesBooleansAndRejectsInvalidNumbers() {
+        var data = new SlimefunUniversalData(UUID.randomUUID(), "TEST_ITEM");
+        data.setIsDataLoaded(true);
+
+        data.setCacheInternal("paused", "true", true);
+        assertTrue(data.getBoolean("paused"));
+        data.setCacheInternal("paused", "false", true);
+        assertFalse(data.getBoolean("paused", true));
+
+        data.setCacheInternal("frequency", "abc", true);
+        assertThrows(NumberFormatException.class, () -> data.getInt("frequency"));
+        data.setCacheInternal("frequency", String.valueOf(Long.MAX_VALUE), true);
+        assertThrows(NumberFormatException.class, () -> data.getInt("frequency"));
+    }
+}
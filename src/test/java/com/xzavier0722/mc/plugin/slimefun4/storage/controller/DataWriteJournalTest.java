@@ -0,0 +1,55 @@
+package com.xzavier0722.mc.plugin.slimefun4.storage.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class DataWriteJournalTest {
+
+    @Test
+    void coalescesRepeatedWritesToOneWritePerKey() {
+        var written = new ArrayList<String>();
+        var journal = new DataWriteJournal((container, key, ownScope) -> written.add(container.getKey() + "/" + key));
+        var first = new SlimefunUniversalData(UUID.randomUUID(), "TEST_ITEM");
+        var second = new SlimefunUniversalData(UUID.randomUUID(), "TEST_ITEM");
+
+        for (var i = 0; i < 100; i++) {
+            journal.markDirty(first, "energy-charge");
+            journal.markDirty(second, "progress");
+        }
+        journal.markDirty(first, "owner");
+
+        assertEquals(2, journal.getPendingContainers());
+        journal.flush();
+
+        assertEquals(3, written.size());
+        assertTrue(written.containsAll(List.of(
+                first.getKey() + "/energy-charge", first.getKey() + "/owner", second.getKey() + "/progress")));
+        assertEquals(0, journal.getPendingContainers());
+        assertEquals(201 / 3.0, journal.getCoalescingRatio(), 1e-9);
+    }
+
+    @Test
+    void discardsPendingKeysOfRemovedContainers() {
+        var written = new ArrayList<String>();
+        var journal = new DataWriteJournal((container, key, ownScope) -> written.add(key));
+        var removed = new SlimefunUniversalData(UUID.randomUUID(), "TEST_ITEM");
+        var kept = new SlimefunUniversalData(UUID.randomUUID(), "TEST_ITEM");
+
+        journal.markDirty(removed, "a");
+        journal.markDirty(kept, "b");
+        journal.discard(container -> container == removed);
+        journal.flush();
+
+        assertEquals(List.of("b"), written);
+
+        journal.markDirty(removed, "c");
+        journal.flush();
+
+        assertEquals(List.of("b", "c"), written);
+    }
+}
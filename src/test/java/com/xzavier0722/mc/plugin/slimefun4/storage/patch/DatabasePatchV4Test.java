@@ -0,0 +1,54 @@
+package com.xzavier0722.mc.plugin.slimefun4.storage.patch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.xzavier0722.mc.plugin.slimefun4.storage.adapter.sqlite.SqliteConfig;
+import com.xzavier0722.mc.plugin.slimefun4.storage.common.DataEncoding;
+import java.nio.charset.StandardCharsets;
+import java.sql.DriverManager;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+
+class DatabasePatchV4Test {
+
+    @Test
+    void marksLegacyRowsAndIsIdempotent() throws Exception {
+        var value = "{\"owner\":\"测试玩家\",\"energy-charge\":\"1024\"}";
+        var legacyValue = Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+
+        Class.forName("org.sqlite.JDBC");
+        try (var connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+                var statement = connection.createStatement()) {
+            statement.execute(
+                    "CREATE TABLE chunk_data (chunk CHAR(64) NOT NULL, data_key CHAR(64) NOT NULL, data_val TEXT NOT NULL, PRIMARY KEY (chunk, data_key))");
+            try (var insert = connection.prepareStatement("INSERT INTO chunk_data VALUES (?, ?, ?)")) {
+                insert.setString(1, "world;0:0");
+                insert.setString(2, "data");
+                insert.setString(3, legacyValue);
+                insert.executeUpdate();
+            }
+
+            var patch = new DatabasePatchV4(DataEncoding.BASE64);
+            var config = new SqliteConfig(":memory:", 1);
+            patch.patch(statement, config);
+            patch.patch(statement, config);
+
+            try (var result = statement.executeQuery("SELECT data_val, data_enc FROM chunk_data")) {
+                assertTrue(result.next());
+                var encoding = DataEncoding.fromId(result.getString("data_enc"));
+                assertEquals(DataEncoding.BASE64, encoding);
+                assertEquals(value, encoding.decode(result.getString("data_val")));
+            }
+
+            statement.execute("INSERT INTO chunk_data VALUES ('world;0:0', 'raw', 'abc', 0)");
+            try (var result =
+                    statement.executeQuery("SELECT data_val, data_enc FROM chunk_data WHERE data_key='raw'")) {
+                assertTrue(result.next());
+                var encoding = DataEncoding.fromId(result.getString("data_enc"));
+                assertEquals(DataEncoding.RAW, encoding);
+                assertEquals("abc", encoding.decode(result.getString("data_val")));
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.xzavier0722.mc.plugin.slimefun4.storage.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentLongObjectMapTest {
+
+    @Test
+    void behavesLikeHashMapUnderRandomOperations() {
+        var map = new ConcurrentLongObjectMap<String>();
+        var expected = new HashMap<Long, String>();
+        var random = new Random(42);
+
+        for (var i = 0; i < 100_000; i++) {
+            long key = random.nextInt(2048) - 1024;
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(expected.put(key, "v" + i), map.put(key, "v" + i));
+                case 1 -> assertEquals(expected.remove(key), map.remove(key));
+                default -> assertEquals(expected.get(key), map.get(key));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+    }
+
+    @Test
+    void removesOnlyExpectedValue() {
+        var map = new ConcurrentLongObjectMap<String>();
+        map.put(1L, "a");
+
+        assertFalse(map.remove(1L, "b"));
+        assertEquals("a", map.putIfAbsent(1L, "b"));
+        assertTrue(map.remove(1L, "a"));
+        assertNull(map.get(1L));
+    }
+
+    @Test
+    void packsDistinctBlockKeys() {
+        assertNotEquals(LocationUtils.packBlockKey(0, -64, 0), LocationUtils.packBlockKey(0, 64, 0));
+        assertNotEquals(LocationUtils.packBlockKey(-1, 0, 0), LocationUtils.packBlockKey(0, 0, -1));
+        assertEquals(
+                LocationUtils.packBlockKey(-29_999_999, -2048, 29_999_999),
+                LocationUtils.packBlockKey("world;-29999999:-2048:29999999"));
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.thebusybiscuit.slimefun4.core.services.backup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.sql.DriverManager;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TestBackupEngine {
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    static void load() throws ClassNotFoundException {
+        Class.forName("org.sqlite.JDBC");
+    }
+
+    @Test
+    void restoresDifferentialBackup() throws Exception {
+        var database = tempDir.resolve("block-storage.db").toFile();
+        var engine = new BackupEngine(tempDir.resolve("backups").toFile(), 5);
+
+        try (var connection = DriverManager.getConnection("jdbc:sqlite:" + database);
+                var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE data (id INTEGER PRIMARY KEY, value TEXT NOT NULL)");
+            statement.execute("WITH RECURSIVE n(i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n WHERE i < 5000) "
+                    + "INSERT INTO data (value) SELECT 'value-' || i FROM n");
+        }
+
+        var full = engine.backup(List.of(database), false);
+        assertNotNull(full);
+        assertTrue(full.full());
+
+        try (var connection = DriverManager.getConnection("jdbc:sqlite:" + database);
+                var statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE data SET value = 'changed' WHERE id = 1");
+        }
+
+        // A second backup within the same second must not collide with the first one
+        var delta = engine.backup(List.of(database), false);
+        assertNotNull(delta);
+        assertFalse(delta.full());
+        assertNotEquals(full.name(), delta.name());
+        assertEquals(delta.name(), engine.listBackups().get(0).getName());
+
+        var results = engine.restoreAndVerify(delta.name());
+        assertEquals(1, results.size());
+        assertTrue(results.get(0).intact(), results.get(0).message());
+
+        File restored = results.get(0).database();
+        try (var connection = DriverManager.getConnection("jdbc:sqlite:" + restored);
+                var statement = connection.createStatement()) {
+            try (var result = statement.executeQuery("SELECT value FROM data WHERE id = 1")) {
+                assertTrue(result.next());
+                assertEquals("changed", result.getString(1));
+            }
+
+            try (var result = statement.executeQuery("SELECT count(*) FROM data")) {
+                assertTrue(result.next());
+                assertEquals(5000, result.getInt(1));
+            }
+        }
+    }
+}